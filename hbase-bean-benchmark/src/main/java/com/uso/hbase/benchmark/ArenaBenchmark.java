@@ -0,0 +1,65 @@
+package com.uso.hbase.benchmark;
+
+import com.uso.hbase.converter.DefaultConversionService;
+import com.uso.hbase.handler.HRowHandler;
+import com.uso.hbase.handler.PutArena;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hbase.client.Put;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link HRowHandler#buildPut} with a value and a cell array per column against encoding into a {@link PutArena}.
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}. The arena is reset before every put, as if each
+ * put were sent on its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArenaBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int width;
+
+    @Param({"0.0", "0.5"})
+    private double nullRatio;
+
+    private HRowHandler<Object> handler;
+
+    private PutArena arena;
+
+    private Object bean;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        Class<Object> clazz = (Class<Object>) Fixtures.beanClass(this.width);
+        this.handler = new HRowHandler<>(clazz, new DefaultConversionService());
+        this.arena = new PutArena(64 * 1024);
+        this.bean = Fixtures.newBean(clazz, 42, this.nullRatio);
+    }
+
+    @Benchmark
+    public Put buildPut() throws Exception {
+        return this.handler.buildPut(this.bean);
+    }
+
+    @Benchmark
+    public Put buildPutArena() throws Exception {
+        this.arena.reset();
+        return this.handler.buildPut(this.bean, this.arena);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.uso.hbase.benchmark;
+
+import com.uso.hbase.annotation.ColumnCodec;
+import com.uso.hbase.converter.ConversionService;
+import com.uso.hbase.converter.DefaultConversionService;
+import com.uso.hbase.converter.codec.ValueCodec;
+import com.uso.hbase.converter.codec.ValueCodecs;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The column codecs against the plain converter of the same values, the CPU paid for the bytes a codec saves. Each
+ * invocation takes the next of {@value #VALUES} values drawn per codec: varints of one to nine bytes, dictionary hits
+ * and misses, and text both below and above {@link ValueCodecs#DEFLATE_MIN_LENGTH}, so that no single branch is
+ * measured alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private static final String[] COUNTRIES = {"CN", "US", "DE", "FR", "JP"};
+
+    private static final String[] OTHER_COUNTRIES = {"BR", "IN", "KR"};
+
+    private static final int VALUES = 64;
+
+    @Param({"VARINT", "DICTIONARY", "DEFLATE"})
+    private ColumnCodec codec;
+
+    private ConversionService conversionService;
+
+    private ValueCodec valueCodec;
+
+    private Class<?> type;
+
+    private final Object[] values = new Object[VALUES];
+
+    private final byte[][] encoded = new byte[VALUES][];
+
+    private final byte[][] plain = new byte[VALUES][];
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.conversionService = new DefaultConversionService();
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            switch (this.codec) {
+                case VARINT:
+                    // mostly small counters, some ids and timestamps, a few negative
+                    int bits = random.nextInt(4) == 0 ? 20 + random.nextInt(43) : 1 + random.nextInt(14);
+                    long number = random.nextLong() >>> (64 - bits);
+                    this.values[i] = random.nextInt(8) == 0 ? -number : number;
+                    break;
+                case DICTIONARY:
+                    this.values[i] = random.nextInt(5) == 0 ? OTHER_COUNTRIES[random.nextInt(OTHER_COUNTRIES.length)]
+                        : COUNTRIES[random.nextInt(COUNTRIES.length)];
+                    break;
+                default:
+                    StringBuilder text = new StringBuilder();
+                    int records = 1 + random.nextInt(48);
+                    for (int j = 0; j < records; j++) {
+                        text.append("{\"id\":").append(random.nextInt(100000)).append(",\"status\":\"")
+                            .append(random.nextBoolean() ? "ACTIVE" : "CLOSED").append("\"}");
+                    }
+                    this.values[i] = text.toString();
+            }
+        }
+        this.type = this.values[0].getClass();
+        this.valueCodec = ValueCodecs.create(this.codec, this.type, COUNTRIES, this.conversionService);
+        for (int i = 0; i < VALUES; i++) {
+            this.encoded[i] = this.valueCodec.encode(this.values[i]);
+            this.plain[i] = this.conversionService.convert(this.values[i]);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return this.valueCodec.encode(this.values[this.next()]);
+    }
+
+    @Benchmark
+    public Object decode() {
+        byte[] bytes = this.encoded[this.next()];
+        return this.valueCodec.decode(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodePlain() {
+        return this.conversionService.convert(this.values[this.next()]);
+    }
+
+    @Benchmark
+    public Object decodePlain() {
+        byte[] bytes = this.plain[this.next()];
+        return this.conversionService.from(bytes, 0, bytes.length, this.type);
+    }
+
+    private int next() {
+        this.next = (this.next + 1) & (VALUES - 1);
+        return this.next;
+    }
+
+}
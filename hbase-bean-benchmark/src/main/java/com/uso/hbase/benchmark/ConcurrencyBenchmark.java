@@ -0,0 +1,74 @@
+package com.uso.hbase.benchmark;
+
+import com.uso.hbase.handler.DefaultHandlerFactory;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One shared {@link DefaultHandlerFactory} used by a single thread and by several, to expose contention in the
+ * handler cache and the conversion service. Compare the per-operation time of the two thread counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrencyBenchmark {
+
+    private static final int WIDTH = 50;
+
+    private DefaultHandlerFactory handlerFactory;
+
+    private Class<?> clazz;
+
+    private Object bean;
+
+    private Result result;
+
+    @Setup
+    public void setup() throws HProcessException {
+        this.handlerFactory = new DefaultHandlerFactory();
+        this.clazz = Fixtures.beanClass(WIDTH);
+        this.bean = Fixtures.newBean(this.clazz, 42, 0.2);
+        this.result = Fixtures.toResult(this.handlerFactory.buildPut(this.bean));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object convertSingleThread() throws HProcessException {
+        return this.handlerFactory.convert(this.result, this.clazz);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object convertFourThreads() throws HProcessException {
+        return this.handlerFactory.convert(this.result, this.clazz);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Put buildPutSingleThread() throws HProcessException {
+        return this.handlerFactory.buildPut(this.bean);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Put buildPutFourThreads() throws HProcessException {
+        return this.handlerFactory.buildPut(this.bean);
+    }
+
+}
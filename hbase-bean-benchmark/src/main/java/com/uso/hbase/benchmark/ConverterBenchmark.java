@@ -0,0 +1,102 @@
+package com.uso.hbase.benchmark;
+
+import com.uso.hbase.converter.Converter;
+import com.uso.hbase.converter.DefaultConversionService;
+import com.uso.hbase.converter.GenericConversionService;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converter lookup and the converters themselves, per value type. {@code Integer} is registered first and
+ * {@code ByteBuffer} last by {@link DefaultConversionService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"Integer", "Long", "Double", "String", "BigDecimal", "ByteBuffer"})
+    private String type;
+
+    private GenericConversionService conversionService;
+
+    private final List<Converter> converters = new ArrayList<>();
+
+    private Class<?> clazz;
+
+    private Object value;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        this.conversionService = new DefaultConversionService();
+        DefaultConversionService.addDefaultConverters(this.converters::add);
+        switch (this.type) {
+            case "Integer":
+                this.value = 123456;
+                break;
+            case "Long":
+                this.value = 1234567890123L;
+                break;
+            case "Double":
+                this.value = 3.14159;
+                break;
+            case "String":
+                this.value = "a typical column value";
+                break;
+            case "BigDecimal":
+                this.value = new BigDecimal("12345.6789");
+                break;
+            default:
+                this.value = ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        this.clazz = this.value.getClass();
+        this.bytes = this.conversionService.convert(this.value);
+    }
+
+    /**
+     * Cached lookup, as done on every value of a field without a bound converter.
+     */
+    @Benchmark
+    public Converter<?> lookup() {
+        return this.conversionService.getConverter(this.clazz);
+    }
+
+    /**
+     * Uncached lookup: the linear scan over the registered converters, plus resetting them to empty the cache.
+     */
+    @Benchmark
+    public Converter<?> lookupCold() {
+        this.conversionService.setConverters(this.converters);
+        return this.conversionService.getConverter(this.clazz);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return this.conversionService.convert(this.value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return this.conversionService.from(this.bytes, 0, this.bytes.length, this.clazz);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.uso.hbase.benchmark;
+
+import com.uso.hbase.benchmark.model.Bean5;
+import com.uso.hbase.benchmark.model.Bean50;
+import com.uso.hbase.benchmark.model.Bean500;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Synthetic beans and the {@link Result}s a region server would return for them, so that benchmarks run without a
+ * cluster.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static Class<?> beanClass(final int width) {
+        switch (width) {
+            case 5:
+                return Bean5.class;
+            case 50:
+                return Bean50.class;
+            case 500:
+                return Bean500.class;
+            default:
+                throw new IllegalArgumentException("no bean of width " + width);
+        }
+    }
+
+    /**
+     * Fills every field with a value derived from the seed. Reference fields are left {@code null} with the given
+     * probability, primitives always have a value.
+     */
+    public static <T> T newBean(final Class<T> clazz, final int seed, final double nullRatio) {
+        Random random = new Random(seed);
+        try {
+            T bean = clazz.newInstance();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Class<?> type = field.getType();
+                if (field.getName().equals("id")) {
+                    field.set(bean, String.format("row-%08d", seed));
+                } else if (type == int.class) {
+                    field.setInt(bean, random.nextInt());
+                } else if (type == long.class) {
+                    field.setLong(bean, random.nextLong());
+                } else if (type == double.class) {
+                    field.setDouble(bean, random.nextDouble());
+                } else if (random.nextDouble() >= nullRatio) {
+                    field.set(bean, type == String.class ? "value-" + random.nextInt(1000) : random.nextLong());
+                }
+            }
+            return bean;
+        } catch (final ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * The cells of the put in the order of a scan result.
+     */
+    public static Result toResult(final Put put) {
+        List<Cell> cells = new ArrayList<>();
+        for (List<Cell> family : put.getFamilyCellMap().values()) {
+            cells.addAll(family);
+        }
+        cells.sort(CellComparator.getInstance());
+        return Result.create(cells);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.uso.hbase.benchmark;
+
+import com.uso.hbase.converter.DefaultConversionService;
+import com.uso.hbase.handler.DecodeMode;
+import com.uso.hbase.handler.HRowHandler;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link HRowHandler#convert} and {@link HRowHandler#buildPut} across bean widths and null densities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int width;
+
+    @Param({"0.0", "0.5"})
+    private double nullRatio;
+
+    private HRowHandler<Object> lookupHandler;
+
+    private HRowHandler<Object> cellScanHandler;
+
+    private Object bean;
+
+    private Result result;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        Class<Object> clazz = (Class<Object>) Fixtures.beanClass(this.width);
+        this.lookupHandler = new HRowHandler<>(clazz, new DefaultConversionService());
+        this.cellScanHandler = new HRowHandler<>(clazz, new DefaultConversionService());
+        this.cellScanHandler.setDecodeMode(DecodeMode.CELL_SCAN);
+        this.bean = Fixtures.newBean(clazz, 42, this.nullRatio);
+        this.result = Fixtures.toResult(this.lookupHandler.buildPut(this.bean));
+    }
+
+    @Benchmark
+    public Object convert() throws Exception {
+        return this.lookupHandler.convert(this.result);
+    }
+
+    @Benchmark
+    public Object convertCellScan() throws Exception {
+        return this.cellScanHandler.convert(this.result);
+    }
+
+    @Benchmark
+    public Put buildPut() throws Exception {
+        return this.lookupHandler.buildPut(this.bean);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.uso.hbase.benchmark.model;
+
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Synthetic bean of 5 columns cycling through {@code int}, {@code long}, {@code double}, {@code String} and
+ * {@code Long}.
+ */
+@Getter
+@Setter
+@HRow(defaultFamily = "f")
+public class Bean5 {
+
+    @HRowkey
+    private String id;
+
+    private int f0;
+
+    private long f1;
+
+    private double f2;
+
+    private String f3;
+
+    private Long f4;
+
+}
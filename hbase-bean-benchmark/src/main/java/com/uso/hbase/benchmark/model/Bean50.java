@@ -0,0 +1,120 @@
+package com.uso.hbase.benchmark.model;
+
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Synthetic bean of 50 columns cycling through {@code int}, {@code long}, {@code double}, {@code String} and
+ * {@code Long}.
+ */
+@Getter
+@Setter
+@HRow(defaultFamily = "f")
+public class Bean50 {
+
+    @HRowkey
+    private String id;
+
+    private int f0;
+
+    private long f1;
+
+    private double f2;
+
+    private String f3;
+
+    private Long f4;
+
+    private int f5;
+
+    private long f6;
+
+    private double f7;
+
+    private String f8;
+
+    private Long f9;
+
+    private int f10;
+
+    private long f11;
+
+    private double f12;
+
+    private String f13;
+
+    private Long f14;
+
+    private int f15;
+
+    private long f16;
+
+    private double f17;
+
+    private String f18;
+
+    private Long f19;
+
+    private int f20;
+
+    private long f21;
+
+    private double f22;
+
+    private String f23;
+
+    private Long f24;
+
+    private int f25;
+
+    private long f26;
+
+    private double f27;
+
+    private String f28;
+
+    private Long f29;
+
+    private int f30;
+
+    private long f31;
+
+    private double f32;
+
+    private String f33;
+
+    private Long f34;
+
+    private int f35;
+
+    private long f36;
+
+    private double f37;
+
+    private String f38;
+
+    private Long f39;
+
+    private int f40;
+
+    private long f41;
+
+    private double f42;
+
+    private String f43;
+
+    private Long f44;
+
+    private int f45;
+
+    private long f46;
+
+    private double f47;
+
+    private String f48;
+
+    private Long f49;
+
+}
@@ -0,0 +1,1020 @@
+package com.uso.hbase.benchmark.model;
+
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Synthetic bean of 500 columns cycling through {@code int}, {@code long}, {@code double}, {@code String} and
+ * {@code Long}.
+ */
+@Getter
+@Setter
+@HRow(defaultFamily = "f")
+public class Bean500 {
+
+    @HRowkey
+    private String id;
+
+    private int f0;
+
+    private long f1;
+
+    private double f2;
+
+    private String f3;
+
+    private Long f4;
+
+    private int f5;
+
+    private long f6;
+
+    private double f7;
+
+    private String f8;
+
+    private Long f9;
+
+    private int f10;
+
+    private long f11;
+
+    private double f12;
+
+    private String f13;
+
+    private Long f14;
+
+    private int f15;
+
+    private long f16;
+
+    private double f17;
+
+    private String f18;
+
+    private Long f19;
+
+    private int f20;
+
+    private long f21;
+
+    private double f22;
+
+    private String f23;
+
+    private Long f24;
+
+    private int f25;
+
+    private long f26;
+
+    private double f27;
+
+    private String f28;
+
+    private Long f29;
+
+    private int f30;
+
+    private long f31;
+
+    private double f32;
+
+    private String f33;
+
+    private Long f34;
+
+    private int f35;
+
+    private long f36;
+
+    private double f37;
+
+    private String f38;
+
+    private Long f39;
+
+    private int f40;
+
+    private long f41;
+
+    private double f42;
+
+    private String f43;
+
+    private Long f44;
+
+    private int f45;
+
+    private long f46;
+
+    private double f47;
+
+    private String f48;
+
+    private Long f49;
+
+    private int f50;
+
+    private long f51;
+
+    private double f52;
+
+    private String f53;
+
+    private Long f54;
+
+    private int f55;
+
+    private long f56;
+
+    private double f57;
+
+    private String f58;
+
+    private Long f59;
+
+    private int f60;
+
+    private long f61;
+
+    private double f62;
+
+    private String f63;
+
+    private Long f64;
+
+    private int f65;
+
+    private long f66;
+
+    private double f67;
+
+    private String f68;
+
+    private Long f69;
+
+    private int f70;
+
+    private long f71;
+
+    private double f72;
+
+    private String f73;
+
+    private Long f74;
+
+    private int f75;
+
+    private long f76;
+
+    private double f77;
+
+    private String f78;
+
+    private Long f79;
+
+    private int f80;
+
+    private long f81;
+
+    private double f82;
+
+    private String f83;
+
+    private Long f84;
+
+    private int f85;
+
+    private long f86;
+
+    private double f87;
+
+    private String f88;
+
+    private Long f89;
+
+    private int f90;
+
+    private long f91;
+
+    private double f92;
+
+    private String f93;
+
+    private Long f94;
+
+    private int f95;
+
+    private long f96;
+
+    private double f97;
+
+    private String f98;
+
+    private Long f99;
+
+    private int f100;
+
+    private long f101;
+
+    private double f102;
+
+    private String f103;
+
+    private Long f104;
+
+    private int f105;
+
+    private long f106;
+
+    private double f107;
+
+    private String f108;
+
+    private Long f109;
+
+    private int f110;
+
+    private long f111;
+
+    private double f112;
+
+    private String f113;
+
+    private Long f114;
+
+    private int f115;
+
+    private long f116;
+
+    private double f117;
+
+    private String f118;
+
+    private Long f119;
+
+    private int f120;
+
+    private long f121;
+
+    private double f122;
+
+    private String f123;
+
+    private Long f124;
+
+    private int f125;
+
+    private long f126;
+
+    private double f127;
+
+    private String f128;
+
+    private Long f129;
+
+    private int f130;
+
+    private long f131;
+
+    private double f132;
+
+    private String f133;
+
+    private Long f134;
+
+    private int f135;
+
+    private long f136;
+
+    private double f137;
+
+    private String f138;
+
+    private Long f139;
+
+    private int f140;
+
+    private long f141;
+
+    private double f142;
+
+    private String f143;
+
+    private Long f144;
+
+    private int f145;
+
+    private long f146;
+
+    private double f147;
+
+    private String f148;
+
+    private Long f149;
+
+    private int f150;
+
+    private long f151;
+
+    private double f152;
+
+    private String f153;
+
+    private Long f154;
+
+    private int f155;
+
+    private long f156;
+
+    private double f157;
+
+    private String f158;
+
+    private Long f159;
+
+    private int f160;
+
+    private long f161;
+
+    private double f162;
+
+    private String f163;
+
+    private Long f164;
+
+    private int f165;
+
+    private long f166;
+
+    private double f167;
+
+    private String f168;
+
+    private Long f169;
+
+    private int f170;
+
+    private long f171;
+
+    private double f172;
+
+    private String f173;
+
+    private Long f174;
+
+    private int f175;
+
+    private long f176;
+
+    private double f177;
+
+    private String f178;
+
+    private Long f179;
+
+    private int f180;
+
+    private long f181;
+
+    private double f182;
+
+    private String f183;
+
+    private Long f184;
+
+    private int f185;
+
+    private long f186;
+
+    private double f187;
+
+    private String f188;
+
+    private Long f189;
+
+    private int f190;
+
+    private long f191;
+
+    private double f192;
+
+    private String f193;
+
+    private Long f194;
+
+    private int f195;
+
+    private long f196;
+
+    private double f197;
+
+    private String f198;
+
+    private Long f199;
+
+    private int f200;
+
+    private long f201;
+
+    private double f202;
+
+    private String f203;
+
+    private Long f204;
+
+    private int f205;
+
+    private long f206;
+
+    private double f207;
+
+    private String f208;
+
+    private Long f209;
+
+    private int f210;
+
+    private long f211;
+
+    private double f212;
+
+    private String f213;
+
+    private Long f214;
+
+    private int f215;
+
+    private long f216;
+
+    private double f217;
+
+    private String f218;
+
+    private Long f219;
+
+    private int f220;
+
+    private long f221;
+
+    private double f222;
+
+    private String f223;
+
+    private Long f224;
+
+    private int f225;
+
+    private long f226;
+
+    private double f227;
+
+    private String f228;
+
+    private Long f229;
+
+    private int f230;
+
+    private long f231;
+
+    private double f232;
+
+    private String f233;
+
+    private Long f234;
+
+    private int f235;
+
+    private long f236;
+
+    private double f237;
+
+    private String f238;
+
+    private Long f239;
+
+    private int f240;
+
+    private long f241;
+
+    private double f242;
+
+    private String f243;
+
+    private Long f244;
+
+    private int f245;
+
+    private long f246;
+
+    private double f247;
+
+    private String f248;
+
+    private Long f249;
+
+    private int f250;
+
+    private long f251;
+
+    private double f252;
+
+    private String f253;
+
+    private Long f254;
+
+    private int f255;
+
+    private long f256;
+
+    private double f257;
+
+    private String f258;
+
+    private Long f259;
+
+    private int f260;
+
+    private long f261;
+
+    private double f262;
+
+    private String f263;
+
+    private Long f264;
+
+    private int f265;
+
+    private long f266;
+
+    private double f267;
+
+    private String f268;
+
+    private Long f269;
+
+    private int f270;
+
+    private long f271;
+
+    private double f272;
+
+    private String f273;
+
+    private Long f274;
+
+    private int f275;
+
+    private long f276;
+
+    private double f277;
+
+    private String f278;
+
+    private Long f279;
+
+    private int f280;
+
+    private long f281;
+
+    private double f282;
+
+    private String f283;
+
+    private Long f284;
+
+    private int f285;
+
+    private long f286;
+
+    private double f287;
+
+    private String f288;
+
+    private Long f289;
+
+    private int f290;
+
+    private long f291;
+
+    private double f292;
+
+    private String f293;
+
+    private Long f294;
+
+    private int f295;
+
+    private long f296;
+
+    private double f297;
+
+    private String f298;
+
+    private Long f299;
+
+    private int f300;
+
+    private long f301;
+
+    private double f302;
+
+    private String f303;
+
+    private Long f304;
+
+    private int f305;
+
+    private long f306;
+
+    private double f307;
+
+    private String f308;
+
+    private Long f309;
+
+    private int f310;
+
+    private long f311;
+
+    private double f312;
+
+    private String f313;
+
+    private Long f314;
+
+    private int f315;
+
+    private long f316;
+
+    private double f317;
+
+    private String f318;
+
+    private Long f319;
+
+    private int f320;
+
+    private long f321;
+
+    private double f322;
+
+    private String f323;
+
+    private Long f324;
+
+    private int f325;
+
+    private long f326;
+
+    private double f327;
+
+    private String f328;
+
+    private Long f329;
+
+    private int f330;
+
+    private long f331;
+
+    private double f332;
+
+    private String f333;
+
+    private Long f334;
+
+    private int f335;
+
+    private long f336;
+
+    private double f337;
+
+    private String f338;
+
+    private Long f339;
+
+    private int f340;
+
+    private long f341;
+
+    private double f342;
+
+    private String f343;
+
+    private Long f344;
+
+    private int f345;
+
+    private long f346;
+
+    private double f347;
+
+    private String f348;
+
+    private Long f349;
+
+    private int f350;
+
+    private long f351;
+
+    private double f352;
+
+    private String f353;
+
+    private Long f354;
+
+    private int f355;
+
+    private long f356;
+
+    private double f357;
+
+    private String f358;
+
+    private Long f359;
+
+    private int f360;
+
+    private long f361;
+
+    private double f362;
+
+    private String f363;
+
+    private Long f364;
+
+    private int f365;
+
+    private long f366;
+
+    private double f367;
+
+    private String f368;
+
+    private Long f369;
+
+    private int f370;
+
+    private long f371;
+
+    private double f372;
+
+    private String f373;
+
+    private Long f374;
+
+    private int f375;
+
+    private long f376;
+
+    private double f377;
+
+    private String f378;
+
+    private Long f379;
+
+    private int f380;
+
+    private long f381;
+
+    private double f382;
+
+    private String f383;
+
+    private Long f384;
+
+    private int f385;
+
+    private long f386;
+
+    private double f387;
+
+    private String f388;
+
+    private Long f389;
+
+    private int f390;
+
+    private long f391;
+
+    private double f392;
+
+    private String f393;
+
+    private Long f394;
+
+    private int f395;
+
+    private long f396;
+
+    private double f397;
+
+    private String f398;
+
+    private Long f399;
+
+    private int f400;
+
+    private long f401;
+
+    private double f402;
+
+    private String f403;
+
+    private Long f404;
+
+    private int f405;
+
+    private long f406;
+
+    private double f407;
+
+    private String f408;
+
+    private Long f409;
+
+    private int f410;
+
+    private long f411;
+
+    private double f412;
+
+    private String f413;
+
+    private Long f414;
+
+    private int f415;
+
+    private long f416;
+
+    private double f417;
+
+    private String f418;
+
+    private Long f419;
+
+    private int f420;
+
+    private long f421;
+
+    private double f422;
+
+    private String f423;
+
+    private Long f424;
+
+    private int f425;
+
+    private long f426;
+
+    private double f427;
+
+    private String f428;
+
+    private Long f429;
+
+    private int f430;
+
+    private long f431;
+
+    private double f432;
+
+    private String f433;
+
+    private Long f434;
+
+    private int f435;
+
+    private long f436;
+
+    private double f437;
+
+    private String f438;
+
+    private Long f439;
+
+    private int f440;
+
+    private long f441;
+
+    private double f442;
+
+    private String f443;
+
+    private Long f444;
+
+    private int f445;
+
+    private long f446;
+
+    private double f447;
+
+    private String f448;
+
+    private Long f449;
+
+    private int f450;
+
+    private long f451;
+
+    private double f452;
+
+    private String f453;
+
+    private Long f454;
+
+    private int f455;
+
+    private long f456;
+
+    private double f457;
+
+    private String f458;
+
+    private Long f459;
+
+    private int f460;
+
+    private long f461;
+
+    private double f462;
+
+    private String f463;
+
+    private Long f464;
+
+    private int f465;
+
+    private long f466;
+
+    private double f467;
+
+    private String f468;
+
+    private Long f469;
+
+    private int f470;
+
+    private long f471;
+
+    private double f472;
+
+    private String f473;
+
+    private Long f474;
+
+    private int f475;
+
+    private long f476;
+
+    private double f477;
+
+    private String f478;
+
+    private Long f479;
+
+    private int f480;
+
+    private long f481;
+
+    private double f482;
+
+    private String f483;
+
+    private Long f484;
+
+    private int f485;
+
+    private long f486;
+
+    private double f487;
+
+    private String f488;
+
+    private Long f489;
+
+    private int f490;
+
+    private long f491;
+
+    private double f492;
+
+    private String f493;
+
+    private Long f494;
+
+    private int f495;
+
+    private long f496;
+
+    private double f497;
+
+    private String f498;
+
+    private Long f499;
+
+}
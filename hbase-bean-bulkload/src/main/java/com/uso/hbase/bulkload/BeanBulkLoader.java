@@ -0,0 +1,381 @@
+package com.uso.hbase.bulkload;
+
+import com.uso.hbase.handler.HandlerFactory;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.io.hfile.HFileContext;
+import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.regionserver.HStoreFile;
+import org.apache.hadoop.hbase.regionserver.StoreFileWriter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Writes a stream of beans as HFiles for HBase's incremental bulk load ({@code LoadIncrementalHFiles}), on the local
+ * filesystem only. Workers encode chunks of beans into cells through the bean mappings and sort them into runs spilled
+ * to memory-mapped temp files, so the heap holds at most {@code spillThresholdBytes} of unsorted cells. The runs are
+ * then merged region by region in parallel, each region giving one file per family under
+ * {@code <output>/<family>/}.
+ *
+ * <p>Cells are stamped with the load time unless the mapping set a timestamp. Of cells repeated with the same key and
+ * timestamp, e.g. by two beans of the same rowkey, an arbitrary one is kept.
+ */
+@Slf4j
+public class BeanBulkLoader {
+
+    private static final long MAX_RUN_BYTES = 1L << 30;
+
+    private final HandlerFactory handlerFactory;
+
+    private final BulkLoadConfig config;
+
+    private final Configuration conf = new Configuration();
+
+    public BeanBulkLoader(final HandlerFactory handlerFactory, final BulkLoadConfig config) {
+        if (config.getWorkers() < 1 || config.getChunkSize() < 1 || config.getSpillThresholdBytes() < 1) {
+            throw new IllegalArgumentException("need workers, chunkSize and spillThresholdBytes > 0");
+        }
+        this.handlerFactory = handlerFactory;
+        this.config = config;
+    }
+
+    public BulkLoadResult write(final Stream<?> beans, final byte[][] splitKeys, final Path outputDirectory)
+        throws IOException, HProcessException {
+        return this.write(beans.iterator(), splitKeys, outputDirectory);
+    }
+
+    /**
+     * @param splitKeys       start rows of the regions after the first, as passed to {@code Admin.createTable}
+     * @param outputDirectory created if missing; must not hold family directories of another load
+     */
+    public BulkLoadResult write(final Iterator<?> beans, final byte[][] splitKeys, final Path outputDirectory)
+        throws IOException, HProcessException {
+        byte[][] splits = splitKeys.clone();
+        Arrays.sort(splits, Bytes.BYTES_COMPARATOR);
+        Files.createDirectories(outputDirectory);
+        Files.createDirectories(this.config.getTempDirectory());
+        List<SpillRun> runs = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(this.config.getWorkers(), new ThreadFactoryImpl());
+        try {
+            long count = this.sort(beans, splits, runs, pool);
+            List<Path> files = new ArrayList<>();
+            long cells = this.merge(runs, splits, outputDirectory, pool, files);
+            return new BulkLoadResult(count, cells, runs.size(), files);
+        } finally {
+            pool.shutdownNow();
+            // reading an unmapped run crashes the JVM, so runs a worker may still read are left to the collector
+            boolean idle = awaitTermination(pool);
+            for (SpillRun run : runs) {
+                try {
+                    run.delete(idle);
+                } catch (final IOException | RuntimeException ex) {
+                    log.warn("cannot delete spill run", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Feeds chunks of beans to the workers, each sorting and spilling its own runs.
+     *
+     * @return the number of beans
+     */
+    private long sort(final Iterator<?> beans, final byte[][] splits, final List<SpillRun> runs,
+                      final ExecutorService pool) throws IOException, HProcessException {
+        int workers = this.config.getWorkers();
+        long runBytes = Math.min(MAX_RUN_BYTES, Math.max(1, this.config.getSpillThresholdBytes() / workers));
+        BlockingQueue<List<Object>> chunks = new ArrayBlockingQueue<>(workers * 2);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        long timestamp = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    this.encodeChunks(chunks, splits, runs, runBytes, timestamp);
+                } catch (final Exception ex) {
+                    failure.compareAndSet(null, ex);
+                }
+                return null;
+            }));
+        }
+        long count = 0;
+        List<Object> chunk = new ArrayList<>(this.config.getChunkSize());
+        while (beans.hasNext() && failure.get() == null) {
+            chunk.add(beans.next());
+            count++;
+            if (chunk.size() == this.config.getChunkSize()) {
+                this.offer(chunks, chunk, failure);
+                chunk = new ArrayList<>(this.config.getChunkSize());
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.offer(chunks, chunk, failure);
+        }
+        for (int i = 0; i < workers; i++) {
+            this.offer(chunks, Collections.emptyList(), failure);
+        }
+        if (failure.get() != null) {
+            // workers still waiting for a chunk would never get one
+            pool.shutdownNow();
+        }
+        awaitAll(futures);
+        rethrow(failure.get());
+        return count;
+    }
+
+    private void encodeChunks(final BlockingQueue<List<Object>> chunks, final byte[][] splits,
+                              final List<SpillRun> runs, final long runBytes, final long timestamp) throws Exception {
+        List<KeyValue> cells = new ArrayList<>();
+        long bytes = 0;
+        byte[] stamp = Bytes.toBytes(timestamp);
+        while (true) {
+            List<Object> chunk = chunks.take();
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (Object bean : chunk) {
+                Put put = this.handlerFactory.buildPut(bean);
+                for (List<Cell> family : put.getFamilyCellMap().values()) {
+                    for (Cell cell : family) {
+                        // puts built from beans hold key values already
+                        KeyValue kv = cell instanceof KeyValue ? (KeyValue) cell
+                            : KeyValueUtil.copyToNewKeyValue(cell);
+                        if (kv.getTimestamp() == HConstants.LATEST_TIMESTAMP) {
+                            kv.updateLatestStamp(stamp);
+                        }
+                        cells.add(kv);
+                        bytes += kv.heapSize();
+                    }
+                }
+            }
+            if (bytes >= runBytes) {
+                runs.add(spill(cells, splits, this.config.getTempDirectory()));
+                cells = new ArrayList<>();
+                bytes = 0;
+            }
+        }
+        if (!cells.isEmpty()) {
+            runs.add(spill(cells, splits, this.config.getTempDirectory()));
+        }
+    }
+
+    private static SpillRun spill(final List<KeyValue> cells, final byte[][] splits, final Path directory)
+        throws IOException {
+        cells.sort(CellComparator.getInstance());
+        return SpillRun.write(cells, splits, directory);
+    }
+
+    /**
+     * Merges every region on its own worker.
+     *
+     * @return the number of cells written
+     */
+    private long merge(final List<SpillRun> runs, final byte[][] splits, final Path outputDirectory,
+                       final ExecutorService pool, final List<Path> files) throws IOException, HProcessException {
+        LongAdder cells = new LongAdder();
+        List<Future<List<Path>>> futures = new ArrayList<>(splits.length + 1);
+        for (int region = 0; region <= splits.length; region++) {
+            int index = region;
+            futures.add(pool.submit(() -> this.mergeRegion(runs, index, outputDirectory, cells)));
+        }
+        Exception failure = null;
+        for (Future<List<Path>> future : futures) {
+            try {
+                files.addAll(future.get());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while merging");
+            } catch (final ExecutionException ex) {
+                failure = failure != null ? failure : (Exception) ex.getCause();
+            }
+        }
+        rethrow(failure);
+        return cells.sum();
+    }
+
+    private List<Path> mergeRegion(final List<SpillRun> runs, final int region, final Path outputDirectory,
+                                   final LongAdder cells) throws IOException {
+        CellComparator comparator = CellComparator.getInstance();
+        PriorityQueue<SpillRun.Cursor> heap = new PriorityQueue<>(Math.max(1, runs.size()),
+            (left, right) -> comparator.compare(left.current(), right.current()));
+        for (SpillRun run : runs) {
+            SpillRun.Cursor cursor = run.cursor(region);
+            if (cursor != null) {
+                heap.add(cursor);
+            }
+        }
+        Map<byte[], StoreFileWriter> writers = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+        List<Path> files = new ArrayList<>();
+        KeyValue previous = null;
+        StoreFileWriter writer = null;
+        try {
+            while (!heap.isEmpty()) {
+                SpillRun.Cursor cursor = heap.poll();
+                KeyValue cell = cursor.current();
+                if (previous == null || comparator.compare(previous, cell) != 0) {
+                    if (previous == null || !CellUtil.matchingFamily(previous, cell)) {
+                        byte[] family = CellUtil.cloneFamily(cell);
+                        writer = writers.get(family);
+                        if (writer == null) {
+                            writer = this.openWriter(outputDirectory, family, files);
+                            writers.put(family, writer);
+                        }
+                    }
+                    writer.append(cell);
+                    cells.increment();
+                    previous = cell;
+                }
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        } finally {
+            IOException failure = null;
+            for (StoreFileWriter opened : writers.values()) {
+                try {
+                    this.close(opened);
+                } catch (final IOException ex) {
+                    failure = failure != null ? failure : ex;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return files;
+    }
+
+    private StoreFileWriter openWriter(final Path outputDirectory, final byte[] family, final List<Path> files)
+        throws IOException {
+        Path directory = outputDirectory.resolve(Bytes.toString(family));
+        Files.createDirectories(directory);
+        // LoadIncrementalHFiles skips files whose name is not hex
+        Path file = directory.resolve(UUID.randomUUID().toString().replace("-", ""));
+        files.add(file);
+        HFileContext context = new HFileContextBuilder()
+            .withCompression(this.config.getCompression())
+            .withDataBlockEncoding(this.config.getDataBlockEncoding())
+            .withBlockSize(this.config.getBlockSize())
+            .withIncludesTags(true)
+            .build();
+        FileSystem fs = FileSystem.getLocal(this.conf);
+        return new StoreFileWriter.Builder(this.conf, fs)
+            .withFilePath(new org.apache.hadoop.fs.Path(file.toUri()))
+            .withFileContext(context)
+            .withBloomType(BloomType.NONE)
+            .build();
+    }
+
+    /**
+     * Adds the file info a bulk loaded file carries, as {@code HFileOutputFormat2} does.
+     */
+    private void close(final StoreFileWriter writer) throws IOException {
+        writer.appendFileInfo(HStoreFile.BULKLOAD_TIME_KEY,
+            Bytes.toBytes(System.currentTimeMillis()));
+        writer.appendFileInfo(HStoreFile.BULKLOAD_TASK_KEY,
+            Bytes.toBytes(BeanBulkLoader.class.getSimpleName()));
+        writer.appendFileInfo(HStoreFile.MAJOR_COMPACTION_KEY,
+            Bytes.toBytes(true));
+        writer.appendFileInfo(HStoreFile.EXCLUDE_FROM_MINOR_COMPACTION_KEY,
+            Bytes.toBytes(false));
+        writer.appendTrackedTimestampsToMetadata();
+        writer.close();
+    }
+
+    private void offer(final BlockingQueue<List<Object>> chunks, final List<Object> chunk,
+                       final AtomicReference<Exception> failure) throws IOException {
+        try {
+            while (failure.get() == null && !chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while sorting");
+        }
+    }
+
+    private static boolean awaitTermination(final ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("waiting for bulk load workers to stop");
+            }
+            return true;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitAll(final List<Future<?>> futures) throws IOException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while sorting");
+            } catch (final ExecutionException ex) {
+                // failures are recorded by the workers
+            }
+        }
+    }
+
+    private static void rethrow(final Exception failure) throws IOException, HProcessException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof HProcessException) {
+            throw (HProcessException) failure;
+        }
+        if (failure != null) {
+            throw new HProcessException(failure);
+        }
+    }
+
+    private static final class ThreadFactoryImpl implements ThreadFactory {
+
+        private final AtomicInteger id = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "hbase-bean-bulkload-" + this.id.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
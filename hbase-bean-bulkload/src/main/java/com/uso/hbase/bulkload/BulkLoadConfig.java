@@ -0,0 +1,44 @@
+package com.uso.hbase.bulkload;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+
+/**
+ * Settings of a {@link BeanBulkLoader}, read once when the loader is created.
+ */
+@Setter
+@Getter
+public class BulkLoadConfig {
+
+    /**
+     * Threads encoding and sorting beans, then merging regions.
+     */
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Heap the unsorted cells of all workers may take before each worker spills its share to a sorted run. A worker
+     * spills at most 1 GB at a time, the limit of one mapping.
+     */
+    private long spillThresholdBytes = 256L << 20;
+
+    /**
+     * Beans handed to a worker at a time.
+     */
+    private int chunkSize = 256;
+
+    /**
+     * Where the sorted runs are spilled, deleted once the files are written.
+     */
+    private Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    private Compression.Algorithm compression = Compression.Algorithm.NONE;
+
+    private DataBlockEncoding dataBlockEncoding = DataBlockEncoding.NONE;
+
+    private int blockSize = 64 * 1024;
+
+}
@@ -0,0 +1,34 @@
+package com.uso.hbase.bulkload;
+
+import java.nio.file.Path;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * What a {@link BeanBulkLoader} wrote.
+ */
+@Getter
+public final class BulkLoadResult {
+
+    private final long beans;
+
+    /**
+     * Cells written, after dropping cells repeated with the same key and timestamp.
+     */
+    private final long cells;
+
+    private final int runs;
+
+    /**
+     * The files, one per region and family, under {@code <output>/<family>/}.
+     */
+    private final List<Path> files;
+
+    BulkLoadResult(final long beans, final long cells, final int runs, final List<Path> files) {
+        this.beans = beans;
+        this.cells = cells;
+        this.runs = runs;
+        this.files = files;
+    }
+
+}
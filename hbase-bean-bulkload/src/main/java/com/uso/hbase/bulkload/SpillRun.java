@@ -0,0 +1,178 @@
+package com.uso.hbase.bulkload;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * A sorted run of cells in a memory-mapped temp file, each a length-prefixed {@link KeyValue}. The offset where every
+ * region starts is recorded while spilling, so that regions can be merged independently.
+ */
+final class SpillRun {
+
+    /**
+     * Releases a mapping at once instead of when its buffer is collected, which may be long after the file is
+     * deleted; {@code null} if the JVM offers no way to.
+     */
+    private static final Consumer<MappedByteBuffer> UNMAPPER = unmapper();
+
+    private final Path file;
+
+    private final MappedByteBuffer buffer;
+
+    private final int[] regionStarts;
+
+    private SpillRun(final Path file, final MappedByteBuffer buffer, final int[] regionStarts) {
+        this.file = file;
+        this.buffer = buffer;
+        this.regionStarts = regionStarts;
+    }
+
+    /**
+     * @param cells      sorted cells, at most 2 GB once written
+     * @param splitKeys  sorted start rows of the regions after the first
+     */
+    static SpillRun write(final List<KeyValue> cells, final byte[][] splitKeys, final Path directory)
+        throws IOException {
+        long size = 0;
+        for (KeyValue cell : cells) {
+            size += Bytes.SIZEOF_INT + cell.getLength();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("run of " + size + " bytes exceeds one mapping");
+        }
+        Path file = Files.createTempFile(directory, "hbase-bean-run-", ".tmp");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (final IOException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        int[] regionStarts = new int[splitKeys.length + 2];
+        int region = 0;
+        for (KeyValue cell : cells) {
+            while (region < splitKeys.length && Bytes.compareTo(cell.getRowArray(), cell.getRowOffset(),
+                cell.getRowLength(), splitKeys[region], 0, splitKeys[region].length) >= 0) {
+                regionStarts[++region] = buffer.position();
+            }
+            buffer.putInt(cell.getLength());
+            buffer.put(cell.getBuffer(), cell.getOffset(), cell.getLength());
+        }
+        while (region <= splitKeys.length) {
+            regionStarts[++region] = buffer.position();
+        }
+        return new SpillRun(file, buffer, regionStarts);
+    }
+
+    /**
+     * @return the cells of the region in order, {@code null} if the run has none
+     */
+    Cursor cursor(final int region) {
+        int start = this.regionStarts[region];
+        int end = this.regionStarts[region + 1];
+        if (start == end) {
+            return null;
+        }
+        ByteBuffer slice = this.buffer.duplicate();
+        slice.limit(end);
+        slice.position(start);
+        return new Cursor(slice);
+    }
+
+    /**
+     * Deletes the file of the run.
+     *
+     * @param unmap whether to release the mapping too, only if no cursor of the run is used anymore: reading an
+     *              unmapped buffer crashes the JVM. Otherwise the mapping lives until the buffer is collected
+     */
+    void delete(final boolean unmap) throws IOException {
+        if (unmap && UNMAPPER != null) {
+            UNMAPPER.accept(this.buffer);
+        }
+        Files.deleteIfExists(this.file);
+    }
+
+    private static Consumer<MappedByteBuffer> unmapper() {
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invoke(invokeCleaner, unsafe, buffer);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            // Java 8 has no invokeCleaner
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                // empty mappings have no cleaner
+                Object bufferCleaner = invoke(cleaner, buffer);
+                if (bufferCleaner != null) {
+                    invoke(clean, bufferCleaner);
+                }
+            };
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (final IllegalAccessException ex) {
+            throw new IllegalStateException("cannot unmap spill run", ex);
+        } catch (final InvocationTargetException ex) {
+            throw new IllegalStateException("cannot unmap spill run", ex.getCause());
+        }
+    }
+
+    /**
+     * Reads cells one at a time; the current cell is copied out of the mapping, so only it stays on the heap.
+     */
+    static final class Cursor {
+
+        private final ByteBuffer buffer;
+
+        private KeyValue current;
+
+        private Cursor(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.advance();
+        }
+
+        KeyValue current() {
+            return this.current;
+        }
+
+        /**
+         * @return whether there is a current cell after moving
+         */
+        boolean advance() {
+            if (!this.buffer.hasRemaining()) {
+                this.current = null;
+                return false;
+            }
+            byte[] bytes = new byte[this.buffer.getInt()];
+            this.buffer.get(bytes);
+            this.current = new KeyValue(bytes);
+            return true;
+        }
+
+    }
+
+}
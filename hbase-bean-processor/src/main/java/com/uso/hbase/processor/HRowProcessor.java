@@ -0,0 +1,419 @@
+package com.uso.hbase.processor;
+
+import com.uso.hbase.annotation.ColumnCodec;
+import com.uso.hbase.annotation.HColumn;
+import com.uso.hbase.annotation.HColumnMap;
+import com.uso.hbase.annotation.HIgnore;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.annotation.RowStorage;
+import com.uso.hbase.annotation.RowkeyEncoding;
+import com.uso.hbase.handler.RowMapper;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a reflection-free {@link RowMapper} for every {@code @HRow} class.
+ *
+ * <p>The mapping rules are the ones applied by {@code HRowHandler} at runtime. Classes the generated code cannot
+ * reach (private, abstract, inner or without a no-arg constructor) or whose mapping only the runtime handler
+ * implements (composite, ordered or salted rowkeys, column codecs, packed rows) are skipped and keep using the
+ * runtime handler.
+ */
+@SupportedAnnotationTypes("com.uso.hbase.annotation.HRow")
+public class HRowProcessor extends AbstractProcessor {
+
+    private static final String FAMILY_EMPTY_FORMAT = "Annotation '%s' on %s.%s is not specified property 'family'";
+
+    private static final String ACCESSOR_MISSING_FORMAT = "Field %s.%s has no accessible method %s";
+
+    /**
+     * Classes whose accessors were missing, looked at again in the next round: Lombok may add them after this
+     * processor ran.
+     */
+    private final Set<String> deferred = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        List<TypeElement> types = new ArrayList<>();
+        for (String name : this.deferred) {
+            types.add(this.processingEnv.getElementUtils().getTypeElement(name));
+        }
+        this.deferred.clear();
+        for (Element element : roundEnv.getElementsAnnotatedWith(HRow.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                types.add((TypeElement) element);
+            }
+        }
+        for (TypeElement type : types) {
+            if (!this.isReachable(type) || needsRuntimeHandler(type)) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "skip generating mapper, runtime handler will be used", type);
+                continue;
+            }
+            try {
+                this.write(this.buildModel(type));
+            } catch (final MappingException ex) {
+                if (ex.accessor && !roundEnv.processingOver()) {
+                    this.deferred.add(type.getQualifiedName().toString());
+                    continue;
+                }
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), ex.element);
+            } catch (final IOException ex) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "generate mapper failed: " + ex.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private boolean isReachable(final TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER) {
+            if (!modifiers.contains(Modifier.STATIC)) {
+                return false;
+            }
+        } else if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            return false;
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        if (constructors.isEmpty()) {
+            return true;
+        }
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mappings that only the runtime handler implements.
+     */
+    private static boolean needsRuntimeHandler(final TypeElement type) {
+        HRow hRow = type.getAnnotation(HRow.class);
+        if (hRow.saltBuckets() > 0 || hRow.defaultCodec() != ColumnCodec.NONE
+            || hRow.storage() != RowStorage.COLUMNS) {
+            return true;
+        }
+        int rowkeyParts = 0;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getAnnotation(HColumnMap.class) != null) {
+                return true;
+            }
+            HColumn hColumn = field.getAnnotation(HColumn.class);
+            if (hColumn != null && hColumn.codec() != ColumnCodec.DEFAULT && hColumn.codec() != ColumnCodec.NONE) {
+                return true;
+            }
+            HRowkey hRowkey = field.getAnnotation(HRowkey.class);
+            if (hRowkey != null) {
+                rowkeyParts++;
+                if (hRowkey.encoding() == RowkeyEncoding.ORDERED) {
+                    return true;
+                }
+            }
+        }
+        return rowkeyParts > 1;
+    }
+
+    private RowModel buildModel(final TypeElement type) throws MappingException {
+        HRow hRow = type.getAnnotation(HRow.class);
+        PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        RowModel model = new RowModel(packageName, simpleName + RowMapper.GENERATED_SUFFIX,
+            type.getQualifiedName().toString());
+        model.lazy = !type.getModifiers().contains(Modifier.FINAL);
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!this.canMapper(field, hRow.allField())) {
+                continue;
+            }
+            FieldModel fieldModel = new FieldModel();
+            fieldModel.name = field.getSimpleName().toString();
+            fieldModel.typeLiteral = this.typeLiteral(field.asType());
+            fieldModel.typeName = field.asType().toString();
+            fieldModel.primitive = field.asType().getKind().isPrimitive() ? field.asType().toString() : null;
+            fieldModel.getter = getterName(fieldModel.name, this.isBooleanType(field.asType()));
+            fieldModel.setter = setterName(fieldModel.name, this.isBooleanType(field.asType()));
+            this.checkAccessor(type, field, fieldModel.getter, null);
+            this.checkAccessor(type, field, fieldModel.setter, field.asType());
+            fieldModel.rowkey = field.getAnnotation(HRowkey.class) != null;
+            fieldModel.column = !fieldModel.rowkey || field.getAnnotation(HColumn.class) != null;
+            if (fieldModel.column) {
+                fieldModel.family = this.getFamily(type, hRow, field);
+                fieldModel.qualifier = getQualifier(field);
+            }
+            model.fields.add(fieldModel);
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.FINAL)) {
+                model.lazy = false;
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Same rule as {@code HRowHandler.canMapper}.
+     */
+    private boolean canMapper(final VariableElement field, final boolean isAllField) {
+        if (field.getModifiers().contains(Modifier.STATIC) || field.getAnnotation(HIgnore.class) != null) {
+            return false;
+        }
+        if (field.getAnnotation(HRowkey.class) != null) {
+            return true;
+        }
+        if (field.getAnnotation(HColumn.class) != null || field.getAnnotation(HColumnMap.class) != null) {
+            return true;
+        }
+        return isAllField;
+    }
+
+    /**
+     * Checks the class declares the getter, or the setter taking {@code parameter}, that the runtime handler looks
+     * up, and that the generated mapper can call it.
+     */
+    private void checkAccessor(final TypeElement type, final VariableElement field, final String name,
+        final TypeMirror parameter) throws MappingException {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!method.getSimpleName().contentEquals(name) || method.getModifiers().contains(Modifier.PRIVATE)
+                || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (parameter == null ? parameters.isEmpty() : parameters.size() == 1
+                && this.processingEnv.getTypeUtils().isSameType(parameters.get(0).asType(), parameter)) {
+                return;
+            }
+        }
+        String signature = name + (parameter == null ? "()" : "(" + parameter + ")");
+        throw new MappingException(String.format(ACCESSOR_MISSING_FORMAT, type.getQualifiedName(),
+            field.getSimpleName(), signature), field, true);
+    }
+
+    private String getFamily(final TypeElement type, final HRow hRow, final VariableElement field)
+        throws MappingException {
+        String family = null;
+        if (!isBlank(hRow.defaultFamily())) {
+            family = hRow.defaultFamily();
+        }
+        HColumn hColumn = field.getAnnotation(HColumn.class);
+        if (hColumn != null && !isBlank(hColumn.family())) {
+            family = hColumn.family();
+        }
+        if (isBlank(family)) {
+            throw new MappingException(String.format(FAMILY_EMPTY_FORMAT, HColumn.class.getSimpleName(),
+                type.getQualifiedName(), field.getSimpleName()), field);
+        }
+        return family;
+    }
+
+    private static String getQualifier(final VariableElement field) {
+        HColumn hColumn = field.getAnnotation(HColumn.class);
+        if (hColumn != null && !isBlank(hColumn.qualifier())) {
+            return hColumn.qualifier();
+        }
+        return field.getSimpleName().toString();
+    }
+
+    private static String getterName(final String field, final boolean isBoolean) {
+        String name = isBoolean ? field.replaceAll("^is", "") : field;
+        name = name.substring(0, 1).toUpperCase() + name.substring(1);
+        return (isBoolean ? "is" : "get") + name;
+    }
+
+    private static String setterName(final String field, final boolean isBoolean) {
+        String name = isBoolean ? field.replaceAll("^is", "") : field;
+        return "set" + name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    private boolean isBooleanType(final TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return true;
+        }
+        return Boolean.class.getName().equals(this.processingEnv.getTypeUtils().erasure(type).toString());
+    }
+
+    private String typeLiteral(final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName() + ".class";
+        }
+        return this.processingEnv.getTypeUtils().erasure(type).toString() + ".class";
+    }
+
+    private void write(final RowModel model) throws IOException {
+        String name = model.packageName.isEmpty() ? model.className : model.packageName + "." + model.className;
+        JavaFileObject file = this.processingEnv.getFiler().createSourceFile(name);
+        try (Writer writer = file.openWriter()) {
+            writer.write(new MapperSourceWriter(model).render());
+        }
+    }
+
+    private static boolean isBlank(final String str) {
+        return str == null || str.length() == 0;
+    }
+
+    static final class RowModel {
+
+        private final String packageName;
+
+        private final String className;
+
+        private final String beanType;
+
+        private final List<FieldModel> fields = new LinkedList<>();
+
+        private boolean lazy;
+
+        private RowModel(final String packageName, final String className, final String beanType) {
+            this.packageName = packageName;
+            this.className = className;
+            this.beanType = beanType;
+        }
+
+        String getPackageName() {
+            return this.packageName;
+        }
+
+        String getClassName() {
+            return this.className;
+        }
+
+        String getBeanType() {
+            return this.beanType;
+        }
+
+        List<FieldModel> getFields() {
+            return this.fields;
+        }
+
+        /**
+         * Whether a lazily decoding subclass can be generated, which needs a non-final class without final methods.
+         */
+        boolean isLazy() {
+            return this.lazy;
+        }
+
+    }
+
+    static final class FieldModel {
+
+        private String name;
+
+        private String typeLiteral;
+
+        private String typeName;
+
+        private String primitive;
+
+        private String getter;
+
+        private String setter;
+
+        private boolean rowkey;
+
+        private boolean column;
+
+        private String family;
+
+        private String qualifier;
+
+        String getName() {
+            return this.name;
+        }
+
+        String getTypeLiteral() {
+            return this.typeLiteral;
+        }
+
+        String getTypeName() {
+            return this.typeName;
+        }
+
+        /**
+         * Name of the primitive type of the field, {@code null} for reference types.
+         */
+        String getPrimitive() {
+            return this.primitive;
+        }
+
+        String getGetter() {
+            return this.getter;
+        }
+
+        String getSetter() {
+            return this.setter;
+        }
+
+        boolean isRowkey() {
+            return this.rowkey;
+        }
+
+        boolean isColumn() {
+            return this.column;
+        }
+
+        String getFamily() {
+            return this.family;
+        }
+
+        String getQualifier() {
+            return this.qualifier;
+        }
+
+    }
+
+    private static final class MappingException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        private final boolean accessor;
+
+        private MappingException(final String message, final Element element) {
+            this(message, element, false);
+        }
+
+        private MappingException(final String message, final Element element, final boolean accessor) {
+            super(message);
+            this.element = element;
+            this.accessor = accessor;
+        }
+
+    }
+
+}
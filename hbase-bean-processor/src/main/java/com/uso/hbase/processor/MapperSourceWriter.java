@@ -0,0 +1,378 @@
+package com.uso.hbase.processor;
+
+import com.uso.hbase.processor.HRowProcessor.FieldModel;
+import com.uso.hbase.processor.HRowProcessor.RowModel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the source of a generated {@code RowMapper}. Every type is written fully qualified so that bean classes
+ * named like HBase client types cannot clash with the generated code.
+ */
+final class MapperSourceWriter {
+
+    private static final String CONVERSION_SERVICE = "com.uso.hbase.converter.ConversionService";
+
+    private static final String PUT = "org.apache.hadoop.hbase.client.Put";
+
+    private static final String RESULT = "org.apache.hadoop.hbase.client.Result";
+
+    private static final String BYTES = "org.apache.hadoop.hbase.util.Bytes";
+
+    private static final String CONVERTER = "com.uso.hbase.converter.Converter";
+
+    /**
+     * Primitive converter interface, and its decoding and encoding methods, by primitive type.
+     */
+    private static final Map<String, String[]> PRIMITIVE_CONVERTERS = new LinkedHashMap<>();
+
+    static {
+        PRIMITIVE_CONVERTERS.put("int", new String[]{"com.uso.hbase.converter.IntConverter", "fromInt", "convertInt"});
+        PRIMITIVE_CONVERTERS.put("long",
+            new String[]{"com.uso.hbase.converter.LongConverter", "fromLong", "convertLong"});
+        PRIMITIVE_CONVERTERS.put("double",
+            new String[]{"com.uso.hbase.converter.DoubleConverter", "fromDouble", "convertDouble"});
+        PRIMITIVE_CONVERTERS.put("boolean",
+            new String[]{"com.uso.hbase.converter.BooleanConverter", "fromBoolean", "convertBoolean"});
+    }
+
+    private final RowModel model;
+
+    private final Map<String, String> families = new LinkedHashMap<>();
+
+    private final StringBuilder out = new StringBuilder();
+
+    MapperSourceWriter(final RowModel model) {
+        this.model = model;
+        for (FieldModel field : model.getFields()) {
+            if (field.isColumn() && !this.families.containsKey(field.getFamily())) {
+                this.families.put(field.getFamily(), "FAMILY_" + this.families.size());
+            }
+        }
+    }
+
+    String render() {
+        if (!this.model.getPackageName().isEmpty()) {
+            this.line(0, "package " + this.model.getPackageName() + ";");
+            this.line(0, "");
+        }
+        this.line(0, "@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        this.line(0, "public final class " + this.model.getClassName() + " implements com.uso.hbase.handler.RowMapper<"
+            + this.model.getBeanType() + "> {");
+        this.line(0, "");
+        for (Map.Entry<String, String> family : this.families.entrySet()) {
+            this.constant(family.getValue(), family.getKey());
+        }
+        for (FieldModel field : this.model.getFields()) {
+            if (field.isColumn()) {
+                this.constant(qualifierConstant(field), field.getQualifier());
+            }
+        }
+        this.line(1, "private final " + CONVERSION_SERVICE + " conversionService;");
+        this.line(0, "");
+        this.line(1, "private volatile boolean bound;");
+        this.line(0, "");
+        for (FieldModel field : this.model.getFields()) {
+            this.line(1, "private " + CONVERTER + " " + converterField(field) + ";");
+            this.line(0, "");
+        }
+        this.line(1, "public " + this.model.getClassName() + "(final " + CONVERSION_SERVICE + " conversionService) {");
+        this.line(2, "this.conversionService = conversionService;");
+        this.line(1, "}");
+        this.line(0, "");
+        this.renderBind();
+        this.line(0, "");
+        this.renderConvert();
+        this.line(0, "");
+        this.renderBuildPut();
+        this.line(0, "");
+        this.renderResolveConverters();
+        this.line(0, "");
+        if (this.model.isLazy()) {
+            this.renderConvertLazy();
+            this.line(0, "");
+            this.renderLazyBean();
+            this.line(0, "");
+        }
+        this.line(0, "}");
+        return this.out.toString();
+    }
+
+    private void renderConvert() {
+        String bean = this.model.getBeanType();
+        this.line(1, "@Override");
+        this.line(1, "public " + bean + " convert(final " + RESULT + " result) throws Exception {");
+        this.line(2, bean + " target = new " + bean + "();");
+        this.line(2, "if (result == null) {");
+        this.line(3, "return target;");
+        this.line(2, "}");
+        this.line(2, "this.bind();");
+        this.line(2, "org.apache.hadoop.hbase.Cell cell;");
+        for (FieldModel field : this.model.getFields()) {
+            if (field.isRowkey()) {
+                this.renderReadRow(2, field, "this");
+            }
+            if (field.isColumn()) {
+                this.line(2, "cell = result.getColumnLatestCell(" + this.families.get(field.getFamily()) + ", "
+                    + qualifierConstant(field) + ");");
+                this.line(2, "if (cell != null) {");
+                this.line(3, "target." + field.getSetter() + "(" + this.decode(field, "this", "cell.getValueArray()",
+                    "cell.getValueOffset()", "cell.getValueLength()") + ");");
+                this.line(2, "}");
+            }
+        }
+        this.line(2, "return target;");
+        this.line(1, "}");
+    }
+
+    private void renderConvertLazy() {
+        String bean = this.model.getBeanType();
+        this.line(1, "@Override");
+        this.line(1, "public " + bean + " convertLazy(final " + RESULT + " result) throws Exception {");
+        this.line(2, "if (result == null) {");
+        this.line(3, "return convert(null);");
+        this.line(2, "}");
+        this.line(2, "this.bind();");
+        this.line(2, "LazyBean target = new LazyBean(result, this);");
+        for (FieldModel field : this.model.getFields()) {
+            if (field.isRowkey()) {
+                this.renderReadRow(2, field, "this");
+            }
+        }
+        this.line(2, "return target;");
+        this.line(1, "}");
+    }
+
+    /**
+     * Subclass of the bean whose getters decode their column on first call. Setters mark the field as loaded so a
+     * value set by the caller is never overwritten by the row.
+     */
+    private void renderLazyBean() {
+        String bean = this.model.getBeanType();
+        this.line(1, "private static final class LazyBean extends " + bean
+            + " implements com.uso.hbase.handler.LazyRow {");
+        this.line(0, "");
+        this.line(2, "private final " + RESULT + " result;");
+        this.line(0, "");
+        this.line(2, "private final " + this.model.getClassName() + " mapper;");
+        this.line(0, "");
+        for (FieldModel field : this.lazyFields()) {
+            this.line(2, "private boolean " + loadedFlag(field) + ";");
+            this.line(0, "");
+        }
+        this.line(2, "LazyBean(final " + RESULT + " result, final " + this.model.getClassName() + " mapper) {");
+        this.line(3, "this.result = result;");
+        this.line(3, "this.mapper = mapper;");
+        this.line(2, "}");
+        for (FieldModel field : this.lazyFields()) {
+            this.line(0, "");
+            this.line(2, "@Override");
+            this.line(2, "public " + field.getTypeName() + " " + field.getGetter() + "() {");
+            this.line(3, "if (!this." + loadedFlag(field) + ") {");
+            this.line(4, "org.apache.hadoop.hbase.Cell cell = this.result.getColumnLatestCell("
+                + this.families.get(field.getFamily()) + ", " + qualifierConstant(field) + ");");
+            this.line(4, "if (cell != null) {");
+            this.line(5, "super." + field.getSetter() + "(" + this.decode(field, "this.mapper", "cell.getValueArray()",
+                "cell.getValueOffset()", "cell.getValueLength()") + ");");
+            this.line(4, "}");
+            this.line(4, "this." + loadedFlag(field) + " = true;");
+            this.line(3, "}");
+            this.line(3, "return super." + field.getGetter() + "();");
+            this.line(2, "}");
+            this.line(0, "");
+            this.line(2, "@Override");
+            this.line(2, "public void " + field.getSetter() + "(final " + field.getTypeName() + " value) {");
+            this.line(3, "this." + loadedFlag(field) + " = true;");
+            this.line(3, "super." + field.getSetter() + "(value);");
+            this.line(2, "}");
+        }
+        this.line(0, "");
+        this.line(1, "}");
+    }
+
+    private List<FieldModel> lazyFields() {
+        List<FieldModel> fields = new ArrayList<>();
+        for (FieldModel field : this.model.getFields()) {
+            if (field.isColumn() && !field.isRowkey()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private void renderBuildPut() {
+        this.line(1, "@Override");
+        this.line(1, "public " + PUT + " buildPut(final " + this.model.getBeanType() + " source) throws Exception {");
+        FieldModel rowkey = null;
+        for (FieldModel field : this.model.getFields()) {
+            if (field.isRowkey()) {
+                rowkey = field;
+            }
+        }
+        if (rowkey == null) {
+            this.line(2, "throw new com.uso.hbase.handler.exception.NotFoundRowkeyException(" + this.model.getBeanType()
+                + ".class);");
+            this.line(1, "}");
+            return;
+        }
+        this.line(2, "this.bind();");
+        this.line(2, "Object value;");
+        this.line(2, "byte[] bytes;");
+        this.renderEncode(rowkey);
+        this.line(2, PUT + " put = new " + PUT + "(bytes);");
+        for (FieldModel field : this.model.getFields()) {
+            if (!field.isColumn()) {
+                continue;
+            }
+            this.renderEncode(field);
+            String add = "put.addColumn(" + this.families.get(field.getFamily()) + ", " + qualifierConstant(field)
+                + ", bytes);";
+            if (field.getPrimitive() != null) {
+                this.line(2, add);
+            } else {
+                this.line(2, "if (bytes != null) {");
+                this.line(3, add);
+                this.line(2, "}");
+            }
+        }
+        this.line(2, "return put;");
+        this.line(1, "}");
+    }
+
+    private void renderResolveConverters() {
+        this.line(1, "@Override");
+        this.line(1, "public void resolveConverters() {");
+        Set<String> types = new LinkedHashSet<>();
+        for (FieldModel field : this.model.getFields()) {
+            types.add(field.getTypeLiteral());
+        }
+        for (String type : types) {
+            this.line(2, "if (!this.conversionService.canConvert(" + type + ")) {");
+            this.line(3, "throw new com.uso.hbase.converter.exception.NotFoundConverterException(" + type + ");");
+            this.line(2, "}");
+        }
+        this.line(2, "this.bind();");
+        this.line(1, "}");
+    }
+
+    /**
+     * Converters are looked up once, on first use, so that converters registered after the mapper was created but
+     * before the first conversion are taken. Fields whose declared type has no converter are converted through the
+     * conversion service by runtime class, as the runtime handler does.
+     */
+    private void renderBind() {
+        this.line(1, "private void bind() {");
+        this.line(2, "if (this.bound) {");
+        this.line(3, "return;");
+        this.line(2, "}");
+        for (FieldModel field : this.model.getFields()) {
+            this.line(2, "this." + converterField(field) + " = this.conversionService.canConvert("
+                + field.getTypeLiteral() + ") ? this.conversionService.getConverter(" + field.getTypeLiteral()
+                + ") : null;");
+        }
+        this.line(2, "this.bound = true;");
+        this.line(1, "}");
+        this.line(0, "");
+        this.line(1, "private Object decode(final " + CONVERTER + " converter, final byte[] bytes, final int offset, "
+            + "final int length, final Class<?> type) {");
+        this.line(2, "return converter != null ? converter.from(bytes, offset, length)");
+        this.line(3, ": this.conversionService.from(bytes, offset, length, type);");
+        this.line(1, "}");
+        this.line(0, "");
+        this.line(1, "private byte[] encode(final " + CONVERTER + " converter, final Object value) {");
+        this.line(2, "return converter != null ? converter.convert(value) : this.conversionService.convert(value);");
+        this.line(1, "}");
+    }
+
+    private void renderReadRow(final int indent, final FieldModel field, final String mapper) {
+        this.line(indent, "byte[] row = result.getRow();");
+        this.line(indent, "if (row != null) {");
+        this.line(indent + 1, "target." + field.getSetter() + "(" + this.decode(field, mapper, "row", "0", "row.length")
+            + ");");
+        this.line(indent, "}");
+    }
+
+    /**
+     * Expression decoding the field, through the primitive methods of its converter when it has them so that
+     * primitive fields are not boxed.
+     */
+    private String decode(final FieldModel field, final String mapper, final String bytes, final String offset,
+                          final String length) {
+        String converter = mapper + "." + converterField(field);
+        String boxed = "(" + erasure(field) + ") " + mapper + ".decode(" + converter + ", " + bytes + ", " + offset
+            + ", " + length + ", " + field.getTypeLiteral() + ")";
+        String[] primitive = PRIMITIVE_CONVERTERS.get(field.getPrimitive());
+        if (primitive == null) {
+            return boxed;
+        }
+        return converter + " instanceof " + primitive[0] + " ? ((" + primitive[0] + ") " + converter + ")."
+            + primitive[1] + "(" + bytes + ", " + offset + ", " + length + ") : " + boxed;
+    }
+
+    /**
+     * Assigns the encoded field to {@code bytes}, {@code null} if the field is.
+     */
+    private void renderEncode(final FieldModel field) {
+        String converter = "this." + converterField(field);
+        String getter = "source." + field.getGetter() + "()";
+        String[] primitive = PRIMITIVE_CONVERTERS.get(field.getPrimitive());
+        if (primitive != null) {
+            this.line(2, "bytes = " + converter + " instanceof " + primitive[0]);
+            this.line(3, "? ((" + primitive[0] + ") " + converter + ")." + primitive[2] + "(" + getter + ")");
+            this.line(3, ": this.encode(" + converter + ", " + getter + ");");
+        } else if (field.getPrimitive() != null) {
+            this.line(2, "bytes = this.encode(" + converter + ", " + getter + ");");
+        } else {
+            this.line(2, "value = " + getter + ";");
+            this.line(2, "bytes = value == null ? null : this.encode(" + converter + ", value);");
+        }
+    }
+
+    private void constant(final String name, final String value) {
+        this.line(1, "private static final byte[] " + name + " = " + BYTES + ".toBytes(\"" + escape(value) + "\");");
+        this.line(0, "");
+    }
+
+    private void line(final int indent, final String text) {
+        for (int i = 0; i < indent; i++) {
+            this.out.append("    ");
+        }
+        this.out.append(text).append('\n');
+    }
+
+    private static String erasure(final FieldModel field) {
+        String literal = field.getTypeLiteral();
+        return literal.substring(0, literal.length() - ".class".length());
+    }
+
+    private static String converterField(final FieldModel field) {
+        return "converter_" + field.getName();
+    }
+
+    private static String loadedFlag(final FieldModel field) {
+        return "loaded_" + field.getName();
+    }
+
+    private static String qualifierConstant(final FieldModel field) {
+        return "QUALIFIER_" + field.getName();
+    }
+
+    private static String escape(final String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.uso.hbase.annotation;
+
+/**
+ * How a column value is stored. Every codec but {@link #NONE} writes a one-byte codec id in front of the value, so a
+ * column switched to a codec cannot read values written before.
+ */
+public enum ColumnCodec {
+
+    /**
+     * On {@link HColumn}: the {@link HRow#defaultCodec()} of the class.
+     */
+    DEFAULT,
+
+    /**
+     * The plain bytes of the field converter, without codec id.
+     */
+    NONE,
+
+    /**
+     * Zigzag varint for {@code byte}, {@code short}, {@code int} and {@code long} fields, one byte for values in
+     * {@code [-64, 63]}.
+     */
+    VARINT,
+
+    /**
+     * Index into {@link HColumn#dictionary()} for {@code String} fields, values outside of it are stored as they are.
+     * Values may only be appended to the dictionary.
+     */
+    DICTIONARY,
+
+    /**
+     * Deflate compression of the plain bytes for values of at least 64 bytes that shrink. Not for primitive, enum or
+     * other fixed-width fields, whose values are never that long.
+     */
+    DEFLATE
+
+}
@@ -18,4 +18,22 @@ public @interface HColumn {
 
     String qualifier() default "";
 
+    ColumnCodec codec() default ColumnCodec.DEFAULT;
+
+    /**
+     * Values of a {@link ColumnCodec#DICTIONARY} column, in a fixed order.
+     */
+    String[] dictionary() default {};
+
+    /**
+     * Id of the field in a packed cell, which must never be reused for another field. {@code 0} derives it from the
+     * qualifier.
+     */
+    int id() default 0;
+
+    /**
+     * Keeps the field in its own cell in a packed row, e.g. a field updated much more often than the others.
+     */
+    boolean hot() default false;
+
 }
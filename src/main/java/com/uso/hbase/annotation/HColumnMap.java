@@ -0,0 +1,23 @@
+package com.uso.hbase.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a {@code Map<K, V>} or {@code List<V>} field to all qualifiers of a family that start with {@link #prefix()}.
+ * The rest of the qualifier is the converted map key, or the list index as a 4-byte int. Without prefix the field
+ * owns the whole family, which no other field may use.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HColumnMap {
+
+    String family() default "";
+
+    String prefix() default "";
+
+}
@@ -18,4 +18,29 @@ public @interface HRow {
 
     boolean allField() default true;
 
+    /**
+     * Number of salt buckets, at most 256. When set, a one-byte bucket prefix is added to every rowkey written and
+     * stripped from every rowkey read, so that increasing keys are spread over as many regions.
+     */
+    int saltBuckets() default 0;
+
+    SaltStrategy saltStrategy() default SaltStrategy.HASH;
+
+    /**
+     * Codec of the columns that do not set one, applied only to the fields whose type it supports.
+     */
+    ColumnCodec defaultCodec() default ColumnCodec.NONE;
+
+    RowStorage storage() default RowStorage.COLUMNS;
+
+    /**
+     * Qualifier of the cell holding the packed fields.
+     */
+    String packedQualifier() default "packed";
+
+    /**
+     * Written in the header of every packed cell, to be bumped with the fields of the bean.
+     */
+    int schemaVersion() default 1;
+
 }
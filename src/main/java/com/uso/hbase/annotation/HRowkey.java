@@ -7,10 +7,26 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
+ * Marks a field as the rowkey or, when several fields are marked, as one part of a composite rowkey. The parts of a
+ * composite rowkey are always {@link RowkeyEncoding#ORDERED} encoded and concatenated by {@link #order()}.
+ *
  * @author pengchuanjiang
  */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface HRowkey {
+
+    /**
+     * Position of the part in a composite rowkey, lowest first.
+     */
+    int order() default 0;
+
+    RowkeyEncoding encoding() default RowkeyEncoding.PLAIN;
+
+    /**
+     * Sorts the part in descending order, e.g. to read the latest timestamps first. Only for ordered encoding.
+     */
+    boolean descending() default false;
+
 }
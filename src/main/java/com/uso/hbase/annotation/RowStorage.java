@@ -0,0 +1,19 @@
+package com.uso.hbase.annotation;
+
+/**
+ * How the columns of a bean are laid out in the row.
+ */
+public enum RowStorage {
+
+    /**
+     * One cell per field.
+     */
+    COLUMNS,
+
+    /**
+     * All fields but the rowkey and {@link HColumn#hot()} fields in one cell of {@link HRow#defaultFamily()}, named
+     * {@link HRow#packedQualifier()}.
+     */
+    PACKED
+
+}
@@ -0,0 +1,18 @@
+package com.uso.hbase.annotation;
+
+/**
+ * How {@link HRowkey} parts are turned into the bytes of the rowkey.
+ */
+public enum RowkeyEncoding {
+
+    /**
+     * The converter of the field type, as for columns. Only possible for a rowkey made of a single part.
+     */
+    PLAIN,
+
+    /**
+     * Order-preserving encoding of HBase {@code OrderedBytes}, so that rowkeys sort like their values.
+     */
+    ORDERED
+
+}
@@ -0,0 +1,19 @@
+package com.uso.hbase.annotation;
+
+/**
+ * How the salt bucket of a rowkey is chosen, see {@link HRow#saltBuckets()}.
+ */
+public enum SaltStrategy {
+
+    /**
+     * Hash of the whole unsalted rowkey, spreads any key distribution.
+     */
+    HASH,
+
+    /**
+     * Trailing (up to) eight bytes of the unsalted rowkey read as an unsigned number, modulo the bucket count. Spreads
+     * sequential numeric keys round-robin over the buckets.
+     */
+    MODULO
+
+}
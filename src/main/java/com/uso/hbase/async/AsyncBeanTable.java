@@ -0,0 +1,348 @@
+package com.uso.hbase.async;
+
+import com.uso.hbase.handler.HandlerFactory;
+import com.uso.hbase.handler.exception.HProcessException;
+import com.uso.hbase.handler.exception.UncheckedHProcessException;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hadoop.hbase.client.AsyncTable;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Reads and writes beans through an {@link AsyncTable} without blocking the caller. Gets issued within
+ * {@code coalesceWindowMicros} of each other are sent as one multi-get, and a get of a row of the same class that is
+ * already in flight shares its result instead of sending another, unless a write of the row completed since it was
+ * sent. Results are converted on the conversion executor,
+ * never on the RPC threads, and every caller gets its own bean. The table is not closed with this facade.
+ */
+public class AsyncBeanTable implements Closeable {
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final HandlerFactory handlerFactory;
+
+    private final AsyncTable<?> table;
+
+    private final long coalesceWindowMicros;
+
+    private final int maxBatchSize;
+
+    private final Executor conversionExecutor;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final ConcurrentMap<Key, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final LongAdder multiGets = new LongAdder();
+
+    private final LongAdder deduplicated = new LongAdder();
+
+    private volatile boolean closed;
+
+    public AsyncBeanTable(final HandlerFactory handlerFactory, final AsyncTable<?> table,
+                          final AsyncBeanTableConfig config) {
+        if (config.getMaxBatchSize() < 1 || config.getCoalesceWindowMicros() < 0) {
+            throw new IllegalArgumentException("need maxBatchSize > 0 and coalesceWindowMicros >= 0");
+        }
+        this.handlerFactory = handlerFactory;
+        this.table = table;
+        this.coalesceWindowMicros = config.getCoalesceWindowMicros();
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.conversionExecutor = config.getConversionExecutor() != null ? config.getConversionExecutor()
+            : ForkJoinPool.commonPool();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "hbase-bean-async-" + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the bean of a row, completing with {@code null} if the row does not exist. Conversion failures complete
+     * the future with an {@link UncheckedHProcessException}.
+     */
+    public <T> CompletableFuture<T> get(final Object rowkey, final Class<T> clazz) {
+        Get get;
+        try {
+            get = this.handlerFactory.buildGet(rowkey, clazz);
+        } catch (final HProcessException ex) {
+            return failed(new UncheckedHProcessException(ex));
+        }
+        return this.fetch(clazz, get).thenApplyAsync(result -> this.convert(result, clazz), this.conversionExecutor);
+    }
+
+    /**
+     * Reads the beans of the rows in the order of the keys, with {@code null} for the rows that do not exist.
+     */
+    public <T> CompletableFuture<List<T>> getAll(final Collection<?> rowkeys, final Class<T> clazz) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(rowkeys.size());
+        for (Object rowkey : rowkeys) {
+            futures.add(this.get(rowkey, clazz));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<T> beans = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                beans.add(future.join());
+            }
+            return beans;
+        });
+    }
+
+    /**
+     * Converts the bean on the calling thread and writes it. The write listeners are told about the completion before
+     * the future completes.
+     */
+    public CompletableFuture<Void> put(final Object bean) {
+        if (this.closed) {
+            return failed(new IllegalStateException("table is closed"));
+        }
+        Put put;
+        try {
+            put = this.handlerFactory.buildPut(bean);
+        } catch (final HProcessException ex) {
+            return failed(new UncheckedHProcessException(ex));
+        }
+        return this.table.put(put).whenComplete((ignored, ex) -> this.written(bean, put.getRow()));
+    }
+
+    /**
+     * Converts the beans on the calling thread and writes them in one batch.
+     */
+    public CompletableFuture<Void> putAll(final Collection<?> beans) {
+        if (this.closed) {
+            return failed(new IllegalStateException("table is closed"));
+        }
+        Object[] sources = beans.toArray();
+        List<Put> puts;
+        try {
+            puts = this.handlerFactory.buildPuts(Arrays.asList(sources));
+        } catch (final HProcessException ex) {
+            return failed(new UncheckedHProcessException(ex));
+        }
+        List<CompletableFuture<Void>> writes = this.table.put(puts);
+        CompletableFuture<?>[] completions = new CompletableFuture<?>[writes.size()];
+        for (int i = 0; i < completions.length; i++) {
+            Object source = sources[i];
+            byte[] row = puts.get(i).getRow();
+            completions[i] = writes.get(i).whenComplete((ignored, ex) -> this.written(source, row));
+        }
+        return CompletableFuture.allOf(completions);
+    }
+
+    /**
+     * Multi-gets sent, each holding one or more coalesced gets.
+     */
+    public long getMultiGetCount() {
+        return this.multiGets.sum();
+    }
+
+    /**
+     * Gets that shared the result of a get already in flight.
+     */
+    public long getDeduplicatedCount() {
+        return this.deduplicated.sum();
+    }
+
+    /**
+     * Sends the gets still waiting for their window and fails later calls. Requests in flight still complete.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.scheduler.shutdown();
+        this.send();
+    }
+
+    /**
+     * Gets of the row in flight may have been sent before the write and return the old row: later gets must not share
+     * them. Runs before the future of the write completes.
+     */
+    private void written(final Object bean, final byte[] row) {
+        if (!this.inFlight.isEmpty()) {
+            this.inFlight.keySet().removeIf(key -> Arrays.equals(key.row, row));
+        }
+        this.handlerFactory.notifyWritten(bean, row);
+    }
+
+    private CompletableFuture<Result> fetch(final Class<?> clazz, final Get get) {
+        if (this.closed) {
+            return failed(new IllegalStateException("table is closed"));
+        }
+        Key key = new Key(clazz, get.getRow());
+        CompletableFuture<Result> created = new CompletableFuture<>();
+        CompletableFuture<Result> shared = this.inFlight.putIfAbsent(key, created);
+        if (shared != null) {
+            this.deduplicated.increment();
+            return shared;
+        }
+        created.whenComplete((result, ex) -> this.inFlight.remove(key, created));
+        if (this.coalesceWindowMicros == 0) {
+            this.multiGets.increment();
+            this.table.get(get).whenComplete((result, ex) -> complete(created, result, ex));
+            return created;
+        }
+        this.queue.offer(new Pending(get, created));
+        if (this.queued.incrementAndGet() >= this.maxBatchSize) {
+            this.execute(this::send);
+        } else if (this.scheduled.compareAndSet(false, true)) {
+            this.schedule(this::send);
+        }
+        return created;
+    }
+
+    /**
+     * Sends every queued get, in multi-gets of at most {@code maxBatchSize}.
+     */
+    private void send() {
+        this.scheduled.set(false);
+        List<Pending> batch = new ArrayList<>(this.maxBatchSize);
+        Pending pending;
+        while ((pending = this.queue.poll()) != null) {
+            this.queued.decrementAndGet();
+            batch.add(pending);
+            if (batch.size() == this.maxBatchSize) {
+                this.send(batch);
+                batch.clear();
+            }
+        }
+        this.send(batch);
+    }
+
+    private void send(final List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        this.multiGets.increment();
+        List<Get> gets = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            gets.add(pending.get);
+        }
+        List<CompletableFuture<Result>> results;
+        try {
+            results = this.table.get(gets);
+        } catch (final RuntimeException ex) {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(ex);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Result> target = batch.get(i).result;
+            results.get(i).whenComplete((result, ex) -> complete(target, result, ex));
+        }
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            this.scheduler.execute(task);
+        } catch (final RejectedExecutionException ex) {
+            // closing, close() sends what is queued
+            task.run();
+        }
+    }
+
+    private void schedule(final Runnable task) {
+        try {
+            this.scheduler.schedule(task, this.coalesceWindowMicros, TimeUnit.MICROSECONDS);
+        } catch (final RejectedExecutionException ex) {
+            task.run();
+        }
+    }
+
+    private <T> T convert(final Result result, final Class<T> clazz) {
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        try {
+            return this.handlerFactory.convert(result, clazz);
+        } catch (final HProcessException ex) {
+            throw new UncheckedHProcessException(ex);
+        }
+    }
+
+    private static <T> void complete(final CompletableFuture<T> target, final T value, final Throwable ex) {
+        if (ex != null) {
+            target.completeExceptionally(ex);
+        } else {
+            target.complete(value);
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
+    private static final class Pending {
+
+        private final Get get;
+
+        private final CompletableFuture<Result> result;
+
+        private Pending(final Get get, final CompletableFuture<Result> result) {
+            this.get = get;
+            this.result = result;
+        }
+
+    }
+
+    /**
+     * A row of a bean class; classes project different columns, so only gets of the same class are shared.
+     */
+    private static final class Key {
+
+        private final Class<?> clazz;
+
+        private final byte[] row;
+
+        private final int hash;
+
+        private Key(final Class<?> clazz, final byte[] row) {
+            this.clazz = clazz;
+            this.row = row;
+            this.hash = 31 * clazz.hashCode() + Bytes.hashCode(row);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return this.clazz == key.clazz && Arrays.equals(this.row, key.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+    }
+
+}
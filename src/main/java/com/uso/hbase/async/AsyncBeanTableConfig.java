@@ -0,0 +1,29 @@
+package com.uso.hbase.async;
+
+import java.util.concurrent.Executor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of an {@link AsyncBeanTable}, read once when it is created.
+ */
+@Setter
+@Getter
+public class AsyncBeanTableConfig {
+
+    /**
+     * How long a get waits for others to share its multi-get, 0 sends every get on its own.
+     */
+    private long coalesceWindowMicros = 200;
+
+    /**
+     * Gets that are sent at once without waiting for the window to end.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Runs the conversion of results to beans, {@code null} for the common fork join pool.
+     */
+    private Executor conversionExecutor;
+
+}
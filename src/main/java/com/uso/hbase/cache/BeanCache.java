@@ -0,0 +1,413 @@
+package com.uso.hbase.cache;
+
+import com.uso.hbase.handler.HandlerFactory;
+import com.uso.hbase.handler.RowWriteListener;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+
+/**
+ * Read-through cache of converted beans keyed by bean class and rowkey. Each segment evicts by segmented LRU: a bean
+ * enters on probation and is protected once read again, so a scan of rows read once only evicts other rows read once.
+ * Lookups are lock free; the reads are recorded in a buffer that is replayed under the segment lock by whichever
+ * thread gets it, and dropped when the buffer is full. Register the cache with
+ * {@link com.uso.hbase.handler.DefaultHandlerFactory#addWriteListener} so that building a mutation of a row drops its
+ * bean, and completing it drops the bean again: a read between the two may still return the old row. Writes through
+ * {@link com.uso.hbase.writer.BeanWriter} and {@link com.uso.hbase.async.AsyncBeanTable} report their completion,
+ * other writers call {@link HandlerFactory#notifyWritten}; until they do, a bean read meanwhile can stay cached. Absent
+ * rows are not cached.
+ *
+ * <p>Unless {@code defensiveCopy} is set, every hit returns the same bean instance, which must not be modified.
+ */
+public class BeanCache implements RowWriteListener {
+
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private static final int READ_DRAIN_THRESHOLD = 16;
+
+    private final HandlerFactory handlerFactory;
+
+    private final boolean defensiveCopy;
+
+    private final long expireNanos;
+
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    public BeanCache(final HandlerFactory handlerFactory, final BeanCacheConfig config) {
+        if (config.getMaximumSize() < 1 || config.getSegments() < 1 || config.getProtectedRatio() < 0
+            || config.getProtectedRatio() > 1) {
+            throw new IllegalArgumentException("need maximumSize > 0, segments > 0 and 0 <= protectedRatio <= 1");
+        }
+        this.handlerFactory = handlerFactory;
+        this.defensiveCopy = config.isDefensiveCopy();
+        this.expireNanos = TimeUnit.MILLISECONDS.toNanos(config.getExpireAfterWriteMillis());
+        int count = 1;
+        while (count < config.getSegments()) {
+            count <<= 1;
+        }
+        int capacity = Math.max(1, config.getMaximumSize() / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(capacity, (int) (capacity * config.getProtectedRatio()));
+        }
+    }
+
+    /**
+     * Returns the cached bean of the row or reads and caches it, {@code null} if the row does not exist.
+     */
+    public <T> T get(final Table table, final Object rowkey, final Class<T> clazz) throws HProcessException {
+        Get get = this.handlerFactory.buildGet(rowkey, clazz);
+        Key key = new Key(clazz, get.getRow());
+        Segment segment = this.segment(key);
+        Object cached = segment.get(key);
+        if (cached != null) {
+            this.hits.increment();
+            return this.toBean(cached, clazz);
+        }
+        this.misses.increment();
+        long stamp = segment.invalidations;
+        Result result;
+        try {
+            result = table.get(get);
+        } catch (final IOException ex) {
+            throw new HProcessException(ex);
+        }
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        T bean = this.handlerFactory.convert(result, clazz);
+        segment.put(key, this.defensiveCopy ? result : bean, stamp);
+        return bean;
+    }
+
+    /**
+     * @return the cached bean of the row, {@code null} if none
+     */
+    public <T> T getIfPresent(final Object rowkey, final Class<T> clazz) throws HProcessException {
+        Key key = new Key(clazz, this.handlerFactory.buildGet(rowkey, clazz).getRow());
+        Object cached = this.segment(key).get(key);
+        if (cached == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return this.toBean(cached, clazz);
+    }
+
+    public void invalidate(final Object rowkey, final Class<?> clazz) throws HProcessException {
+        this.onWrite(clazz, this.handlerFactory.buildGet(rowkey, clazz).getRow());
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Drops the bean of the row, and keeps a read of it that started before from caching a stale bean.
+     */
+    @Override
+    public void onWrite(final Class<?> clazz, final byte[] row) {
+        Key key = new Key(clazz, row);
+        this.segment(key).invalidate(key);
+    }
+
+    /**
+     * Drops the bean again, it may have been read after {@link #onWrite} but before the row changed.
+     */
+    @Override
+    public void onWritten(final Class<?> clazz, final byte[] row) {
+        this.onWrite(clazz, row);
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Beans dropped to make room, not counting expired or invalidated ones.
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return this.expirations.sum();
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    private <T> T toBean(final Object cached, final Class<T> clazz) throws HProcessException {
+        return this.defensiveCopy ? this.handlerFactory.convert((Result) cached, clazz) : clazz.cast(cached);
+    }
+
+    private Segment segment(final Key key) {
+        int hash = key.hash ^ (key.hash >>> 16);
+        return this.segments[hash & (this.segments.length - 1)];
+    }
+
+    private static final class Key {
+
+        private final Class<?> clazz;
+
+        private final byte[] row;
+
+        private final int hash;
+
+        private Key(final Class<?> clazz, final byte[] row) {
+            this.clazz = clazz;
+            this.row = row;
+            this.hash = 31 * clazz.hashCode() + Arrays.hashCode(row);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return this.clazz == key.clazz && Arrays.equals(this.row, key.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+    }
+
+    private static final class Node {
+
+        private static final int DEAD = 0;
+
+        private static final int PROBATION = 1;
+
+        private static final int PROTECTED = 2;
+
+        private final Key key;
+
+        private final Object value;
+
+        private final long writeTime;
+
+        private int queue;
+
+        private Node prev;
+
+        private Node next;
+
+        private Node(final Key key, final Object value, final long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+
+    }
+
+    /**
+     * The two LRU lists are circular, linked through a sentinel, and only touched under the lock.
+     */
+    private final class Segment {
+
+        private final Map<Key, Node> map = new ConcurrentHashMap<>();
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Queue<Node> reads = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger readCount = new AtomicInteger();
+
+        private final Node probation = sentinel();
+
+        private final Node protectedQueue = sentinel();
+
+        private final int capacity;
+
+        private final int protectedCapacity;
+
+        private int protectedSize;
+
+        /**
+         * Bumped under the lock by every invalidation, so that a fill that raced one is dropped.
+         */
+        private volatile long invalidations;
+
+        private Segment(final int capacity, final int protectedCapacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = protectedCapacity;
+        }
+
+        private Object get(final Key key) {
+            Node node = this.map.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (BeanCache.this.expireNanos > 0 && System.nanoTime() - node.writeTime >= BeanCache.this.expireNanos) {
+                this.lock.lock();
+                try {
+                    if (this.map.remove(key, node)) {
+                        this.unlink(node);
+                        BeanCache.this.expirations.increment();
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+                return null;
+            }
+            int pending = this.readCount.incrementAndGet();
+            if (pending <= READ_BUFFER_SIZE) {
+                this.reads.offer(node);
+            } else {
+                this.readCount.decrementAndGet();
+            }
+            if (pending >= READ_DRAIN_THRESHOLD && this.lock.tryLock()) {
+                try {
+                    this.drainReads();
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+            return node.value;
+        }
+
+        private void put(final Key key, final Object value, final long stamp) {
+            this.lock.lock();
+            try {
+                this.drainReads();
+                if (this.invalidations != stamp) {
+                    return;
+                }
+                Node node = new Node(key, value, System.nanoTime());
+                Node old = this.map.put(key, node);
+                if (old != null) {
+                    this.unlink(old);
+                }
+                this.link(this.probation, node, Node.PROBATION);
+                while (this.map.size() > this.capacity) {
+                    Node victim = this.probation.next != this.probation ? this.probation.next
+                        : this.protectedQueue.next;
+                    if (victim.queue == Node.DEAD) {
+                        break;
+                    }
+                    this.unlink(victim);
+                    this.map.remove(victim.key, victim);
+                    BeanCache.this.evictions.increment();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void invalidate(final Key key) {
+            this.lock.lock();
+            try {
+                this.invalidations++;
+                Node node = this.map.remove(key);
+                if (node != null) {
+                    this.unlink(node);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void clear() {
+            this.lock.lock();
+            try {
+                this.invalidations++;
+                this.drainReads();
+                for (Node node : this.map.values()) {
+                    this.unlink(node);
+                }
+                this.map.clear();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Replays the recorded reads: a read on probation protects the bean, demoting the least recently read
+         * protected one back to probation if the protected list is full.
+         */
+        private void drainReads() {
+            Node node;
+            while ((node = this.reads.poll()) != null) {
+                this.readCount.decrementAndGet();
+                if (node.queue == Node.DEAD) {
+                    continue;
+                }
+                this.unlink(node);
+                this.link(this.protectedQueue, node, Node.PROTECTED);
+                while (this.protectedSize > this.protectedCapacity) {
+                    Node demoted = this.protectedQueue.next;
+                    this.unlink(demoted);
+                    this.link(this.probation, demoted, Node.PROBATION);
+                }
+            }
+        }
+
+        private void link(final Node head, final Node node, final int queue) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            node.queue = queue;
+            if (queue == Node.PROTECTED) {
+                this.protectedSize++;
+            }
+        }
+
+        private void unlink(final Node node) {
+            if (node.queue == Node.DEAD) {
+                return;
+            }
+            if (node.queue == Node.PROTECTED) {
+                this.protectedSize--;
+            }
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.queue = Node.DEAD;
+        }
+
+        private Node sentinel() {
+            Node node = new Node(null, null, 0);
+            node.prev = node;
+            node.next = node;
+            return node;
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.uso.hbase.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of a {@link BeanCache}, read once when the cache is created.
+ */
+@Setter
+@Getter
+public class BeanCacheConfig {
+
+    /**
+     * Beans kept across all classes, split evenly between the segments.
+     */
+    private int maximumSize = 10000;
+
+    /**
+     * How long a bean is served after it was read, 0 keeps it until evicted or invalidated.
+     */
+    private long expireAfterWriteMillis;
+
+    /**
+     * Independently locked parts of the cache, rounded up to a power of two.
+     */
+    private int segments = 16;
+
+    /**
+     * Share of a segment kept for beans read more than once, which new beans cannot evict.
+     */
+    private double protectedRatio = 0.8;
+
+    /**
+     * Keeps the fetched rows instead of the beans and converts a new bean on every hit, so that callers may modify
+     * the beans they get.
+     */
+    private boolean defensiveCopy;
+
+}
@@ -0,0 +1,36 @@
+package com.uso.hbase.converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Converter} decoding to and encoding from a primitive {@code boolean} without boxing.
+ */
+public interface BooleanConverter extends Converter<Boolean> {
+
+    boolean fromBoolean(byte[] bytes, int offset, int length);
+
+    byte[] convertBoolean(boolean source);
+
+    int convertBoolean(boolean source, ByteBuffer target);
+
+    @Override
+    default Boolean from(final byte[] bytes) {
+        return fromBoolean(bytes, 0, bytes.length);
+    }
+
+    @Override
+    default Boolean from(final byte[] bytes, final int offset, final int length) {
+        return fromBoolean(bytes, offset, length);
+    }
+
+    @Override
+    default byte[] convert(final Boolean source) {
+        return convertBoolean(source);
+    }
+
+    @Override
+    default int convert(final Boolean source, final ByteBuffer target) {
+        return convertBoolean(source, target);
+    }
+
+}
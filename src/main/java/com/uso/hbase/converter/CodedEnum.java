@@ -0,0 +1,11 @@
+package com.uso.hbase.converter;
+
+/**
+ * An enum stored by a code of its own instead of its ordinal, so that constants can be added, removed or reordered
+ * without changing what stored values mean. Codes must be unique within the enum.
+ */
+public interface CodedEnum {
+
+    int getCode();
+
+}
@@ -1,9 +1,36 @@
 package com.uso.hbase.converter;
 
+import java.nio.ByteBuffer;
+
 public interface ConversionService {
 
     <T> byte[] convert(T source);
 
+    <T> int convert(T source, ByteBuffer target);
+
+    /**
+     * @throws com.uso.hbase.converter.exception.NotFoundConverterException if no converter reads the type back, see
+     *                                                                      {@link #canConvert}
+     */
     <T> T from(byte[] bytes, Class<T> type);
 
+    /**
+     * @throws com.uso.hbase.converter.exception.NotFoundConverterException if no converter reads the type back, see
+     *                                                                      {@link #canConvert}
+     */
+    <T> T from(byte[] bytes, int offset, int length, Class<T> type);
+
+    /**
+     * Whether values of the type can be written and read back as the type. A converter found for a supertype only
+     * writes it: it reads back instances of whatever it creates, so it does not count.
+     */
+    boolean canConvert(Class<?> type);
+
+    /**
+     * The converter writing values of the type, which may be the one of a supertype.
+     *
+     * @throws com.uso.hbase.converter.exception.NotFoundConverterException if the type has no converter
+     */
+    <T> Converter<T> getConverter(Class<T> type);
+
 }
@@ -1,9 +1,35 @@
 package com.uso.hbase.converter;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 public interface Converter<T> {
 
     byte[] convert(T source);
 
     T from(byte[] bytes);
 
+    /**
+     * Decodes {@code length} bytes of {@code bytes} starting at {@code offset}, typically the backing array of a
+     * cell. The default copies the range and delegates to {@link #from(byte[])}.
+     */
+    default T from(final byte[] bytes, final int offset, final int length) {
+        if (offset == 0 && length == bytes.length) {
+            return from(bytes);
+        }
+        return from(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    /**
+     * Encodes {@code source} at the position of {@code target}, advancing it.
+     *
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if {@code target} has not enough space left
+     */
+    default int convert(final T source, final ByteBuffer target) {
+        byte[] bytes = convert(source);
+        target.put(bytes);
+        return bytes.length;
+    }
+
 }
@@ -1,7 +1,15 @@
 package com.uso.hbase.converter;
 
 import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
 import org.apache.hadoop.hbase.util.Bytes;
 
 public class DefaultConversionService extends GenericConversionService {
@@ -15,23 +23,54 @@ public class DefaultConversionService extends GenericConversionService {
         converterRegistry.addConverter(new StringConverter());
         converterRegistry.addConverter(new LongConvert());
         converterRegistry.addConverter(new FloatConvert());
-        converterRegistry.addConverter(new DoubleConverter());
+        converterRegistry.addConverter(new DoubleConvert());
         converterRegistry.addConverter(new BooleanConvert());
         converterRegistry.addConverter(new ShortConvert());
         converterRegistry.addConverter(new BigDecimalConverter());
         converterRegistry.addConverter(new ByteBufferConvert());
+        converterRegistry.addConverter(new ByteArrayConverter());
+        converterRegistry.addConverter(new UuidConverter());
+        converterRegistry.addConverter(new InstantConverter());
+        converterRegistry.addConverter(new LocalDateTimeConverter());
+        converterRegistry.addConverter(new DateConverter());
     }
 
-    private static final class IntegerConvert implements Converter<Integer> {
+    /**
+     * Numbers are always written big-endian, as {@link Bytes} does, whatever the order of the target buffer.
+     */
+    private static boolean isBigEndian(final ByteBuffer target) {
+        return target.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Time values are written with the sign bit flipped, so that their bytes sort in time order, before 1970 too.
+     */
+    private static long sortable(final long value) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    private static void checkLength(final int length, final int expected) {
+        if (length != expected) {
+            throw new IllegalArgumentException("Array has wrong size: " + length);
+        }
+    }
+
+    private static final class IntegerConvert implements IntConverter {
 
         @Override
-        public byte[] convert(final Integer source) {
+        public int fromInt(final byte[] bytes, final int offset, final int length) {
+            return Bytes.toInt(bytes, offset, length);
+        }
+
+        @Override
+        public byte[] convertInt(final int source) {
             return Bytes.toBytes(source);
         }
 
         @Override
-        public Integer from(final byte[] bytes) {
-            return Bytes.toInt(bytes);
+        public int convertInt(final int source, final ByteBuffer target) {
+            target.putInt(isBigEndian(target) ? source : Integer.reverseBytes(source));
+            return Bytes.SIZEOF_INT;
         }
 
     }
@@ -43,23 +82,91 @@ public class DefaultConversionService extends GenericConversionService {
             return Bytes.toBytes(source);
         }
 
+        /**
+         * Encodes UTF-8 without an intermediate array, unpaired surrogates become {@code '?'} as with
+         * {@link String#getBytes}.
+         */
+        @Override
+        public int convert(final String source, final ByteBuffer target) {
+            int length = source.length();
+            if (target.remaining() < length * 3 && target.remaining() < utf8Length(source)) {
+                throw new BufferOverflowException();
+            }
+            int start = target.position();
+            for (int i = 0; i < length; i++) {
+                char c = source.charAt(i);
+                if (c < 0x80) {
+                    target.put((byte) c);
+                } else if (c < 0x800) {
+                    target.put((byte) (0xC0 | c >> 6));
+                    target.put((byte) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(source.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, source.charAt(++i));
+                    target.put((byte) (0xF0 | codePoint >> 18));
+                    target.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                    target.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                    target.put((byte) (0x80 | codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    target.put((byte) '?');
+                } else {
+                    target.put((byte) (0xE0 | c >> 12));
+                    target.put((byte) (0x80 | c >> 6 & 0x3F));
+                    target.put((byte) (0x80 | c & 0x3F));
+                }
+            }
+            return target.position() - start;
+        }
+
+        private static int utf8Length(final String source) {
+            int bytes = 0;
+            for (int i = 0; i < source.length(); i++) {
+                char c = source.charAt(i);
+                if (c < 0x80) {
+                    bytes++;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < source.length()
+                    && Character.isLowSurrogate(source.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    bytes++;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+
         @Override
         public String from(final byte[] bytes) {
             return Bytes.toString(bytes);
         }
 
+        @Override
+        public String from(final byte[] bytes, final int offset, final int length) {
+            return Bytes.toString(bytes, offset, length);
+        }
+
     }
 
-    private static final class LongConvert implements Converter<Long> {
+    private static final class LongConvert implements LongConverter {
+
+        @Override
+        public long fromLong(final byte[] bytes, final int offset, final int length) {
+            return Bytes.toLong(bytes, offset, length);
+        }
 
         @Override
-        public byte[] convert(final Long source) {
+        public byte[] convertLong(final long source) {
             return Bytes.toBytes(source);
         }
 
         @Override
-        public Long from(final byte[] bytes) {
-            return Bytes.toLong(bytes);
+        public int convertLong(final long source, final ByteBuffer target) {
+            target.putLong(isBigEndian(target) ? source : Long.reverseBytes(source));
+            return Bytes.SIZEOF_LONG;
         }
 
     }
@@ -73,35 +180,63 @@ public class DefaultConversionService extends GenericConversionService {
 
         @Override
         public Float from(final byte[] bytes) {
-            return Bytes.toFloat(bytes);
+            return this.from(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Float from(final byte[] bytes, final int offset, final int length) {
+            return Float.intBitsToFloat(Bytes.toInt(bytes, offset, length));
+        }
+
+        @Override
+        public int convert(final Float source, final ByteBuffer target) {
+            int bits = Float.floatToRawIntBits(source);
+            target.putInt(isBigEndian(target) ? bits : Integer.reverseBytes(bits));
+            return Bytes.SIZEOF_FLOAT;
         }
 
     }
 
-    private static final class DoubleConverter implements Converter<Double> {
+    private static final class DoubleConvert implements DoubleConverter {
+
+        @Override
+        public double fromDouble(final byte[] bytes, final int offset, final int length) {
+            return Double.longBitsToDouble(Bytes.toLong(bytes, offset, length));
+        }
 
         @Override
-        public byte[] convert(final Double source) {
+        public byte[] convertDouble(final double source) {
             return Bytes.toBytes(source);
         }
 
         @Override
-        public Double from(final byte[] bytes) {
-            return Bytes.toDouble(bytes);
+        public int convertDouble(final double source, final ByteBuffer target) {
+            long bits = Double.doubleToRawLongBits(source);
+            target.putLong(isBigEndian(target) ? bits : Long.reverseBytes(bits));
+            return Bytes.SIZEOF_DOUBLE;
         }
 
     }
 
-    private static final class BooleanConvert implements Converter<Boolean> {
+    private static final class BooleanConvert implements BooleanConverter {
+
+        @Override
+        public boolean fromBoolean(final byte[] bytes, final int offset, final int length) {
+            if (length != 1) {
+                throw new IllegalArgumentException("Array has wrong size: " + length);
+            }
+            return bytes[offset] != (byte) 0;
+        }
 
         @Override
-        public byte[] convert(final Boolean source) {
+        public byte[] convertBoolean(final boolean source) {
             return Bytes.toBytes(source);
         }
 
         @Override
-        public Boolean from(final byte[] bytes) {
-            return Bytes.toBoolean(bytes);
+        public int convertBoolean(final boolean source, final ByteBuffer target) {
+            target.put(source ? (byte) -1 : (byte) 0);
+            return 1;
         }
 
     }
@@ -118,6 +253,17 @@ public class DefaultConversionService extends GenericConversionService {
             return Bytes.toShort(bytes);
         }
 
+        @Override
+        public Short from(final byte[] bytes, final int offset, final int length) {
+            return Bytes.toShort(bytes, offset, length);
+        }
+
+        @Override
+        public int convert(final Short source, final ByteBuffer target) {
+            target.putShort(isBigEndian(target) ? source : Short.reverseBytes(source));
+            return Bytes.SIZEOF_SHORT;
+        }
+
     }
 
     private static final class BigDecimalConverter implements Converter<BigDecimal> {
@@ -132,6 +278,11 @@ public class DefaultConversionService extends GenericConversionService {
             return Bytes.toBigDecimal(bytes);
         }
 
+        @Override
+        public BigDecimal from(final byte[] bytes, final int offset, final int length) {
+            return Bytes.toBigDecimal(bytes, offset, length);
+        }
+
     }
 
     private static final class ByteBufferConvert implements Converter<ByteBuffer> {
@@ -146,6 +297,201 @@ public class DefaultConversionService extends GenericConversionService {
             return ByteBuffer.wrap(bytes);
         }
 
+        /**
+         * Copies the range, the array usually backs a whole row that must not leak into the bean.
+         */
+        @Override
+        public ByteBuffer from(final byte[] bytes, final int offset, final int length) {
+            return ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+
+        @Override
+        public int convert(final ByteBuffer source, final ByteBuffer target) {
+            ByteBuffer slice = source.duplicate();
+            slice.position(0);
+            int length = slice.remaining();
+            target.put(slice);
+            return length;
+        }
+
+    }
+
+    /**
+     * Stores the array as is: the put references the array of the bean instead of a copy.
+     */
+    private static final class ByteArrayConverter implements Converter<byte[]> {
+
+        @Override
+        public byte[] convert(final byte[] source) {
+            return source;
+        }
+
+        @Override
+        public byte[] from(final byte[] bytes) {
+            return bytes;
+        }
+
+        /**
+         * Copies the range, the array usually backs a whole row that must not leak into the bean.
+         */
+        @Override
+        public byte[] from(final byte[] bytes, final int offset, final int length) {
+            return Arrays.copyOfRange(bytes, offset, offset + length);
+        }
+
+        @Override
+        public int convert(final byte[] source, final ByteBuffer target) {
+            target.put(source);
+            return source.length;
+        }
+
+    }
+
+    /**
+     * 16 bytes, the most significant half first.
+     */
+    private static final class UuidConverter implements Converter<UUID> {
+
+        private static final int SIZE = 2 * Bytes.SIZEOF_LONG;
+
+        @Override
+        public byte[] convert(final UUID source) {
+            byte[] bytes = new byte[SIZE];
+            Bytes.putLong(bytes, 0, source.getMostSignificantBits());
+            Bytes.putLong(bytes, Bytes.SIZEOF_LONG, source.getLeastSignificantBits());
+            return bytes;
+        }
+
+        @Override
+        public UUID from(final byte[] bytes) {
+            return this.from(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public UUID from(final byte[] bytes, final int offset, final int length) {
+            checkLength(length, SIZE);
+            return new UUID(Bytes.toLong(bytes, offset), Bytes.toLong(bytes, offset + Bytes.SIZEOF_LONG));
+        }
+
+        @Override
+        public int convert(final UUID source, final ByteBuffer target) {
+            if (target.remaining() < SIZE) {
+                throw new BufferOverflowException();
+            }
+            long most = source.getMostSignificantBits();
+            long least = source.getLeastSignificantBits();
+            target.putLong(isBigEndian(target) ? most : Long.reverseBytes(most));
+            target.putLong(isBigEndian(target) ? least : Long.reverseBytes(least));
+            return SIZE;
+        }
+
+    }
+
+    /**
+     * 12 bytes, the sortable epoch second followed by the nanosecond, so no precision or range is lost.
+     */
+    private static final class InstantConverter implements Converter<Instant> {
+
+        private static final int SIZE = Bytes.SIZEOF_LONG + Bytes.SIZEOF_INT;
+
+        @Override
+        public byte[] convert(final Instant source) {
+            return toBytes(source.getEpochSecond(), source.getNano());
+        }
+
+        @Override
+        public Instant from(final byte[] bytes) {
+            return this.from(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Instant from(final byte[] bytes, final int offset, final int length) {
+            checkLength(length, SIZE);
+            return Instant.ofEpochSecond(sortable(Bytes.toLong(bytes, offset)),
+                Bytes.toInt(bytes, offset + Bytes.SIZEOF_LONG));
+        }
+
+        @Override
+        public int convert(final Instant source, final ByteBuffer target) {
+            return put(source.getEpochSecond(), source.getNano(), target);
+        }
+
+        private static byte[] toBytes(final long epochSecond, final int nano) {
+            byte[] bytes = new byte[SIZE];
+            Bytes.putLong(bytes, 0, sortable(epochSecond));
+            Bytes.putInt(bytes, Bytes.SIZEOF_LONG, nano);
+            return bytes;
+        }
+
+        private static int put(final long epochSecond, final int nano, final ByteBuffer target) {
+            if (target.remaining() < SIZE) {
+                throw new BufferOverflowException();
+            }
+            long second = sortable(epochSecond);
+            target.putLong(isBigEndian(target) ? second : Long.reverseBytes(second));
+            target.putInt(isBigEndian(target) ? nano : Integer.reverseBytes(nano));
+            return SIZE;
+        }
+
+    }
+
+    /**
+     * Encoded as the {@link Instant} of the date-time at UTC, whatever the zone it was meant in.
+     */
+    private static final class LocalDateTimeConverter implements Converter<LocalDateTime> {
+
+        @Override
+        public byte[] convert(final LocalDateTime source) {
+            return InstantConverter.toBytes(source.toEpochSecond(ZoneOffset.UTC), source.getNano());
+        }
+
+        @Override
+        public LocalDateTime from(final byte[] bytes) {
+            return this.from(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public LocalDateTime from(final byte[] bytes, final int offset, final int length) {
+            checkLength(length, InstantConverter.SIZE);
+            return LocalDateTime.ofEpochSecond(sortable(Bytes.toLong(bytes, offset)),
+                Bytes.toInt(bytes, offset + Bytes.SIZEOF_LONG), ZoneOffset.UTC);
+        }
+
+        @Override
+        public int convert(final LocalDateTime source, final ByteBuffer target) {
+            return InstantConverter.put(source.toEpochSecond(ZoneOffset.UTC), source.getNano(), target);
+        }
+
+    }
+
+    /**
+     * The sortable epoch millisecond. Subclasses such as {@code java.sql.Timestamp} are written through this converter
+     * as well, losing what they hold beyond the millisecond.
+     */
+    private static final class DateConverter implements Converter<Date> {
+
+        @Override
+        public byte[] convert(final Date source) {
+            return Bytes.toBytes(sortable(source.getTime()));
+        }
+
+        @Override
+        public Date from(final byte[] bytes) {
+            return this.from(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Date from(final byte[] bytes, final int offset, final int length) {
+            return new Date(sortable(Bytes.toLong(bytes, offset, length)));
+        }
+
+        @Override
+        public int convert(final Date source, final ByteBuffer target) {
+            long millis = sortable(source.getTime());
+            target.putLong(isBigEndian(target) ? millis : Long.reverseBytes(millis));
+            return Bytes.SIZEOF_LONG;
+        }
+
     }
 
 }
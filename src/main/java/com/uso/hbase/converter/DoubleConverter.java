@@ -0,0 +1,36 @@
+package com.uso.hbase.converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Converter} decoding to and encoding from a primitive {@code double} without boxing.
+ */
+public interface DoubleConverter extends Converter<Double> {
+
+    double fromDouble(byte[] bytes, int offset, int length);
+
+    byte[] convertDouble(double source);
+
+    int convertDouble(double source, ByteBuffer target);
+
+    @Override
+    default Double from(final byte[] bytes) {
+        return fromDouble(bytes, 0, bytes.length);
+    }
+
+    @Override
+    default Double from(final byte[] bytes, final int offset, final int length) {
+        return fromDouble(bytes, offset, length);
+    }
+
+    @Override
+    default byte[] convert(final Double source) {
+        return convertDouble(source);
+    }
+
+    @Override
+    default int convert(final Double source, final ByteBuffer target) {
+        return convertDouble(source, target);
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.uso.hbase.converter;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores a constant as an unsigned varint of its {@link CodedEnum#getCode() code}, or of its ordinal if the enum does
+ * not implement {@link CodedEnum}; constants below 128 take one byte, negative codes five. Ordinals change when
+ * constants are reordered, so enums whose values outlive a release should implement {@link CodedEnum}.
+ *
+ * <p>{@link GenericConversionService} creates one for every enum without a converter of its own.
+ */
+public final class EnumConverter<E extends Enum<E>> implements Converter<E> {
+
+    private static final int MAX_VAR_INT_LENGTH = 5;
+
+    private final Class<E> type;
+
+    private final E[] constants;
+
+    /**
+     * Constants by code, {@code null} if stored by ordinal.
+     */
+    private final Map<Integer, E> byCode;
+
+    public EnumConverter(final Class<E> type) {
+        this.type = type;
+        this.constants = type.getEnumConstants();
+        if (CodedEnum.class.isAssignableFrom(type)) {
+            this.byCode = new HashMap<>();
+            for (E constant : this.constants) {
+                int code = ((CodedEnum) constant).getCode();
+                E other = this.byCode.put(code, constant);
+                if (other != null) {
+                    throw new IllegalArgumentException(type.getName() + "." + other + " and " + constant
+                        + " share the code " + code);
+                }
+            }
+        } else {
+            this.byCode = null;
+        }
+    }
+
+    public Class<E> getType() {
+        return this.type;
+    }
+
+    @Override
+    public byte[] convert(final E source) {
+        int code = this.code(source);
+        byte[] bytes = new byte[varIntLength(code)];
+        int rest = code;
+        for (int i = 0; i < bytes.length - 1; i++) {
+            bytes[i] = (byte) (rest & 0x7F | 0x80);
+            rest >>>= 7;
+        }
+        bytes[bytes.length - 1] = (byte) rest;
+        return bytes;
+    }
+
+    @Override
+    public int convert(final E source, final ByteBuffer target) {
+        int code = this.code(source);
+        int length = varIntLength(code);
+        if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        int rest = code;
+        while ((rest & ~0x7F) != 0) {
+            target.put((byte) (rest & 0x7F | 0x80));
+            rest >>>= 7;
+        }
+        target.put((byte) rest);
+        return length;
+    }
+
+    @Override
+    public E from(final byte[] bytes) {
+        return this.from(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public E from(final byte[] bytes, final int offset, final int length) {
+        int code = 0;
+        int shift = 0;
+        int position = offset;
+        byte current;
+        do {
+            if (position == offset + length || shift == 7 * MAX_VAR_INT_LENGTH) {
+                throw new IllegalArgumentException("Malformed " + this.type.getName() + " of " + length + " bytes");
+            }
+            current = bytes[position++];
+            code |= (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        if (position != offset + length) {
+            throw new IllegalArgumentException("Malformed " + this.type.getName() + " of " + length + " bytes");
+        }
+        E constant;
+        if (this.byCode != null) {
+            constant = this.byCode.get(code);
+        } else {
+            constant = code >= 0 && code < this.constants.length ? this.constants[code] : null;
+        }
+        if (constant == null) {
+            throw new IllegalArgumentException("No constant of " + this.type.getName() + " with code " + code);
+        }
+        return constant;
+    }
+
+    private int code(final E source) {
+        return this.byCode != null ? ((CodedEnum) source).getCode() : source.ordinal();
+    }
+
+    private static int varIntLength(final int value) {
+        int length = 1;
+        int rest = value >>> 7;
+        while (rest != 0) {
+            length++;
+            rest >>>= 7;
+        }
+        return length;
+    }
+
+}
@@ -3,18 +3,46 @@ package com.uso.hbase.converter;
 import com.uso.hbase.converter.exception.NotFoundConverterException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import lombok.Setter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class GenericConversionService implements ConversionService, ConverterRegistry {
 
-    @Setter
-    private List<Converter> converters = new LinkedList<>();
+    private static final Map<Class, Class> PRIMITIVE_WRAPPER_MAP = getPrimitiveWrapperMap();
 
-    private Map<Class, Converter> converterCache = new HashMap<>();
+    /**
+     * Cached in place of {@code null} for types without converter, {@link ConcurrentHashMap} has no null values.
+     */
+    private static final Converter NO_MATCH = new Converter<Object>() {
+
+        @Override
+        public byte[] convert(final Object source) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object from(final byte[] bytes) {
+            throw new UnsupportedOperationException();
+        }
+
+    };
+
+    private List<Converter> converters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Replaced as a whole when a converter is added, so a lookup never caches what it resolved from an older index.
+     */
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
 
     @Override
     public <T> byte[] convert(final T source) {
@@ -22,49 +50,206 @@ public class GenericConversionService implements ConversionService, ConverterReg
         return converter.convert(source);
     }
 
+    @Override
+    public <T> int convert(final T source, final ByteBuffer target) {
+        Converter converter = this.getConverter(source.getClass());
+        return converter.convert(source, target);
+    }
+
     @Override
     public <T> T from(final byte[] bytes, final Class<T> type) {
-        Converter converter = getConverter(type);
+        Converter converter = this.getReader(type);
         return (T) converter.from(bytes);
     }
 
     @Override
-    public void addConverter(final Converter<?> converter) {
+    public <T> T from(final byte[] bytes, final int offset, final int length, final Class<T> type) {
+        Converter converter = this.getReader(type);
+        return (T) converter.from(bytes, offset, length);
+    }
+
+    @Override
+    public boolean canConvert(final Class<?> type) {
+        Snapshot current = this.snapshot;
+        return readsBack(current, type, this.lookup(current, type));
+    }
+
+    @Override
+    public synchronized void addConverter(final Converter<?> converter) {
         this.converters.add(converter);
+        this.reindex();
+    }
+
+    public synchronized void setConverters(final List<Converter> converters) {
+        this.converters = new CopyOnWriteArrayList<>(converters);
+        this.reindex();
     }
 
-    private Converter getConverter(final Class<?> clazz) {
-        if (!this.converterCache.containsKey(clazz)) {
-            this.converterCache.put(clazz, findConverter(clazz));
+    /**
+     * Resolves the converters of the given types up front so that live requests only hit the cache.
+     *
+     * @throws NotFoundConverterException if one of the types has no converter reading it back
+     */
+    public void register(final Class<?>... types) {
+        for (Class<?> type : types) {
+            this.getReader(type);
         }
-        Converter converter = this.converterCache.get(clazz);
-        if (converter == null) {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Converter<T> getConverter(final Class<T> clazz) {
+        Converter converter = this.lookup(this.snapshot, clazz);
+        if (converter == NO_MATCH) {
             throw new NotFoundConverterException(clazz);
         }
         return converter;
     }
 
-    private Converter findConverter(final Class<?> clazz) {
-        Class type = GenericConversionService.getPrimitiveWrapperMap().getOrDefault(clazz, clazz);
-        for (Converter converter : this.converters) {
-            Class<?> clz = getGenericClass(converter);
-            if (type == clz) {
+    private Converter getReader(final Class<?> clazz) {
+        Snapshot current = this.snapshot;
+        Converter converter = this.lookup(current, clazz);
+        if (converter == NO_MATCH) {
+            throw new NotFoundConverterException(clazz);
+        }
+        if (!readsBack(current, clazz, converter)) {
+            throw new NotFoundConverterException("not find a converter reading " + clazz.getName() + ", the one of "
+                + registeredType(current, converter) + " only writes it");
+        }
+        return converter;
+    }
+
+    /**
+     * Whether the converter resolved for the type creates instances of it: the one registered for the type itself or
+     * for its enum, not the one of a superclass or superinterface.
+     */
+    private static boolean readsBack(final Snapshot current, final Class<?> clazz, final Converter converter) {
+        if (converter == NO_MATCH) {
+            return false;
+        }
+        Class<?> type = PRIMITIVE_WRAPPER_MAP.getOrDefault(clazz, clazz);
+        return Enum.class.isAssignableFrom(type) && type != Enum.class || current.index.get(type) == converter;
+    }
+
+    private static String registeredType(final Snapshot current, final Converter converter) {
+        for (Map.Entry<Class, Converter> entry : current.index.entrySet()) {
+            if (entry.getValue() == converter) {
+                return entry.getKey().getName();
+            }
+        }
+        return "?";
+    }
+
+    /**
+     * Resolved once per type, the result is cached in the snapshot it was resolved from.
+     */
+    private Converter lookup(final Snapshot current, final Class<?> clazz) {
+        Converter converter = current.cache.get(clazz);
+        if (converter == null) {
+            converter = this.findConverter(current, clazz);
+            Converter cached = current.cache.putIfAbsent(clazz, converter);
+            if (cached != null) {
+                converter = cached;
+            }
+        }
+        return converter;
+    }
+
+    /**
+     * Takes the converter registered for the type itself, else for an enum the one of its enum class or a new
+     * {@link EnumConverter}, else the one of the nearest superclass, else of the nearest superinterface. A converter of
+     * a supertype encodes every subtype, but decodes to whatever it creates, so reading into a field declared as the
+     * subtype needs a converter of its own: {@link #canConvert} is false for such a type and {@link #from} fails.
+     */
+    private Converter findConverter(final Snapshot current, final Class<?> clazz) {
+        Map<Class, Converter> index = current.index;
+        Class<?> type = PRIMITIVE_WRAPPER_MAP.getOrDefault(clazz, clazz);
+        Converter converter = index.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (Enum.class.isAssignableFrom(type) && type != Enum.class) {
+            // constants with a body are anonymous subclasses of their enum
+            Class<?> enumType = type.isEnum() ? type : type.getSuperclass();
+            return enumType == type ? newEnumConverter(type) : this.lookup(current, enumType);
+        }
+        for (Class<?> superclass = type.getSuperclass(); superclass != null && superclass != Object.class;
+             superclass = superclass.getSuperclass()) {
+            converter = index.get(superclass);
+            if (converter != null) {
                 return converter;
             }
         }
-        return null;
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        Set<Class<?>> seen = new HashSet<>();
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            Collections.addAll(interfaces, superclass.getInterfaces());
+        }
+        while (!interfaces.isEmpty()) {
+            Class<?> candidate = interfaces.poll();
+            if (!seen.add(candidate)) {
+                continue;
+            }
+            converter = index.get(candidate);
+            if (converter != null) {
+                return converter;
+            }
+            Collections.addAll(interfaces, candidate.getInterfaces());
+        }
+        return index.getOrDefault(Object.class, NO_MATCH);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Converter newEnumConverter(final Class<?> type) {
+        return new EnumConverter(type);
+    }
+
+    /**
+     * Resolves the type of every registered converter once, instead of on every lookup.
+     */
+    private void reindex() {
+        Map<Class, Converter> index = new HashMap<>();
+        for (Converter converter : this.converters) {
+            Class<?> type = converter instanceof EnumConverter ? ((EnumConverter<?>) converter).getType()
+                : getGenericClass(converter);
+            if (type != null) {
+                index.putIfAbsent(type, converter);
+            }
+        }
+        this.snapshot = new Snapshot(index);
     }
 
     private Class<?> getGenericClass(final Converter converter) {
-        Type[] types = converter.getClass().getGenericInterfaces();
-        if (types == null) {
+        return getGenericClass(converter.getClass());
+    }
+
+    /**
+     * Walks superclasses and superinterfaces, so that converters implementing {@link Converter} through an
+     * interface such as {@link IntConverter} are matched too.
+     */
+    private Class<?> getGenericClass(final Class<?> clazz) {
+        if (clazz == null || clazz == Object.class) {
             return null;
         }
-        for (Type type : types) {
-            Class<?> clazz = getConverterTypeArgument(type);
-            if (clazz != null) {
-                return clazz;
+        for (Type type : clazz.getGenericInterfaces()) {
+            Class<?> found = getConverterTypeArgument(type);
+            if (found == null) {
+                found = getGenericClass(toClass(type));
             }
+            if (found != null) {
+                return found;
+            }
+        }
+        Class<?> found = getConverterTypeArgument(clazz.getGenericSuperclass());
+        return found != null ? found : getGenericClass(clazz.getSuperclass());
+    }
+
+    private static Class<?> toClass(final Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
         }
         return null;
     }
@@ -76,13 +261,29 @@ public class GenericConversionService implements ConversionService, ConverterReg
                 return null;
             }
             Type[] types = pType.getActualTypeArguments();
-            if (types.length == 1) {
+            if (types.length == 1 && types[0] instanceof Class) {
                 return (Class) types[0];
             }
         }
         return null;
     }
 
+    /**
+     * Registered converters by the type they convert, the first one registered for a type wins, and the converters
+     * resolved from them.
+     */
+    private static final class Snapshot {
+
+        private final Map<Class, Converter> index;
+
+        private final ConcurrentMap<Class, Converter> cache = new ConcurrentHashMap<>();
+
+        private Snapshot(final Map<Class, Converter> index) {
+            this.index = index;
+        }
+
+    }
+
     private static Map<Class, Class> getPrimitiveWrapperMap() {
         Map<Class, Class> typeMap = new HashMap<>();
         typeMap.put(int.class, Integer.class);
@@ -93,7 +294,7 @@ public class GenericConversionService implements ConversionService, ConverterReg
         typeMap.put(short.class, Short.class);
         typeMap.put(double.class, Double.class);
         typeMap.put(float.class, Float.class);
-        return typeMap;
+        return Collections.unmodifiableMap(typeMap);
     }
 
 }
@@ -0,0 +1,36 @@
+package com.uso.hbase.converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Converter} decoding to and encoding from a primitive {@code int} without boxing.
+ */
+public interface IntConverter extends Converter<Integer> {
+
+    int fromInt(byte[] bytes, int offset, int length);
+
+    byte[] convertInt(int source);
+
+    int convertInt(int source, ByteBuffer target);
+
+    @Override
+    default Integer from(final byte[] bytes) {
+        return fromInt(bytes, 0, bytes.length);
+    }
+
+    @Override
+    default Integer from(final byte[] bytes, final int offset, final int length) {
+        return fromInt(bytes, offset, length);
+    }
+
+    @Override
+    default byte[] convert(final Integer source) {
+        return convertInt(source);
+    }
+
+    @Override
+    default int convert(final Integer source, final ByteBuffer target) {
+        return convertInt(source, target);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.uso.hbase.converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Converter} decoding to and encoding from a primitive {@code long} without boxing.
+ */
+public interface LongConverter extends Converter<Long> {
+
+    long fromLong(byte[] bytes, int offset, int length);
+
+    byte[] convertLong(long source);
+
+    int convertLong(long source, ByteBuffer target);
+
+    @Override
+    default Long from(final byte[] bytes) {
+        return fromLong(bytes, 0, bytes.length);
+    }
+
+    @Override
+    default Long from(final byte[] bytes, final int offset, final int length) {
+        return fromLong(bytes, offset, length);
+    }
+
+    @Override
+    default byte[] convert(final Long source) {
+        return convertLong(source);
+    }
+
+    @Override
+    default int convert(final Long source, final ByteBuffer target) {
+        return convertLong(source, target);
+    }
+
+}
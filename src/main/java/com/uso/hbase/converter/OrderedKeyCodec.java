@@ -0,0 +1,147 @@
+package com.uso.hbase.converter;
+
+import com.uso.hbase.converter.exception.NotSupportException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.hadoop.hbase.types.DataType;
+import org.apache.hadoop.hbase.types.OrderedBlobVar;
+import org.apache.hadoop.hbase.types.OrderedFloat32;
+import org.apache.hadoop.hbase.types.OrderedFloat64;
+import org.apache.hadoop.hbase.types.OrderedInt16;
+import org.apache.hadoop.hbase.types.OrderedInt32;
+import org.apache.hadoop.hbase.types.OrderedInt64;
+import org.apache.hadoop.hbase.types.OrderedInt8;
+import org.apache.hadoop.hbase.types.OrderedNumeric;
+import org.apache.hadoop.hbase.types.OrderedString;
+import org.apache.hadoop.hbase.util.Order;
+import org.apache.hadoop.hbase.util.OrderedBytes;
+import org.apache.hadoop.hbase.util.PositionedByteRange;
+import org.apache.hadoop.hbase.util.SimplePositionedMutableByteRange;
+
+/**
+ * Encodes rowkey parts with HBase {@link OrderedBytes}, so that the unsigned byte order of a key follows the natural
+ * order of its parts, negative numbers included. Numbers are fixed-width, strings, decimals and {@code byte[]} are
+ * self-terminated, so parts can be concatenated and decoded back one after the other. A {@code null} part is encoded
+ * as the one-byte null marker, which is inverted with the rest of a descending part: it sorts before every value of an
+ * ascending part and after every value of a descending one.
+ */
+public final class OrderedKeyCodec {
+
+    private static final Map<Class<?>, DataType<?>[]> TYPES = new HashMap<>();
+
+    static {
+        register(OrderedInt8.ASCENDING, OrderedInt8.DESCENDING, byte.class, Byte.class, boolean.class, Boolean.class);
+        register(OrderedInt16.ASCENDING, OrderedInt16.DESCENDING, short.class, Short.class);
+        register(OrderedInt32.ASCENDING, OrderedInt32.DESCENDING, int.class, Integer.class);
+        register(OrderedInt64.ASCENDING, OrderedInt64.DESCENDING, long.class, Long.class);
+        register(OrderedFloat32.ASCENDING, OrderedFloat32.DESCENDING, float.class, Float.class);
+        register(OrderedFloat64.ASCENDING, OrderedFloat64.DESCENDING, double.class, Double.class);
+        register(OrderedString.ASCENDING, OrderedString.DESCENDING, String.class);
+        register(OrderedNumeric.ASCENDING, OrderedNumeric.DESCENDING, BigDecimal.class);
+        register(OrderedBlobVar.ASCENDING, OrderedBlobVar.DESCENDING, byte[].class);
+    }
+
+    private OrderedKeyCodec() {
+    }
+
+    public static boolean supports(final Class<?> type) {
+        return TYPES.containsKey(type);
+    }
+
+    /**
+     * Encodes the parts one after the other. {@code values} may be shorter than {@code types}, which gives the prefix
+     * of every key starting with these parts.
+     */
+    public static byte[] encode(final Object[] values, final Class<?>[] types, final Order[] orders) {
+        if (values.length > types.length) {
+            throw new IllegalArgumentException("rowkey has " + types.length + " parts, got " + values.length);
+        }
+        Object[] parts = new Object[values.length];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            parts[i] = coerce(values[i], types[i]);
+            length += parts[i] == null ? 1 : dataType(types[i], orders[i]).encodedLength(parts[i]);
+        }
+        PositionedByteRange range = new SimplePositionedMutableByteRange(length);
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i] == null) {
+                OrderedBytes.encodeNull(range, orders[i]);
+            } else {
+                dataType(types[i], orders[i]).encode(range, parts[i]);
+            }
+        }
+        return range.getBytes();
+    }
+
+    /**
+     * Decodes the part at the current position of the range and moves past it.
+     */
+    public static Object decode(final PositionedByteRange range, final Class<?> type, final Order order) {
+        if (OrderedBytes.isNull(range)) {
+            range.get();
+            return null;
+        }
+        Object value = dataType(type, order).decode(range);
+        if (type == boolean.class || type == Boolean.class) {
+            return (Byte) value != 0;
+        }
+        if (type == BigDecimal.class && !(value instanceof BigDecimal)) {
+            return new BigDecimal(value.toString());
+        }
+        return value;
+    }
+
+    private static Object coerce(final Object value, final Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return (Boolean) value ? (byte) 1 : (byte) 0;
+        }
+        return coerceNumber(value, type);
+    }
+
+    /**
+     * Lets a part be given as any {@link Number} of a numeric type, e.g. an {@code int} literal for a {@code long}
+     * part. Other values are returned as they are.
+     */
+    public static Object coerceNumber(final Object value, final Class<?> type) {
+        if (!(value instanceof Number) || type.isInstance(value)) {
+            return value;
+        }
+        Number number = (Number) value;
+        if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        } else if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        } else if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        } else if (type == long.class || type == Long.class) {
+            return number.longValue();
+        } else if (type == float.class || type == Float.class) {
+            return number.floatValue();
+        } else if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(number.toString());
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataType<Object> dataType(final Class<?> type, final Order order) {
+        DataType<?>[] dataTypes = TYPES.get(type);
+        if (dataTypes == null) {
+            throw new NotSupportException("not support ordered rowkey encoding of " + type.getName());
+        }
+        return (DataType<Object>) dataTypes[order == Order.DESCENDING ? 1 : 0];
+    }
+
+    private static void register(final DataType<?> ascending, final DataType<?> descending, final Class<?>... types) {
+        for (Class<?> type : types) {
+            TYPES.put(type, new DataType<?>[] {ascending, descending});
+        }
+    }
+
+}
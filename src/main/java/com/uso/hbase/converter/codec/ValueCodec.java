@@ -0,0 +1,12 @@
+package com.uso.hbase.converter.codec;
+
+/**
+ * Encodes the values of one column, codec id included. Implementations are thread-safe.
+ */
+public interface ValueCodec {
+
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes, int offset, int length);
+
+}
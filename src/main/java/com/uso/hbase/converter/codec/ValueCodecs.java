@@ -0,0 +1,354 @@
+package com.uso.hbase.converter.codec;
+
+import com.uso.hbase.annotation.ColumnCodec;
+import com.uso.hbase.converter.ConversionService;
+import com.uso.hbase.converter.exception.NotSupportException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Creates the {@link ValueCodec} of a column. Every encoded value starts with a codec id, which decoding reads rather
+ * than trusting the annotation: {@link #RAW} is the plain converter bytes, used by every codec for the values it does
+ * not improve.
+ */
+public final class ValueCodecs {
+
+    public static final byte RAW = 0;
+
+    public static final byte VARINT = 1;
+
+    public static final byte DICTIONARY = 2;
+
+    public static final byte DEFLATE = 3;
+
+    /**
+     * Shorter values are not worth compressing.
+     */
+    public static final int DEFLATE_MIN_LENGTH = 64;
+
+    private static final int MAX_VAR_LONG_LENGTH = 10;
+
+    /**
+     * Idle deflaters and inflaters, bounded so that their native memory is too; one that does not fit is ended.
+     */
+    private static final int POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * Types whose plain bytes have a fixed width of at most 16, like those of enums never reaching
+     * {@link #DEFLATE_MIN_LENGTH}: deflating them would only add the codec id and take primitive fields off their
+     * fast paths.
+     */
+    private static final Set<Class<?>> FIXED_WIDTH_TYPES = new HashSet<>(Arrays.asList(byte.class, Byte.class,
+        short.class, Short.class, int.class, Integer.class, long.class, Long.class, float.class, Float.class,
+        double.class, Double.class, boolean.class, Boolean.class, char.class, Character.class, UUID.class,
+        Instant.class, LocalDateTime.class, Date.class));
+
+    private ValueCodecs() {
+    }
+
+    public static boolean supports(final ColumnCodec codec, final Class<?> type) {
+        switch (codec) {
+            case VARINT:
+                return type == byte.class || type == Byte.class || type == short.class || type == Short.class
+                    || type == int.class || type == Integer.class || type == long.class || type == Long.class;
+            case DICTIONARY:
+                return type == String.class;
+            case DEFLATE:
+                return !FIXED_WIDTH_TYPES.contains(type) && !type.isEnum();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return {@code null} for {@link ColumnCodec#NONE}, the plain converter is used
+     */
+    public static ValueCodec create(final ColumnCodec codec, final Class<?> type, final String[] dictionary,
+                                    final ConversionService conversionService) {
+        if (!supports(codec, type)) {
+            throw new NotSupportException("not support codec " + codec + " of " + type.getName());
+        }
+        switch (codec) {
+            case VARINT:
+                return new VarIntCodec(type, conversionService);
+            case DICTIONARY:
+                return new DictionaryCodec(dictionary, conversionService);
+            case DEFLATE:
+                return new DeflateCodec(type, conversionService);
+            default:
+                return null;
+        }
+    }
+
+    private static byte[] raw(final byte[] value) {
+        byte[] bytes = new byte[value.length + 1];
+        bytes[0] = RAW;
+        System.arraycopy(value, 0, bytes, 1, value.length);
+        return bytes;
+    }
+
+    private static int varIntLength(final long value) {
+        int length = 1;
+        long rest = value >>> 7;
+        while (rest != 0) {
+            length++;
+            rest >>>= 7;
+        }
+        return length;
+    }
+
+    private static int writeVarInt(final byte[] bytes, final int offset, final long value) {
+        int position = offset;
+        long rest = value;
+        while ((rest & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((rest & 0x7F) | 0x80);
+            rest >>>= 7;
+        }
+        bytes[position++] = (byte) rest;
+        return position;
+    }
+
+    /**
+     * Reads a varint as {@link #writeVarInt} writes it: the shortest encoding only, so that it ends
+     * {@link #varIntLength} bytes after {@code offset}.
+     *
+     * @param length bytes available from {@code offset}
+     * @throws NotSupportException if the varint runs past them, is longer than 10 bytes or overflows a long
+     */
+    private static long readVarInt(final byte[] bytes, final int offset, final int length) {
+        int limit = offset + Math.min(length, MAX_VAR_LONG_LENGTH);
+        long value = 0;
+        int shift = 0;
+        int position = offset;
+        byte current;
+        do {
+            if (position == limit) {
+                throw new NotSupportException("malformed varint of " + length + " bytes");
+            }
+            current = bytes[position++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        if (shift == 7 * MAX_VAR_LONG_LENGTH && (current & 0x7F) > 1
+            || current == 0 && position - offset > 1) {
+            throw new NotSupportException("malformed varint of " + length + " bytes");
+        }
+        return value;
+    }
+
+    private abstract static class AbstractCodec implements ValueCodec {
+
+        final Class<?> type;
+
+        private final ConversionService conversionService;
+
+        private AbstractCodec(final Class<?> type, final ConversionService conversionService) {
+            this.type = type;
+            this.conversionService = conversionService;
+        }
+
+        byte[] plain(final Object value) {
+            return this.conversionService.convert(value);
+        }
+
+        Object fromPlain(final byte[] bytes, final int offset, final int length) {
+            return this.conversionService.from(bytes, offset, length, this.type);
+        }
+
+        @Override
+        public Object decode(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return null;
+            }
+            if (bytes[offset] == RAW) {
+                return this.fromPlain(bytes, offset + 1, length - 1);
+            }
+            return this.decodeEncoded(bytes[offset], bytes, offset + 1, length - 1);
+        }
+
+        abstract Object decodeEncoded(byte id, byte[] bytes, int offset, int length);
+
+        NotSupportException unknown(final byte id) {
+            return new NotSupportException("unknown codec id " + id + " for " + this.type.getName());
+        }
+
+    }
+
+    private static final class VarIntCodec extends AbstractCodec {
+
+        private VarIntCodec(final Class<?> type, final ConversionService conversionService) {
+            super(type, conversionService);
+        }
+
+        @Override
+        public byte[] encode(final Object value) {
+            long number = ((Number) value).longValue();
+            long zigzag = (number << 1) ^ (number >> 63);
+            byte[] bytes = new byte[1 + varIntLength(zigzag)];
+            bytes[0] = VARINT;
+            writeVarInt(bytes, 1, zigzag);
+            return bytes;
+        }
+
+        @Override
+        Object decodeEncoded(final byte id, final byte[] bytes, final int offset, final int length) {
+            if (id != VARINT) {
+                throw this.unknown(id);
+            }
+            long zigzag = readVarInt(bytes, offset, length);
+            long number = (zigzag >>> 1) ^ -(zigzag & 1);
+            if (this.type == long.class || this.type == Long.class) {
+                return number;
+            } else if (this.type == int.class || this.type == Integer.class) {
+                return (int) number;
+            } else if (this.type == short.class || this.type == Short.class) {
+                return (short) number;
+            }
+            return (byte) number;
+        }
+
+    }
+
+    private static final class DictionaryCodec extends AbstractCodec {
+
+        private final String[] dictionary;
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private DictionaryCodec(final String[] dictionary, final ConversionService conversionService) {
+            super(String.class, conversionService);
+            this.dictionary = dictionary.clone();
+            for (int i = 0; i < dictionary.length; i++) {
+                this.indexes.putIfAbsent(dictionary[i], i);
+            }
+        }
+
+        @Override
+        public byte[] encode(final Object value) {
+            Integer index = this.indexes.get(value);
+            if (index == null) {
+                return raw(this.plain(value));
+            }
+            byte[] bytes = new byte[1 + varIntLength(index)];
+            bytes[0] = DICTIONARY;
+            writeVarInt(bytes, 1, index);
+            return bytes;
+        }
+
+        @Override
+        Object decodeEncoded(final byte id, final byte[] bytes, final int offset, final int length) {
+            if (id != DICTIONARY) {
+                throw this.unknown(id);
+            }
+            long index = readVarInt(bytes, offset, length);
+            if (index >= this.dictionary.length) {
+                throw new NotSupportException("dictionary index " + index + " out of " + this.dictionary.length);
+            }
+            return this.dictionary[(int) index];
+        }
+
+    }
+
+    /**
+     * Layout: codec id, varint of the plain length, deflated plain bytes.
+     */
+    private static final class DeflateCodec extends AbstractCodec {
+
+        private DeflateCodec(final Class<?> type, final ConversionService conversionService) {
+            super(type, conversionService);
+        }
+
+        @Override
+        public byte[] encode(final Object value) {
+            byte[] plain = this.plain(value);
+            if (plain.length < DEFLATE_MIN_LENGTH) {
+                return raw(plain);
+            }
+            Deflater deflater = DEFLATERS.poll();
+            if (deflater == null) {
+                deflater = new Deflater();
+            }
+            int header = 1 + varIntLength(plain.length);
+            byte[] bytes = new byte[header + plain.length];
+            int length = header;
+            boolean finished;
+            try {
+                deflater.setInput(plain);
+                deflater.finish();
+                while (!deflater.finished() && length < bytes.length) {
+                    length += deflater.deflate(bytes, length, bytes.length - length);
+                }
+                finished = deflater.finished();
+            } finally {
+                deflater.reset();
+                if (!DEFLATERS.offer(deflater)) {
+                    deflater.end();
+                }
+            }
+            if (!finished) {
+                return raw(plain);
+            }
+            bytes[0] = DEFLATE;
+            writeVarInt(bytes, 1, plain.length);
+            return Arrays.copyOf(bytes, length);
+        }
+
+        @Override
+        Object decodeEncoded(final byte id, final byte[] bytes, final int offset, final int length) {
+            if (id != DEFLATE) {
+                throw this.unknown(id);
+            }
+            long declared = readVarInt(bytes, offset, length);
+            if (declared > Integer.MAX_VALUE - 8) {
+                throw new NotSupportException("deflate value of " + declared + " bytes");
+            }
+            int plainLength = (int) declared;
+            int start = offset + varIntLength(plainLength);
+            byte[] plain = new byte[plainLength];
+            Inflater inflater = INFLATERS.poll();
+            if (inflater == null) {
+                inflater = new Inflater();
+            }
+            try {
+                inflater.setInput(bytes, start, offset + length - start);
+                int read = 0;
+                while (read < plainLength && !inflater.finished()) {
+                    int count = inflater.inflate(plain, read, plainLength - read);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    read += count;
+                }
+                if (read != plainLength) {
+                    throw new NotSupportException("truncated deflate value, " + read + " of " + plainLength);
+                }
+            } catch (final DataFormatException ex) {
+                throw new NotSupportException("corrupt deflate value: " + ex.getMessage());
+            } finally {
+                inflater.reset();
+                if (!INFLATERS.offer(inflater)) {
+                    inflater.end();
+                }
+            }
+            return this.fromPlain(plain, 0, plainLength);
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.uso.hbase.converter.exception;
+
+/**
+ * A value of a mapped field that its converter or codec failed to encode or decode.
+ */
+public class ConversionException extends RuntimeException {
+
+    private final String converterName;
+
+    public ConversionException(final String converterName, final String message, final Throwable cause) {
+        super(message, cause);
+        this.converterName = converterName;
+    }
+
+    /**
+     * Class name of the converter or codec, or of the value type if it was converted by runtime class.
+     */
+    public String getConverterName() {
+        return this.converterName;
+    }
+
+}
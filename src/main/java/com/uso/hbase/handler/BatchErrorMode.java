@@ -0,0 +1,16 @@
+package com.uso.hbase.handler;
+
+public enum BatchErrorMode {
+
+    /**
+     * Stop at the first failing element and throw its exception.
+     */
+    FAIL_FAST,
+
+    /**
+     * Process every element, then report the failed ones through
+     * {@link com.uso.hbase.handler.exception.HBatchProcessException} together with the successful results.
+     */
+    COLLECT
+
+}
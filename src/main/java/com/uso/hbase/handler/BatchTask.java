@@ -0,0 +1,108 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.handler.exception.HBatchProcessException;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs one {@link Job} per index of a batch, sequentially or split across a {@link ForkJoinPool}, and applies the
+ * {@link BatchErrorMode}.
+ */
+final class BatchTask extends RecursiveAction {
+
+    interface Job {
+
+        Object process(int index) throws Exception;
+
+    }
+
+    private final Job job;
+
+    private final Object[] results;
+
+    private final Exception[] errors;
+
+    private final BatchErrorMode errorMode;
+
+    private final AtomicBoolean failed;
+
+    private final int from;
+
+    private final int to;
+
+    private final int grain;
+
+    private BatchTask(final Job job, final Object[] results, final Exception[] errors, final BatchErrorMode errorMode,
+                      final AtomicBoolean failed, final int from, final int to, final int grain) {
+        this.job = job;
+        this.results = results;
+        this.errors = errors;
+        this.errorMode = errorMode;
+        this.failed = failed;
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+    }
+
+    /**
+     * @param pool      {@code null} to always run on the calling thread
+     * @param threshold batches smaller than this run on the calling thread
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> run(final int size, final Job job, final ForkJoinPool pool, final int threshold,
+                           final BatchErrorMode errorMode) throws HProcessException {
+        Object[] results = new Object[size];
+        Exception[] errors = new Exception[size];
+        AtomicBoolean failed = new AtomicBoolean();
+        if (pool == null || size < threshold || size < 2) {
+            new BatchTask(job, results, errors, errorMode, failed, 0, size, size).compute();
+        } else {
+            int grain = Math.max(1, size / (pool.getParallelism() * 4));
+            pool.invoke(new BatchTask(job, results, errors, errorMode, failed, 0, size, grain));
+        }
+        if (failed.get()) {
+            SortedMap<Integer, Exception> errorMap = new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                if (errors[i] != null) {
+                    errorMap.put(i, errors[i]);
+                }
+            }
+            if (errorMode == BatchErrorMode.FAIL_FAST) {
+                throw new HProcessException(errorMap.get(errorMap.firstKey()));
+            }
+            throw new HBatchProcessException(Arrays.asList(results), errorMap);
+        }
+        return (List<T>) Arrays.asList(results);
+    }
+
+    @Override
+    protected void compute() {
+        if (this.to - this.from > this.grain) {
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(
+                new BatchTask(this.job, this.results, this.errors, this.errorMode, this.failed, this.from, mid,
+                    this.grain),
+                new BatchTask(this.job, this.results, this.errors, this.errorMode, this.failed, mid, this.to,
+                    this.grain));
+            return;
+        }
+        for (int i = this.from; i < this.to; i++) {
+            if (this.errorMode == BatchErrorMode.FAIL_FAST && this.failed.get()) {
+                return;
+            }
+            try {
+                this.results[i] = this.job.process(i);
+            } catch (final Exception ex) {
+                this.errors[i] = ex;
+                this.failed.set(true);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.uso.hbase.handler;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Open addressing table from family/qualifier to a value, probed with the backing arrays of a {@link Cell} so that
+ * no family or qualifier is copied on lookup.
+ */
+public final class ColumnIndex<V> {
+
+    private final byte[][] families;
+
+    private final byte[][] qualifiers;
+
+    private final Object[] values;
+
+    private final int mask;
+
+    private int size;
+
+    public ColumnIndex(final int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        this.families = new byte[capacity][];
+        this.qualifiers = new byte[capacity][];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Maps the column to the value unless it is already mapped.
+     *
+     * @return the value the column is already mapped to, {@code null} if the value was put
+     * @throws IllegalStateException if the table is full
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(final byte[] family, final byte[] qualifier, final V value) {
+        int slot = hash(family, 0, family.length, qualifier, 0, qualifier.length) & this.mask;
+        while (this.values[slot] != null) {
+            if (Bytes.equals(this.families[slot], family) && Bytes.equals(this.qualifiers[slot], qualifier)) {
+                return (V) this.values[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        if (this.size + 1 > this.mask) {
+            throw new IllegalStateException("column index is full");
+        }
+        this.families[slot] = family;
+        this.qualifiers[slot] = qualifier;
+        this.values[slot] = value;
+        this.size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(final Cell cell) {
+        byte[] fArray = cell.getFamilyArray();
+        int fOffset = cell.getFamilyOffset();
+        int fLength = cell.getFamilyLength();
+        byte[] qArray = cell.getQualifierArray();
+        int qOffset = cell.getQualifierOffset();
+        int qLength = cell.getQualifierLength();
+        int slot = hash(fArray, fOffset, fLength, qArray, qOffset, qLength) & this.mask;
+        Object value;
+        while ((value = this.values[slot]) != null) {
+            if (Bytes.equals(this.qualifiers[slot], 0, this.qualifiers[slot].length, qArray, qOffset, qLength)
+                && Bytes.equals(this.families[slot], 0, this.families[slot].length, fArray, fOffset, fLength)) {
+                return (V) value;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private static int hash(final byte[] family, final int fOffset, final int fLength,
+                            final byte[] qualifier, final int qOffset, final int qLength) {
+        int h = 31 * Bytes.hashCode(family, fOffset, fLength) + Bytes.hashCode(qualifier, qOffset, qLength);
+        return h ^ (h >>> 16);
+    }
+
+}
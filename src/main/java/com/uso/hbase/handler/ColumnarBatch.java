@@ -0,0 +1,323 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.converter.exception.NotSupportException;
+import com.uso.hbase.handler.exception.NotFoundFieldException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Rows of a bean class decoded column by column into primitive arrays instead of beans, see
+ * {@link HandlerFactory#scanColumnar}. Strings are dictionary encoded: the column holds codes into a dictionary that
+ * only grows, so a code means the same string across {@link #clear()}. The arrays are the backing arrays, valid up to
+ * {@link #size()}, and are replaced when the batch grows. Not thread-safe.
+ */
+public final class ColumnarBatch {
+
+    public enum ColumnType {
+
+        LONG, INT, DOUBLE, BOOLEAN, STRING
+
+    }
+
+    @Getter
+    private final Class<?> beanClass;
+
+    private final Object owner;
+
+    private final String[] fields;
+
+    private final ColumnType[] types;
+
+    /**
+     * The column decoded by each field of the handler, by {@code ordinal}, -1 for fields not in the batch.
+     */
+    private final int[] columnsByOrdinal;
+
+    private final Object[] values;
+
+    private final long[][] nulls;
+
+    private final Dictionary[] dictionaries;
+
+    private final boolean[] present;
+
+    private int capacity;
+
+    private int size;
+
+    ColumnarBatch(final Class<?> beanClass, final Object owner, final String[] fields, final ColumnType[] types,
+                  final int[] columnsByOrdinal, final int capacity) {
+        this.beanClass = beanClass;
+        this.owner = owner;
+        this.fields = fields.clone();
+        this.types = types.clone();
+        this.columnsByOrdinal = columnsByOrdinal.clone();
+        this.capacity = Math.max(1, capacity);
+        this.values = new Object[fields.length];
+        this.nulls = new long[fields.length][];
+        this.dictionaries = new Dictionary[fields.length];
+        this.present = new boolean[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            this.values[i] = newArray(types[i], this.capacity);
+            this.nulls[i] = new long[(this.capacity + 63) >>> 6];
+            if (types[i] == ColumnType.STRING) {
+                this.dictionaries[i] = new Dictionary();
+            }
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public boolean isFull() {
+        return this.size >= this.capacity;
+    }
+
+    /**
+     * Drops the rows but keeps the arrays and the string dictionaries.
+     */
+    public void clear() {
+        for (long[] bits : this.nulls) {
+            Arrays.fill(bits, 0, Math.min(bits.length, (this.size + 63) >>> 6), 0L);
+        }
+        this.size = 0;
+    }
+
+    public List<String> getFields() {
+        return Collections.unmodifiableList(Arrays.asList(this.fields));
+    }
+
+    public ColumnType getType(final String field) {
+        return this.types[this.column(field)];
+    }
+
+    public boolean isNull(final String field, final int row) {
+        return this.isNull(this.column(field), row);
+    }
+
+    public long[] longs(final String field) {
+        return (long[]) this.values(field, ColumnType.LONG);
+    }
+
+    public int[] ints(final String field) {
+        return (int[]) this.values(field, ColumnType.INT);
+    }
+
+    public double[] doubles(final String field) {
+        return (double[]) this.values(field, ColumnType.DOUBLE);
+    }
+
+    public boolean[] booleans(final String field) {
+        return (boolean[]) this.values(field, ColumnType.BOOLEAN);
+    }
+
+    /**
+     * Dictionary codes of a string column, see {@link #dictionary(String)}.
+     */
+    public int[] codes(final String field) {
+        return (int[]) this.values(field, ColumnType.STRING);
+    }
+
+    public List<String> dictionary(final String field) {
+        this.values(field, ColumnType.STRING);
+        return Collections.unmodifiableList(this.dictionaries[this.column(field)].strings);
+    }
+
+    /**
+     * @return the string of a row, {@code null} if the row has none
+     */
+    public String getString(final String field, final int row) {
+        int column = this.column(field);
+        if (this.types[column] != ColumnType.STRING) {
+            throw new NotSupportException("column " + field + " is " + this.types[column]);
+        }
+        if (this.isNull(column, row)) {
+            return null;
+        }
+        return this.dictionaries[column].strings.get(((int[]) this.values[column])[row]);
+    }
+
+    boolean isOwner(final Object handler) {
+        return this.owner == handler;
+    }
+
+    ColumnType type(final int column) {
+        return this.types[column];
+    }
+
+    /**
+     * @return the column decoded by the field of the given ordinal, -1 if none
+     */
+    int columnOf(final int ordinal) {
+        return this.columnsByOrdinal[ordinal];
+    }
+
+    /**
+     * Appends a row whose columns are all absent until set, growing the arrays if the batch is full.
+     */
+    int addRow() {
+        if (this.size == this.capacity) {
+            this.grow();
+        }
+        Arrays.fill(this.present, false);
+        return this.size++;
+    }
+
+    /**
+     * Marks the columns of the last row that were not set as {@code null}.
+     */
+    void finishRow() {
+        int row = this.size - 1;
+        for (int i = 0; i < this.present.length; i++) {
+            if (!this.present[i]) {
+                this.nulls[i][row >>> 6] |= 1L << row;
+            }
+        }
+    }
+
+    void setLong(final int column, final int row, final long value) {
+        ((long[]) this.values[column])[row] = value;
+        this.present[column] = true;
+    }
+
+    void setInt(final int column, final int row, final int value) {
+        ((int[]) this.values[column])[row] = value;
+        this.present[column] = true;
+    }
+
+    void setDouble(final int column, final int row, final double value) {
+        ((double[]) this.values[column])[row] = value;
+        this.present[column] = true;
+    }
+
+    void setBoolean(final int column, final int row, final boolean value) {
+        ((boolean[]) this.values[column])[row] = value;
+        this.present[column] = true;
+    }
+
+    /**
+     * @return the code of the string encoded by the bytes, -1 if the dictionary does not hold it yet
+     */
+    int findCode(final int column, final byte[] bytes, final int offset, final int length) {
+        return this.dictionaries[column].find(bytes, offset, length);
+    }
+
+    int addCode(final int column, final byte[] bytes, final int offset, final int length, final String value) {
+        return this.dictionaries[column].add(Bytes.copy(bytes, offset, length), value);
+    }
+
+    void setCode(final int column, final int row, final int code) {
+        ((int[]) this.values[column])[row] = code;
+        this.present[column] = true;
+    }
+
+    private boolean isNull(final int column, final int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + this.size);
+        }
+        return (this.nulls[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    private Object values(final String field, final ColumnType type) {
+        int column = this.column(field);
+        if (this.types[column] != type) {
+            throw new NotSupportException("column " + field + " is " + this.types[column] + ", not " + type);
+        }
+        return this.values[column];
+    }
+
+    private int column(final String field) {
+        for (int i = 0; i < this.fields.length; i++) {
+            if (this.fields[i].equals(field)) {
+                return i;
+            }
+        }
+        throw new NotFoundFieldException(this.beanClass, field);
+    }
+
+    private void grow() {
+        int grown = this.capacity << 1;
+        for (int i = 0; i < this.values.length; i++) {
+            Object array = newArray(this.types[i], grown);
+            System.arraycopy(this.values[i], 0, array, 0, this.capacity);
+            this.values[i] = array;
+            this.nulls[i] = Arrays.copyOf(this.nulls[i], (grown + 63) >>> 6);
+        }
+        this.capacity = grown;
+    }
+
+    private static Object newArray(final ColumnType type, final int capacity) {
+        switch (type) {
+            case LONG:
+                return new long[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            case BOOLEAN:
+                return new boolean[capacity];
+            default:
+                return new int[capacity];
+        }
+    }
+
+    /**
+     * Open addressing table from the stored bytes of a string to its code, so that a value already seen is found
+     * without decoding it.
+     */
+    private static final class Dictionary {
+
+        private final List<String> strings = new ArrayList<>();
+
+        private final List<byte[]> keys = new ArrayList<>();
+
+        private int[] slots = new int[16];
+
+        private int find(final byte[] bytes, final int offset, final int length) {
+            int mask = this.slots.length - 1;
+            int slot = Bytes.hashCode(bytes, offset, length) & mask;
+            int entry;
+            while ((entry = this.slots[slot]) != 0) {
+                byte[] key = this.keys.get(entry - 1);
+                if (Bytes.equals(key, 0, key.length, bytes, offset, length)) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int add(final byte[] key, final String value) {
+            int code = this.strings.size();
+            this.strings.add(value);
+            this.keys.add(key);
+            if ((code + 1) * 2 > this.slots.length) {
+                this.slots = new int[this.slots.length << 1];
+                for (int i = 0; i < this.keys.size(); i++) {
+                    this.insert(this.keys.get(i), i);
+                }
+            } else {
+                this.insert(key, code);
+            }
+            return code;
+        }
+
+        private void insert(final byte[] key, final int code) {
+            int mask = this.slots.length - 1;
+            int slot = Bytes.hashCode(key, 0, key.length) & mask;
+            while (this.slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.slots[slot] = code + 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.uso.hbase.handler;
+
+public enum DecodeMode {
+
+    /**
+     * One {@link org.apache.hadoop.hbase.client.Result#getValue} lookup per mapped column.
+     */
+    LOOKUP,
+
+    /**
+     * One pass over {@link org.apache.hadoop.hbase.client.Result#rawCells()}, dispatching every cell to its field
+     * through a {@link ColumnIndex} and counting the cells no field maps in {@link UnmappedCellStats}.
+     */
+    CELL_SCAN
+
+}
@@ -2,30 +2,200 @@ package com.uso.hbase.handler;
 
 import com.uso.hbase.converter.ConversionService;
 import com.uso.hbase.converter.DefaultConversionService;
+import com.uso.hbase.handler.accessor.AccessStrategy;
 import com.uso.hbase.handler.exception.HProcessException;
-import java.util.HashMap;
+import com.uso.hbase.metrics.MappingMetrics;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
 
+@Slf4j
 public class DefaultHandlerFactory implements HandlerFactory {
 
-    @Setter
     @Getter
     private ConversionService conversionService = new DefaultConversionService();
 
-    private Map<Class, HRowHandler> handlerCaches;
+    /**
+     * Whether mappers generated by {@code hbase-bean-processor} are preferred over {@link HRowHandler}.
+     */
+    @Getter
+    private boolean useGeneratedMappers = true;
+
+    /**
+     * How {@link HRowHandler} reaches bean constructors, getters and setters.
+     */
+    @Getter
+    private AccessStrategy accessStrategy = AccessStrategy.GENERATED;
+
+    /**
+     * Pool used by the batch methods, {@code null} keeps every batch on the calling thread.
+     */
+    @Setter
+    @Getter
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * Batches smaller than this are processed on the calling thread even if a pool is set.
+     */
+    @Setter
+    @Getter
+    private int parallelThreshold = 1024;
+
+    @Setter
+    @Getter
+    private BatchErrorMode batchErrorMode = BatchErrorMode.FAIL_FAST;
+
+    /**
+     * Rows requested from the scanner per RPC round by {@link #stream}.
+     */
+    @Setter
+    @Getter
+    private int scanBatchSize = 100;
+
+    /**
+     * Batches {@link #stream} may fetch ahead of its consumer before the fetching thread blocks.
+     */
+    @Setter
+    @Getter
+    private int scanPrefetchBatches = 4;
+
+    /**
+     * Rows each salt bucket of {@link #scatterScan} may fetch ahead of the merge.
+     */
+    @Setter
+    @Getter
+    private int saltPrefetchRows = 100;
+
+    /**
+     * Regions {@link #regionStream} scans at the same time.
+     */
+    @Setter
+    @Getter
+    private int regionConcurrency = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Cells of a wide field {@link #streamEntries} fetches per RPC.
+     */
+    @Setter
+    @Getter
+    private int wideRowBatchSize = 1000;
+
+    /**
+     * Executor decoding the batches fetched by {@link #stream}.
+     */
+    @Setter
+    @Getter
+    private Executor decodeExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * How {@link HRowHandler} reads columns from a {@link Result}. Generated mappers always use
+     * {@link DecodeMode#LOOKUP}.
+     */
+    @Getter
+    private DecodeMode decodeMode = DecodeMode.LOOKUP;
+
+    /**
+     * Instrumentation of conversions, {@link MappingMetrics#NOOP} to record nothing.
+     */
+    @Getter
+    private MappingMetrics metrics = MappingMetrics.NOOP;
+
+    private final ConcurrentMap<Class, RowMapper> handlerCaches;
+
+    private final ConcurrentMap<Class, RowMapper> instrumentedCaches = new ConcurrentHashMap<>();
+
+    private final List<RowWriteListener> writeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * {@link HRowHandler}s of classes served by a generated mapper, for the operations that need field metadata.
+     */
+    private final ConcurrentMap<Class, HRowHandler> metadataCaches;
 
     public DefaultHandlerFactory() {
-        handlerCaches = new HashMap<>();
+        handlerCaches = new ConcurrentHashMap<>();
+        metadataCaches = new ConcurrentHashMap<>();
+    }
+
+    public void setMetrics(final MappingMetrics metrics) {
+        this.metrics = metrics == null ? MappingMetrics.NOOP : metrics;
+        this.instrumentedCaches.clear();
+    }
+
+    /**
+     * The settings below are baked into the handlers when they are created, so changing one drops every handler and
+     * the next conversion of each class creates it again.
+     */
+    public void setConversionService(final ConversionService conversionService) {
+        this.conversionService = conversionService;
+        this.clearHandlers();
+    }
+
+    public void setUseGeneratedMappers(final boolean useGeneratedMappers) {
+        this.useGeneratedMappers = useGeneratedMappers;
+        this.clearHandlers();
+    }
+
+    public void setAccessStrategy(final AccessStrategy accessStrategy) {
+        this.accessStrategy = accessStrategy;
+        this.clearHandlers();
+    }
+
+    public void setDecodeMode(final DecodeMode decodeMode) {
+        this.decodeMode = decodeMode;
+        this.clearHandlers();
+    }
+
+    private void clearHandlers() {
+        this.handlerCaches.clear();
+        this.metadataCaches.clear();
+        this.instrumentedCaches.clear();
+    }
+
+    /**
+     * Registers a listener told about the rows of {@link #buildPut}, {@link #buildPuts} and {@link #buildChanges}, and
+     * about their completion through {@link #notifyWritten}.
+     */
+    public void addWriteListener(final RowWriteListener listener) {
+        this.writeListeners.add(listener);
+    }
+
+    public void removeWriteListener(final RowWriteListener listener) {
+        this.writeListeners.remove(listener);
     }
 
     @Override
     public <T> T convert(final Result result, Class<T> clazz) throws HProcessException {
         try {
-            return getHRowHandler(clazz).convert(result);
+            return getInstrumentedMapper(clazz).convert(result);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <T> T convertLazy(final Result result, final Class<T> clazz) throws HProcessException {
+        try {
+            return getInstrumentedMapper(clazz).convertLazy(result);
         } catch (final Exception ex) {
             throw new HProcessException(ex);
         }
@@ -34,22 +204,369 @@ public class DefaultHandlerFactory implements HandlerFactory {
     @Override
     public Put buildPut(final Object source) throws HProcessException {
         try {
-            HRowHandler handler = getHRowHandler(source.getClass());
-            return handler.buildPut(source);
+            Class<?> clazz = mappedClass(source);
+            RowMapper handler = getInstrumentedMapper(clazz);
+            Put put = handler.buildPut(source);
+            notifyWrite(clazz, put.getRow());
+            return put;
         } catch (final Exception ex) {
             throw new HProcessException(ex);
         }
     }
 
-    private <T> HRowHandler<T> getHRowHandler(final Class<T> clazz) throws InstantiationException {
-        if (!handlerCaches.containsKey(clazz)) {
-            synchronized (this) {
-                if (!handlerCaches.containsKey(clazz)) {
-                    handlerCaches.put(clazz, new HRowHandler<>(clazz, conversionService));
+    @Override
+    public Put buildPut(final Object source, final PutArena arena) throws HProcessException {
+        try {
+            Class<?> clazz = mappedClass(source);
+            // generated mappers cannot encode into an arena, the runtime handler does
+            RowMapper handler = metrics == MappingMetrics.NOOP ? getHRowHandler(clazz) : getInstrumentedMapper(clazz);
+            Put put = handler.buildPut(source, arena);
+            notifyWrite(clazz, put.getRow());
+            return put;
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <T> TrackedRow<T> convertTracked(final Result result, final Class<T> clazz, final String... fields)
+        throws HProcessException {
+        return new TrackedRow<>(convert(result, clazz, fields), result, fields);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public RowChanges buildChanges(final TrackedRow<?> tracked) throws HProcessException {
+        try {
+            Class<?> clazz = mappedClass(tracked.getBean());
+            HRowHandler handler = getHRowHandler(clazz);
+            RowChanges changes = handler.buildChanges(tracked.getBean(), tracked.getOriginal(), tracked.getFields());
+            if (!changes.isEmpty()) {
+                notifyWrite(clazz, changes.getRow());
+            }
+            return changes;
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <T> T convert(final Result result, final Class<T> clazz, final String... fields)
+        throws HProcessException {
+        try {
+            return getHRowHandler(clazz).convert(result, fields);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public Get buildGet(final Object rowkey, final Class<?> clazz, final String... fields) throws HProcessException {
+        try {
+            return getHRowHandler(clazz).buildGet(rowkey, fields);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public Scan buildScan(final Class<?> clazz, final String... fields) throws HProcessException {
+        try {
+            return getHRowHandler(clazz).buildScan(fields);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public Scan scanRange(final Class<?> clazz, final Object[] lowerKeyParts, final Object[] upperKeyParts,
+                          final String... fields) throws HProcessException {
+        try {
+            return getHRowHandler(clazz).buildScanRange(lowerKeyParts, upperKeyParts, fields);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <T> List<T> convertAll(final Result[] results, final Class<T> clazz) throws HProcessException {
+        RowMapper<T> mapper = requireInstrumentedMapper(clazz);
+        return BatchTask.run(results.length, index -> mapper.convert(results[index]), forkJoinPool,
+            parallelThreshold, batchErrorMode);
+    }
+
+    @Override
+    public <T> List<T> convertAll(final List<Result> results, final Class<T> clazz) throws HProcessException {
+        return convertAll(results.toArray(new Result[0]), clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Put> buildPuts(final Collection<?> sources) throws HProcessException {
+        Object[] array = sources.toArray();
+        Class<?> firstClass = array.length == 0 || array[0] == null ? null : mappedClass(array[0]);
+        RowMapper firstMapper = firstClass == null ? null : requireInstrumentedMapper(firstClass);
+        return BatchTask.run(array.length, index -> {
+            Object source = array[index];
+            Class<?> clazz = mappedClass(source);
+            RowMapper mapper = clazz == firstClass ? firstMapper : getInstrumentedMapper(clazz);
+            Put put = mapper.buildPut(source);
+            notifyWrite(clazz, put.getRow());
+            return put;
+        }, forkJoinPool, parallelThreshold, batchErrorMode);
+    }
+
+    @Override
+    public ResultScanner scatterScan(final Table table, final Class<?> clazz, final Scan scan)
+        throws HProcessException {
+        try {
+            List<Scan> scans = getHRowHandler(clazz).buildBucketScans(scan);
+            if (scans.size() == 1) {
+                return table.getScanner(scans.get(0));
+            }
+            return new SaltedResultScanner(table, scans, saltPrefetchRows);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <T> Spliterator<T> regionSpliterator(final Table table, final RegionLocator locator, final Scan scan,
+                                               final Class<T> clazz, final RegionScanListener listener)
+        throws HProcessException {
+        try {
+            return RegionScanSpliterator.create(table, locator, getHRowHandler(clazz).buildBucketScans(scan),
+                getInstrumentedMapper(clazz), regionConcurrency, listener);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> regionStream(final Table table, final RegionLocator locator, final Scan scan,
+                                      final Class<T> clazz, final RegionScanListener listener)
+        throws HProcessException {
+        Spliterator<T> spliterator = regionSpliterator(table, locator, scan, clazz, listener);
+        return StreamSupport.stream(spliterator, true).onClose(() -> RegionScanSpliterator.close(spliterator));
+    }
+
+    @Override
+    public <T> Stream<T> stream(final ResultScanner scanner, final Class<T> clazz) throws HProcessException {
+        PipelinedScanIterator<T> iterator = new PipelinedScanIterator<>(scanner, requireInstrumentedMapper(clazz),
+            decodeExecutor, scanBatchSize, scanPrefetchBatches);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+            Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    @Override
+    public ColumnarBatch newColumnarBatch(final Class<?> clazz, final int capacity, final String... fields)
+        throws HProcessException {
+        try {
+            return getHRowHandler(clazz).newColumnarBatch(capacity, fields);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public void decodeInto(final Result result, final ColumnarBatch batch) throws HProcessException {
+        try {
+            getHRowHandler(batch.getBeanClass()).decodeInto(batch, result);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public long scanColumnar(final ResultScanner scanner, final Class<?> clazz, final int batchSize,
+                             final Consumer<ColumnarBatch> consumer, final String... fields)
+        throws HProcessException {
+        try {
+            HRowHandler<?> handler = getHRowHandler(clazz);
+            ColumnarBatch batch = handler.newColumnarBatch(batchSize, fields);
+            long rows = 0;
+            Result result;
+            while ((result = scanner.next()) != null) {
+                handler.decodeInto(batch, result);
+                rows++;
+                if (batch.isFull()) {
+                    consumer.accept(batch);
+                    batch.clear();
                 }
             }
+            if (batch.size() > 0) {
+                consumer.accept(batch);
+                batch.clear();
+            }
+            return rows;
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <K, V> Stream<Map.Entry<K, V>> streamEntries(final Table table, final Class<?> clazz, final Object rowkey,
+                                                      final String field) throws HProcessException {
+        try {
+            HRowHandler<?> handler = getHRowHandler(clazz);
+            ResultScanner scanner = table.getScanner(handler.buildWideScan(rowkey, field, wideRowBatchSize));
+            return StreamSupport.stream(scanner.spliterator(), false)
+                .flatMap(result -> handler.<K, V>wideEntries(result, field).stream())
+                .onClose(scanner::close);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public <K, V> WidePage<K, V> readPage(final Table table, final Class<?> clazz, final Object rowkey,
+                                          final String field, final byte[] after, final int limit)
+        throws HProcessException {
+        try {
+            HRowHandler<?> handler = getHRowHandler(clazz);
+            Result result = table.get(handler.buildWidePage(rowkey, field, after, limit));
+            return handler.toWidePage(result, field, limit);
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    @Override
+    public void register(final Class<?>... classes) throws HProcessException {
+        try {
+            for (Class<?> clazz : classes) {
+                getRowMapper(clazz).resolveConverters();
+            }
+        } catch (final Exception ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    /**
+     * Statistics of the cells no field of the class maps, recorded while {@link DecodeMode#CELL_SCAN} is active.
+     *
+     * @return {@code null} if the class is served by a generated mapper
+     */
+    public UnmappedCellStats getUnmappedCellStats(final Class<?> clazz) throws HProcessException {
+        RowMapper<?> mapper = requireRowMapper(clazz);
+        return mapper instanceof HRowHandler ? ((HRowHandler<?>) mapper).getUnmappedCellStats() : null;
+    }
+
+    @Override
+    public void notifyWritten(final Object source, final byte[] row) {
+        Class<?> clazz = mappedClass(source);
+        for (RowWriteListener listener : writeListeners) {
+            listener.onWritten(clazz, row);
+        }
+    }
+
+    private void notifyWrite(final Class<?> clazz, final byte[] row) {
+        for (RowWriteListener listener : writeListeners) {
+            listener.onWrite(clazz, row);
+        }
+    }
+
+    private static Class<?> mappedClass(final Object source) {
+        return source instanceof LazyRow ? source.getClass().getSuperclass() : source.getClass();
+    }
+
+    /**
+     * Lock free on hit. Racing misses may each build a mapper, only the first one published is kept.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> RowMapper<T> getRowMapper(final Class<T> clazz) throws InstantiationException {
+        RowMapper<T> mapper = handlerCaches.get(clazz);
+        if (mapper == null) {
+            RowMapper<T> created = createRowMapper(clazz);
+            mapper = handlerCaches.putIfAbsent(clazz, created);
+            if (mapper == null) {
+                mapper = created;
+            }
+        }
+        return mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> HRowHandler<T> getHRowHandler(final Class<T> clazz) throws InstantiationException {
+        RowMapper<T> mapper = getRowMapper(clazz);
+        if (mapper instanceof HRowHandler) {
+            return (HRowHandler<T>) mapper;
+        }
+        HRowHandler<T> handler = metadataCaches.get(clazz);
+        if (handler == null) {
+            HRowHandler<T> created = createHRowHandler(clazz);
+            handler = metadataCaches.putIfAbsent(clazz, created);
+            if (handler == null) {
+                handler = created;
+            }
+        }
+        return handler;
+    }
+
+    /**
+     * The mapper of the class, wrapped to record {@link #metrics} unless they are {@link MappingMetrics#NOOP}.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> RowMapper<T> getInstrumentedMapper(final Class<T> clazz) throws InstantiationException {
+        if (metrics == MappingMetrics.NOOP) {
+            return getRowMapper(clazz);
+        }
+        RowMapper<T> mapper = instrumentedCaches.get(clazz);
+        if (mapper == null) {
+            RowMapper<T> created = new InstrumentedRowMapper<>(getRowMapper(clazz), getHRowHandler(clazz),
+                metrics.forClass(clazz));
+            mapper = instrumentedCaches.putIfAbsent(clazz, created);
+            if (mapper == null) {
+                mapper = created;
+            }
+        }
+        return mapper;
+    }
+
+    private <T> RowMapper<T> requireInstrumentedMapper(final Class<T> clazz) throws HProcessException {
+        try {
+            return getInstrumentedMapper(clazz);
+        } catch (final InstantiationException ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    private <T> RowMapper<T> requireRowMapper(final Class<T> clazz) throws HProcessException {
+        try {
+            return getRowMapper(clazz);
+        } catch (final InstantiationException ex) {
+            throw new HProcessException(ex);
+        }
+    }
+
+    private <T> RowMapper<T> createRowMapper(final Class<T> clazz) throws InstantiationException {
+        if (this.useGeneratedMappers) {
+            RowMapper<T> mapper = loadGeneratedMapper(clazz);
+            if (mapper != null) {
+                return mapper;
+            }
+        }
+        return createHRowHandler(clazz);
+    }
+
+    private <T> HRowHandler<T> createHRowHandler(final Class<T> clazz) throws InstantiationException {
+        HRowHandler<T> handler = new HRowHandler<>(clazz, conversionService, accessStrategy.getAccessorFactory());
+        handler.setDecodeMode(decodeMode);
+        return handler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RowMapper<T> loadGeneratedMapper(final Class<T> clazz) {
+        String name = clazz.getName() + RowMapper.GENERATED_SUFFIX;
+        try {
+            Class<?> mapperClass = Class.forName(name, true, clazz.getClassLoader());
+            return (RowMapper<T>) mapperClass.getConstructor(ConversionService.class).newInstance(conversionService);
+        } catch (final ClassNotFoundException ex) {
+            return null;
+        } catch (final ReflectiveOperationException | ClassCastException | LinkageError ex) {
+            log.warn("generated mapper " + name + " is unusable, fall back to " + HRowHandler.class.getSimpleName(), ex);
+            return null;
         }
-        return handlerCaches.get(clazz);
     }
 
 }
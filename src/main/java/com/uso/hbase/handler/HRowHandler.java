@@ -1,39 +1,129 @@
 package com.uso.hbase.handler;
 
+import com.uso.hbase.annotation.ColumnCodec;
 import com.uso.hbase.annotation.HColumn;
+import com.uso.hbase.annotation.HColumnMap;
 import com.uso.hbase.annotation.HIgnore;
 import com.uso.hbase.annotation.HRow;
 import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.annotation.RowStorage;
+import com.uso.hbase.annotation.RowkeyEncoding;
+import com.uso.hbase.converter.BooleanConverter;
 import com.uso.hbase.converter.ConversionService;
+import com.uso.hbase.converter.Converter;
+import com.uso.hbase.converter.DoubleConverter;
+import com.uso.hbase.converter.IntConverter;
+import com.uso.hbase.converter.LongConverter;
+import com.uso.hbase.converter.OrderedKeyCodec;
+import com.uso.hbase.converter.codec.ValueCodec;
+import com.uso.hbase.converter.codec.ValueCodecs;
+import com.uso.hbase.converter.exception.ConversionException;
+import com.uso.hbase.converter.exception.NotFoundConverterException;
+import com.uso.hbase.converter.exception.NotSupportException;
+import com.uso.hbase.handler.accessor.AccessStrategy;
+import com.uso.hbase.handler.accessor.AccessorFactory;
+import com.uso.hbase.handler.accessor.BooleanPropertyAccessor;
+import com.uso.hbase.handler.accessor.DoublePropertyAccessor;
+import com.uso.hbase.handler.accessor.Instantiator;
+import com.uso.hbase.handler.accessor.IntPropertyAccessor;
+import com.uso.hbase.handler.accessor.LongPropertyAccessor;
+import com.uso.hbase.handler.accessor.PropertyAccessor;
 import com.uso.hbase.handler.exception.HbaseAnnotationException;
+import com.uso.hbase.handler.exception.NotFoundFieldException;
 import com.uso.hbase.handler.exception.NotFoundRowkeyException;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.ColumnPaginationFilter;
+import org.apache.hadoop.hbase.filter.ColumnPrefixFilter;
+import org.apache.hadoop.hbase.util.AbstractByteRange;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Order;
+import org.apache.hadoop.hbase.util.PositionedByteRange;
+import org.apache.hadoop.hbase.util.SimplePositionedByteRange;
+import org.apache.hadoop.hbase.util.SimplePositionedMutableByteRange;
 
 @Slf4j
-public class HRowHandler<T> {
+public class HRowHandler<T> implements RowMapper<T> {
+
+    private static final String DUPLICATE_ORDER_FORMAT = "Rowkey parts %s.%s and %s have the same order";
+
+    private static final String DUPLICATE_ID_FORMAT = "Packed fields %s.%s and %s have the same id %d";
+
+    private static final String WIDE_OVERLAP_FORMAT = "Columns of %s.%s overlap with the columns of %s";
 
     private Class<T> type;
 
-    private Mapper<T> rowkeyMapper;
+    private Instantiator<T> instantiator;
+
+    private Rowkey<T> rowkey;
 
     private List<Mapper<T>> columnMappers;
 
+    private Packed<T> packed;
+
     private ConversionService conversionService;
 
+    private AccessorFactory accessorFactory;
+
+    private ColumnIndex<Mapper<T>> columnIndex;
+
+    private Map<String, Mapper<T>> columnMappersByName;
+
+    private List<WideColumn<T>> wideColumns;
+
+    private Map<String, WideColumn<T>> wideColumnsByName;
+
+    private final ConcurrentMap<List<String>, List<Mapper<T>>> projections = new ConcurrentHashMap<>();
+
+    @Setter
+    @Getter
+    private DecodeMode decodeMode = DecodeMode.LOOKUP;
+
+    /**
+     * Cells seen by {@link DecodeMode#CELL_SCAN} decoding that no field maps.
+     */
+    @Getter
+    private final UnmappedCellStats unmappedCellStats = new UnmappedCellStats();
+
     public HRowHandler(final Class<T> type, final ConversionService conversionService) throws InstantiationException {
+        this(type, conversionService, AccessStrategy.GENERATED.getAccessorFactory());
+    }
+
+    public HRowHandler(final Class<T> type, final ConversionService conversionService,
+                       final AccessorFactory accessorFactory) throws InstantiationException {
         try {
             if (type.getAnnotation(HRow.class) == null) {
                 throw new Exception();
             }
             this.conversionService = conversionService;
+            this.accessorFactory = accessorFactory;
             this.type = type;
+            this.instantiator = accessorFactory.instantiator(type);
             this.buildMappers();
         } catch (final Exception ex) {
             log.error(ex.getMessage(), ex);
@@ -41,55 +131,674 @@ public class HRowHandler<T> {
         }
     }
 
+    @Override
     public Put buildPut(final T source) throws Exception {
-        if (this.rowkeyMapper == null) {
+        if (this.rowkey == null) {
             throw new NotFoundRowkeyException(this.type);
         }
-        Put put = new Put(this.rowkeyMapper.getRowkey(source));
+        Put put = new Put(this.rowkey.encode(source));
         for (Mapper<T> mapper : this.columnMappers) {
             mapper.addColumnToPut(put, source);
         }
+        if (this.packed != null) {
+            put.addColumn(this.packed.family, this.packed.qualifier, this.packed.encode(source));
+        }
+        for (WideColumn<T> wide : this.wideColumns) {
+            wide.addToPut(put, source);
+        }
         return put;
     }
 
+    /**
+     * Builds the put with its cells serialized into the arena, see {@link PutArena} for how long the put stays valid.
+     * Wide fields are still copied into cells of their own.
+     */
+    public Put buildPut(final T source, final PutArena arena) throws Exception {
+        if (this.rowkey == null) {
+            throw new NotFoundRowkeyException(this.type);
+        }
+        byte[] row = this.rowkey.encode(source);
+        Put put = new Put(row, true);
+        for (Mapper<T> mapper : this.columnMappers) {
+            mapper.addColumnToPut(put, source, arena, row);
+        }
+        if (this.packed != null) {
+            arena.add(put, row, this.packed.family, this.packed.qualifier, this.packed.encode(source));
+        }
+        for (WideColumn<T> wide : this.wideColumns) {
+            wide.addToPut(put, source);
+        }
+        return put;
+    }
+
+    /**
+     * Compares the bean with the row it was decoded from and keeps only what changed: modified columns go to the put,
+     * mapped columns set to {@code null} that exist in the row go to the delete. If the rowkey of the bean no longer
+     * matches the row, every column is written.
+     *
+     * @param fields names of the fields the bean was decoded from, none for all of them: the columns of other fields
+     *               were not fetched, so they are neither compared nor written
+     */
+    public RowChanges buildChanges(final T source, final Result original, final String... fields) throws Exception {
+        if (this.rowkey == null) {
+            throw new NotFoundRowkeyException(this.type);
+        }
+        byte[] row = this.rowkey.encode(source);
+        RowChanges changes = new RowChanges(row);
+        Result snapshot = original != null && Bytes.equals(row, original.getRow()) ? original : null;
+        if (fields.length == 0) {
+            for (Mapper<T> mapper : this.columnMappers) {
+                mapper.addChange(changes, source, snapshot);
+            }
+            if (this.packed != null) {
+                this.packed.addChange(changes, source, snapshot);
+            }
+            for (WideColumn<T> wide : this.wideColumns) {
+                wide.addChanges(changes, source, snapshot);
+            }
+            return changes;
+        }
+        List<Mapper<T>> projection = this.projection(fields);
+        boolean anyPacked = false;
+        for (Mapper<T> mapper : projection) {
+            if (mapper.packed) {
+                anyPacked = true;
+            } else {
+                mapper.addChange(changes, source, snapshot);
+            }
+        }
+        if (anyPacked) {
+            this.packed.addChange(changes, this.merge(source, snapshot, projection), snapshot);
+        }
+        for (String field : fields) {
+            WideColumn<T> wide = this.wideColumnsByName.get(field);
+            if (wide != null) {
+                wide.addChanges(changes, source, snapshot);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * The packed cell holds every packed field, so writing it from a bean decoded from only some of them would reset
+     * the others: they are taken from the cell of the snapshot instead, if it has one.
+     */
+    private T merge(final T source, final Result snapshot, final List<Mapper<T>> projection)
+        throws ReflectiveOperationException {
+        if (snapshot == null || snapshot.getColumnLatestCell(this.packed.family, this.packed.qualifier) == null) {
+            return source;
+        }
+        T merged = this.instantiator.newInstance();
+        this.packed.evalToTarget(merged, snapshot, null);
+        for (Mapper<T> mapper : projection) {
+            if (mapper.packed) {
+                mapper.accessor.set(merged, mapper.accessor.get(source));
+            }
+        }
+        return merged;
+    }
+
+    @Override
     public T convert(final Result result) throws Exception {
-        T obj = this.type.newInstance();
-        this.rowkeyMapper.evalToTarget(obj, result);
+        T obj = this.instantiator.newInstance();
+        if (this.rowkey != null) {
+            this.rowkey.decode(obj, result);
+        }
+        for (WideColumn<T> wide : this.wideColumns) {
+            wide.evalToTarget(obj, result);
+        }
+        if (this.decodeMode == DecodeMode.CELL_SCAN) {
+            this.scanCells(obj, result);
+            return obj;
+        }
         for (Mapper<T> mapper : this.columnMappers) {
             mapper.evalToTarget(obj, result);
         }
+        if (this.packed != null) {
+            this.packed.evalToTarget(obj, result, null);
+        }
+        return obj;
+    }
+
+    /**
+     * Decodes the rowkey and only the given fields, leaving every other field at its default value.
+     *
+     * @param fields names of mapped fields, none for all of them
+     */
+    public T convert(final Result result, final String... fields) throws Exception {
+        if (fields.length == 0) {
+            return this.convert(result);
+        }
+        T obj = this.instantiator.newInstance();
+        if (this.rowkey != null) {
+            this.rowkey.decode(obj, result);
+        }
+        List<Mapper<T>> projection = this.projection(fields);
+        boolean anyPacked = false;
+        for (Mapper<T> mapper : projection) {
+            if (mapper.packed) {
+                anyPacked = true;
+            } else {
+                mapper.evalToTarget(obj, result);
+            }
+        }
+        if (anyPacked) {
+            this.packed.evalToTarget(obj, result, projection);
+        }
+        for (String field : fields) {
+            WideColumn<T> wide = this.wideColumnsByName.get(field);
+            if (wide != null) {
+                wide.evalToTarget(obj, result);
+            }
+        }
         return obj;
     }
 
-    private void buildMappers() throws InstantiationException {
+    /**
+     * Creates an empty batch for {@link #decodeInto}. Fields of type {@code long}, {@code int}, {@code short},
+     * {@code byte}, {@code double}, {@code float}, {@code boolean}, their boxes and {@code String} are supported;
+     * rowkey, packed and wide fields are not.
+     *
+     * @param fields names of mapped fields, none for all of them
+     */
+    public ColumnarBatch newColumnarBatch(final int capacity, final String... fields) {
+        List<Mapper<T>> projection = this.projection(fields);
+        String[] names = new String[projection.size()];
+        ColumnarBatch.ColumnType[] types = new ColumnarBatch.ColumnType[projection.size()];
+        int[] columnsByOrdinal = new int[this.columnMappers.size()];
+        Arrays.fill(columnsByOrdinal, -1);
+        for (int i = 0; i < names.length; i++) {
+            Mapper<T> mapper = projection.get(i);
+            if (mapper.packed || mapper.isRowkey) {
+                throw new NotSupportException("not support columnar decoding of " + this.type.getName() + "."
+                    + mapper.name);
+            }
+            names[i] = mapper.name;
+            types[i] = columnType(mapper.type);
+            if (types[i] == null) {
+                throw new NotSupportException("not support columnar decoding of " + mapper.type.getName());
+            }
+            columnsByOrdinal[mapper.ordinal] = i;
+        }
+        return new ColumnarBatch(this.type, this, names, types, columnsByOrdinal, capacity);
+    }
+
+    /**
+     * Appends the row to the batch, without creating a bean. Values are decoded with the converters of the fields,
+     * without boxing for primitive converters; strings are only decoded the first time the batch sees them.
+     */
+    @SuppressWarnings("unchecked")
+    public void decodeInto(final ColumnarBatch batch, final Result result) {
+        if (!batch.isOwner(this)) {
+            throw new IllegalArgumentException("batch was not created by the handler of " + this.type.getName());
+        }
+        int row = batch.addRow();
+        if (result != null && !result.isEmpty()) {
+            Mapper<T> previous = null;
+            for (Cell cell : result.rawCells()) {
+                Mapper<T> mapper = this.columnIndex.get(cell);
+                if (mapper != previous) {
+                    for (Mapper<T> same = mapper; same != null; same = same.sameColumn) {
+                        int column = batch.columnOf(same.ordinal);
+                        if (column >= 0) {
+                            same.decodeInto(batch, column, row, cell);
+                        }
+                    }
+                }
+                previous = mapper;
+            }
+        }
+        batch.finishRow();
+    }
+
+    private static ColumnarBatch.ColumnType columnType(final Class<?> type) {
+        if (type == long.class || type == Long.class) {
+            return ColumnarBatch.ColumnType.LONG;
+        }
+        if (type == int.class || type == Integer.class || type == short.class || type == Short.class
+            || type == byte.class || type == Byte.class) {
+            return ColumnarBatch.ColumnType.INT;
+        }
+        if (type == double.class || type == Double.class || type == float.class || type == Float.class) {
+            return ColumnarBatch.ColumnType.DOUBLE;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return ColumnarBatch.ColumnType.BOOLEAN;
+        }
+        return type == String.class ? ColumnarBatch.ColumnType.STRING : null;
+    }
+
+    /**
+     * Builds a {@link Get} of the row that only requests the columns of the given fields.
+     *
+     * @param rowkey value of the rowkey field, an {@code Object[]} of the parts of a composite rowkey, or the already
+     *               encoded {@code byte[]}, salt included
+     * @param fields names of mapped fields, none for all of them
+     */
+    public Get buildGet(final Object rowkey, final String... fields) {
+        Get get = new Get(this.encodeRowkey(rowkey));
+        for (Mapper<T> mapper : this.projection(fields)) {
+            if (mapper.packed) {
+                get.addColumn(this.packed.family, this.packed.qualifier);
+            } else {
+                get.addColumn(mapper.family, mapper.qualifier);
+            }
+        }
+        if (fields.length == 0 && this.packed != null) {
+            get.addColumn(this.packed.family, this.packed.qualifier);
+        }
+        for (WideColumn<T> wide : this.wideProjection(fields)) {
+            get.addFamily(wide.getFamily());
+        }
+        return get;
+    }
+
+    /**
+     * Builds a {@link Scan} that only requests the columns of the given fields.
+     *
+     * @param fields names of mapped fields, none for all of them
+     */
+    public Scan buildScan(final String... fields) {
+        Scan scan = new Scan();
+        for (Mapper<T> mapper : this.projection(fields)) {
+            if (mapper.packed) {
+                scan.addColumn(this.packed.family, this.packed.qualifier);
+            } else {
+                scan.addColumn(mapper.family, mapper.qualifier);
+            }
+        }
+        if (fields.length == 0 && this.packed != null) {
+            scan.addColumn(this.packed.family, this.packed.qualifier);
+        }
+        for (WideColumn<T> wide : this.wideProjection(fields)) {
+            scan.addFamily(wide.getFamily());
+        }
+        return scan;
+    }
+
+    /**
+     * Builds a {@link Scan} of the single row that returns the cells of a wide field in chunks of at most
+     * {@code batchSize} cells, so that a row with many columns never has to be held at once.
+     *
+     * @param field name of a {@link HColumnMap} field
+     */
+    public Scan buildWideScan(final Object rowkey, final String field, final int batchSize) {
+        WideColumn<T> wide = this.requireWideColumn(field);
+        byte[] row = this.encodeRowkey(rowkey);
+        Scan scan = new Scan().withStartRow(row, true).withStopRow(row, true);
+        scan.addFamily(wide.getFamily());
+        if (wide.getPrefix().length > 0) {
+            scan.setFilter(new ColumnPrefixFilter(wide.getPrefix()));
+        }
+        scan.setBatch(batchSize);
+        return scan;
+    }
+
+    /**
+     * Builds a {@link Get} of the next {@code limit} cells of a wide field, in qualifier order. The server may return
+     * cells past the prefix, {@link #toWidePage} drops them.
+     *
+     * @param after the cursor of the previous page, {@code null} for the first page
+     */
+    public Get buildWidePage(final Object rowkey, final String field, final byte[] after, final int limit) {
+        WideColumn<T> wide = this.requireWideColumn(field);
+        byte[] offset = after == null ? wide.getPrefix() : Bytes.add(after, new byte[] {0});
+        Get get = new Get(this.encodeRowkey(rowkey));
+        get.addFamily(wide.getFamily());
+        get.setFilter(new ColumnPaginationFilter(limit, offset));
+        return get;
+    }
+
+    /**
+     * Decodes the newest version of the cells of a wide field in the result, in qualifier order.
+     */
+    public <K, V> List<Map.Entry<K, V>> wideEntries(final Result result, final String field) {
+        WideColumn<T> wide = this.requireWideColumn(field);
+        List<Map.Entry<K, V>> entries = new ArrayList<>();
+        if (result == null || result.isEmpty()) {
+            return entries;
+        }
+        Cell previous = null;
+        for (Cell cell : result.rawCells()) {
+            if (wide.matches(cell) && (previous == null || !Bytes.equals(previous.getQualifierArray(),
+                previous.getQualifierOffset(), previous.getQualifierLength(), cell.getQualifierArray(),
+                cell.getQualifierOffset(), cell.getQualifierLength()))) {
+                entries.add(this.entry(wide, cell));
+                previous = cell;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Turns the result of {@link #buildWidePage} into a page. The page has a cursor if the result was full and did
+     * not run past the prefix.
+     */
+    public <K, V> WidePage<K, V> toWidePage(final Result result, final String field, final int limit) {
+        WideColumn<T> wide = this.requireWideColumn(field);
+        List<Map.Entry<K, V>> entries = new ArrayList<>();
+        byte[] next = null;
+        if (result != null && !result.isEmpty()) {
+            Cell[] cells = result.rawCells();
+            boolean pastPrefix = false;
+            Cell last = null;
+            for (Cell cell : cells) {
+                if (wide.matches(cell)) {
+                    entries.add(this.entry(wide, cell));
+                    last = cell;
+                } else if (Bytes.compareTo(cell.getQualifierArray(), cell.getQualifierOffset(),
+                    cell.getQualifierLength(), wide.getPrefix(), 0, wide.getPrefix().length) > 0) {
+                    pastPrefix = true;
+                    break;
+                }
+            }
+            if (!pastPrefix && last != null && cells.length >= limit) {
+                next = Bytes.copy(last.getQualifierArray(), last.getQualifierOffset(), last.getQualifierLength());
+            }
+        }
+        return new WidePage<>(entries, next);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Map.Entry<K, V> entry(final WideColumn<T> wide, final Cell cell) {
+        return (Map.Entry<K, V>) wide.entry(cell);
+    }
+
+    private WideColumn<T> requireWideColumn(final String field) {
+        WideColumn<T> wide = this.wideColumnsByName.get(field);
+        if (wide == null) {
+            throw new NotFoundFieldException(this.type, field);
+        }
+        return wide;
+    }
+
+    private List<WideColumn<T>> wideProjection(final String... fields) {
+        if (fields.length == 0) {
+            return this.wideColumns;
+        }
+        List<WideColumn<T>> wides = new ArrayList<>();
+        for (String field : fields) {
+            WideColumn<T> wide = this.wideColumnsByName.get(field);
+            if (wide != null) {
+                wides.add(wide);
+            }
+        }
+        return wides;
+    }
+
+    /**
+     * Builds a {@link Scan} of the rows whose key lies between the given parts, lower bound inclusive and upper bound
+     * exclusive. A bound may give only the leading parts of a composite rowkey, {@code null} or none leaves the range
+     * open on that side. The range is tight only if the rowkey sorts like its values, which needs ordered encoding
+     * for numbers. The bounds of salted rows are left unsalted, {@link #buildBucketScans(Scan)} spreads them over the
+     * buckets.
+     *
+     * @param fields names of mapped fields, none for all of them
+     */
+    public Scan buildScanRange(final Object[] lowerKeyParts, final Object[] upperKeyParts, final String... fields) {
+        if (this.rowkey == null) {
+            throw new NotFoundRowkeyException(this.type);
+        }
+        Scan scan = this.buildScan(fields);
+        if (lowerKeyParts != null && lowerKeyParts.length > 0) {
+            scan.withStartRow(this.rowkey.encodeParts(lowerKeyParts), true);
+        }
+        if (upperKeyParts != null && upperKeyParts.length > 0) {
+            scan.withStopRow(this.rowkey.encodeParts(upperKeyParts), false);
+        }
+        return scan;
+    }
+
+    /**
+     * Spreads an unsalted scan over the salt buckets: one scan per bucket with the bucket prefixed to its bounds, or
+     * the scan itself if rows are not salted. Each scan returns rows in key order within its bucket.
+     */
+    public List<Scan> buildBucketScans(final Scan template) throws IOException {
+        if (this.rowkey == null || this.rowkey.salt == null) {
+            return Collections.singletonList(template);
+        }
+        if (template.isReversed()) {
+            throw new NotSupportException("not support reversed scan of salted rows of " + this.type.getName());
+        }
+        List<Scan> scans = new ArrayList<>(this.rowkey.salt.getBuckets());
+        for (int bucket = 0; bucket < this.rowkey.salt.getBuckets(); bucket++) {
+            Scan scan = new Scan(template);
+            scan.withStartRow(RowkeySalt.bound(bucket, template.getStartRow(), false), template.includeStartRow());
+            scan.withStopRow(RowkeySalt.bound(bucket, template.getStopRow(), true),
+                template.includeStopRow() && template.getStopRow().length > 0);
+            scans.add(scan);
+        }
+        return scans;
+    }
+
+    private byte[] encodeRowkey(final Object rowkey) {
+        if (this.rowkey == null) {
+            throw new NotFoundRowkeyException(this.type);
+        }
+        if (rowkey instanceof byte[]) {
+            return (byte[]) rowkey;
+        }
+        if (rowkey instanceof Object[]) {
+            return this.rowkey.encodeKey((Object[]) rowkey);
+        }
+        return this.rowkey.encodeKey(new Object[] {rowkey});
+    }
+
+    private List<Mapper<T>> projection(final String... fields) {
+        if (fields.length == 0) {
+            return this.columnMappers;
+        }
+        List<String> key = Arrays.asList(fields);
+        List<Mapper<T>> mappers = this.projections.get(key);
+        if (mappers == null) {
+            mappers = new ArrayList<>(fields.length);
+            for (String field : fields) {
+                Mapper<T> mapper = this.columnMappersByName.get(field);
+                if (mapper != null) {
+                    mappers.add(mapper);
+                } else if (!this.wideColumnsByName.containsKey(field)) {
+                    throw new NotFoundFieldException(this.type, field);
+                }
+            }
+            this.projections.putIfAbsent(new ArrayList<>(key), mappers);
+        }
+        return mappers;
+    }
+
+    /**
+     * Cells are sorted by column and newest version first, so only the first cell of a run for the same column is
+     * decoded, as {@link Result#getValue} would. Cells of wide fields are decoded beforehand and skipped here.
+     */
+    private void scanCells(final T target, final Result result) throws ReflectiveOperationException {
+        if (result == null || result.isEmpty()) {
+            return;
+        }
+        Mapper<T> previous = null;
+        boolean packedDone = false;
+        for (Cell cell : result.rawCells()) {
+            Mapper<T> mapper = this.columnIndex.get(cell);
+            if (mapper == null && this.packed != null && this.packed.matches(cell)) {
+                if (!packedDone) {
+                    this.packed.decode(target, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength(),
+                        null);
+                    packedDone = true;
+                }
+            } else if (mapper == null && !this.isWideCell(cell)) {
+                this.unmappedCellStats.record(cell);
+            } else if (mapper != null && mapper != previous) {
+                for (Mapper<T> same = mapper; same != null; same = same.sameColumn) {
+                    same.evalCellToTarget(target, cell);
+                }
+            }
+            previous = mapper;
+        }
+    }
+
+    private boolean isWideCell(final Cell cell) {
+        for (WideColumn<T> wide : this.wideColumns) {
+            if (wide.matches(cell)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mapped columns, the packed cell counting as one, that the result does not hold. Wide fields are not counted.
+     */
+    public int countMissingColumns(final Result result) {
+        int columns = this.mappedColumnCount();
+        if (result == null || result.isEmpty()) {
+            return columns;
+        }
+        int present = 0;
+        Mapper<T> previous = null;
+        for (Cell cell : result.rawCells()) {
+            Mapper<T> mapper = this.columnIndex.get(cell);
+            if (mapper != previous) {
+                for (Mapper<T> same = mapper; same != null; same = same.sameColumn) {
+                    present++;
+                }
+            }
+            previous = mapper;
+        }
+        if (this.packed != null && result.containsColumn(this.packed.family, this.packed.qualifier)) {
+            present++;
+        }
+        return columns - present;
+    }
+
+    /**
+     * Cells a bean without {@code null} fields is written to, the packed cell counting as one and wide fields as
+     * none.
+     */
+    public int mappedColumnCount() {
+        return this.columnMappers.size() + (this.packed == null ? 0 : 1);
+    }
+
+    /**
+     * Mapped columns {@link #buildPut} leaves out of the put of the bean because their field is {@code null}. The
+     * packed cell is always written and wide fields are not counted.
+     */
+    public int countNullColumns(final T source) throws ReflectiveOperationException {
+        int nulls = 0;
+        for (Mapper<T> mapper : this.columnMappers) {
+            if (!mapper.type.isPrimitive() && mapper.accessor.get(source) == null) {
+                nulls++;
+            }
+        }
+        return nulls;
+    }
+
+    @Override
+    public void resolveConverters() {
+        if (this.rowkey != null) {
+            this.rowkey.resolveConverters();
+        }
+        for (Mapper<T> mapper : this.columnMappersByName.values()) {
+            mapper.resolveConverter();
+        }
+    }
+
+    private void buildMappers() throws InstantiationException, HbaseAnnotationException {
         List<Mapper<T>> cms = new LinkedList<>();
-        Mapper<T> rm = null;
+        List<Mapper<T>> rms = new ArrayList<>();
+        List<WideColumn<T>> wides = new ArrayList<>();
         Field[] fields = this.type.getDeclaredFields();
         boolean allField = this.type.getAnnotation(HRow.class).allField();
         for (Field field : fields) {
             if (!this.canMapper(field, allField)) {
                 continue;
             }
-            Mapper<T> mapper = new Mapper<>(this.type, field, this.conversionService);
+            Mapper<T> mapper = new Mapper<>(this.type, field, this.conversionService, this.accessorFactory);
+            if (field.getAnnotation(HColumnMap.class) != null) {
+                wides.add(new WideColumn<>(this.type, field, mapper.accessor, this.conversionService));
+                continue;
+            }
             if (mapper.isRowkey()) {
-                rm = mapper;
+                rms.add(mapper);
             }
             if (mapper.isColumn()) {
                 cms.add(mapper);
             }
         }
-        this.rowkeyMapper = rm;
+        HRow hRow = this.type.getAnnotation(HRow.class);
+        RowkeySalt salt = hRow.saltBuckets() > 0 ? new RowkeySalt(hRow.saltBuckets(), hRow.saltStrategy()) : null;
+        this.rowkey = rms.isEmpty() ? null : new Rowkey<>(this.type, rms, salt);
+        this.columnMappersByName = new HashMap<>();
+        for (Mapper<T> mapper : cms) {
+            this.columnMappersByName.put(mapper.name, mapper);
+        }
+        if (hRow.storage() == RowStorage.PACKED) {
+            List<Mapper<T>> packedMappers = new ArrayList<>();
+            for (Iterator<Mapper<T>> it = cms.iterator(); it.hasNext();) {
+                Mapper<T> mapper = it.next();
+                if (!mapper.hot && !mapper.isRowkey) {
+                    mapper.packed = true;
+                    packedMappers.add(mapper);
+                    it.remove();
+                }
+            }
+            this.packed = new Packed<>(this.type, hRow, packedMappers);
+        }
         this.columnMappers = cms;
+        int ordinal = 0;
+        for (Mapper<T> mapper : cms) {
+            mapper.ordinal = ordinal++;
+        }
+        this.columnIndex = new ColumnIndex<>(cms.size());
+        for (Mapper<T> mapper : cms) {
+            Mapper<T> same = this.columnIndex.putIfAbsent(mapper.family, mapper.qualifier, mapper);
+            if (same != null) {
+                while (same.sameColumn != null) {
+                    same = same.sameColumn;
+                }
+                same.sameColumn = mapper;
+            }
+        }
+        this.wideColumns = wides;
+        this.wideColumnsByName = new LinkedHashMap<>();
+        for (WideColumn<T> wide : wides) {
+            this.checkWideOverlap(wide);
+            this.wideColumnsByName.put(wide.getName(), wide);
+        }
+    }
+
+    /**
+     * A wide field must not claim the columns of another field, or a write of one would be read back by the other.
+     */
+    private void checkWideOverlap(final WideColumn<T> wide) throws HbaseAnnotationException {
+        for (Mapper<T> mapper : this.columnMappers) {
+            if (Bytes.equals(wide.getFamily(), mapper.family) && Bytes.startsWith(mapper.qualifier, wide.getPrefix())) {
+                throw new HbaseAnnotationException(String.format(WIDE_OVERLAP_FORMAT, this.type.getName(),
+                    wide.getName(), mapper.name));
+            }
+        }
+        if (this.packed != null && Bytes.equals(wide.getFamily(), this.packed.family)
+            && Bytes.startsWith(this.packed.qualifier, wide.getPrefix())) {
+            throw new HbaseAnnotationException(String.format(WIDE_OVERLAP_FORMAT, this.type.getName(),
+                wide.getName(), "the packed cell"));
+        }
+        for (WideColumn<T> other : this.wideColumnsByName.values()) {
+            if (Bytes.equals(wide.getFamily(), other.getFamily()) && (Bytes.startsWith(wide.getPrefix(),
+                other.getPrefix()) || Bytes.startsWith(other.getPrefix(), wide.getPrefix()))) {
+                throw new HbaseAnnotationException(String.format(WIDE_OVERLAP_FORMAT, this.type.getName(),
+                    wide.getName(), other.getName()));
+            }
+        }
     }
 
     private boolean canMapper(final Field field, final boolean isAllField) {
+        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+            return false;
+        }
         if (field.getAnnotation(HIgnore.class) != null) {
             return false;
         }
         if (field.getAnnotation(HRowkey.class) != null) {
             return true;
         }
-        if (field.getAnnotation(HColumn.class) != null) {
+        if (field.getAnnotation(HColumn.class) != null || field.getAnnotation(HColumnMap.class) != null) {
             return true;
         }
         return isAllField;
@@ -101,31 +810,71 @@ public class HRowHandler<T> {
 
         private ConversionService conversionService;
 
+        private String name;
+
         private boolean isRowkey;
 
         private boolean isColumn;
 
+        private int rowkeyOrder;
+
+        private boolean orderedRowkey;
+
+        private Order rowkeyDirection;
+
         private Class<?> type;
 
-        private Method getMethod;
+        private PropertyAccessor<T> accessor;
+
+        private volatile Binding binding;
+
+        private ValueCodec codec;
+
+        private int columnId;
+
+        private boolean hot;
 
-        private Method setMethod;
+        private boolean packed;
+
+        /**
+         * Position in {@code columnMappers}, so that a {@link ColumnarBatch} finds the column of a field by index.
+         */
+        private int ordinal;
 
         private byte[] family;
 
         private byte[] qualifier;
 
-        private Mapper(final Class<T> clazz, final Field field, final ConversionService conversionService) throws InstantiationException {
+        /**
+         * Next field mapped to the same column, the index only holds the first one and each decodes the same cell.
+         */
+        private Mapper<T> sameColumn;
+
+        private Mapper(final Class<T> clazz, final Field field, final ConversionService conversionService,
+                       final AccessorFactory accessorFactory) throws InstantiationException {
             try {
                 this.conversionService = conversionService;
+                this.name = field.getName();
                 this.type = field.getType();
-                this.getMethod = this.buildGetMethod(clazz, field);
-                this.setMethod = this.buildSetMethod(clazz, field);
-                this.isRowkey = field.getAnnotation(HRowkey.class) != null;
-                this.isColumn = !this.isRowkey || field.getAnnotation(HColumn.class) != null;
+                this.accessor = accessorFactory.accessor(clazz, this.buildGetMethod(clazz, field),
+                    this.buildSetMethod(clazz, field));
+                HRowkey hRowkey = field.getAnnotation(HRowkey.class);
+                this.isRowkey = hRowkey != null;
+                if (this.isRowkey) {
+                    this.rowkeyOrder = hRowkey.order();
+                    this.orderedRowkey = hRowkey.encoding() == RowkeyEncoding.ORDERED;
+                    this.rowkeyDirection = hRowkey.descending() ? Order.DESCENDING : Order.ASCENDING;
+                }
+                this.isColumn = (!this.isRowkey || field.getAnnotation(HColumn.class) != null)
+                    && field.getAnnotation(HColumnMap.class) == null;
                 if (isColumn) {
                     this.family = this.getFamily(clazz, field);
                     this.qualifier = this.getQualifier(field);
+                    this.codec = this.getCodec(clazz, field);
+                    HColumn hColumn = field.getAnnotation(HColumn.class);
+                    this.columnId = hColumn == null || hColumn.id() == 0
+                        ? Bytes.hashCode(this.qualifier) & Packed.DERIVED_ID_MASK : hColumn.id();
+                    this.hot = hColumn != null && hColumn.hot();
                 }
             } catch (final Exception ex) {
                 log.error(ex.getMessage(), ex);
@@ -134,33 +883,213 @@ public class HRowHandler<T> {
         }
 
         private void addColumnToPut(final Put put, final T source) throws ReflectiveOperationException {
-            Object value = this.getMethod.invoke(source);
-            if (value != null && this.isColumn) {
-                put.addColumn(this.family, this.qualifier, this.convert(value));
+            if (this.isColumn) {
+                byte[] value = this.encode(source);
+                if (value != null) {
+                    put.addColumn(this.family, this.qualifier, value);
+                }
+            }
+        }
+
+        /**
+         * Writes the value straight into the arena, starting the cell over in a larger buffer if it does not fit.
+         */
+        private void addColumnToPut(final Put put, final T source, final PutArena arena, final byte[] row)
+            throws ReflectiveOperationException {
+            if (!this.isColumn) {
+                return;
+            }
+            if (this.codec != null && !this.isRowkey) {
+                byte[] value = this.encode(source);
+                if (value != null) {
+                    arena.add(put, row, this.family, this.qualifier, value);
+                }
+                return;
+            }
+            Binding binding = this.binding();
+            Object value = binding.kind == Kind.OBJECT ? this.accessor.get(source) : null;
+            if (binding.kind == Kind.OBJECT && value == null) {
+                return;
+            }
+            while (true) {
+                int start = arena.start(row, this.family, this.qualifier);
+                try {
+                    this.writeValue(source, value, binding, arena.buffer());
+                } catch (final BufferOverflowException ex) {
+                    arena.grow(start, 0);
+                    continue;
+                } catch (final ConversionException | NotFoundConverterException ex) {
+                    throw ex;
+                } catch (final RuntimeException ex) {
+                    throw this.conversionFailure("encode", ex);
+                }
+                arena.finish(put, this.family, start);
+                return;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeValue(final T source, final Object value, final Binding binding, final ByteBuffer target)
+            throws ReflectiveOperationException {
+            switch (binding.kind) {
+                case INT:
+                    ((IntConverter) binding.converter).convertInt(
+                        ((IntPropertyAccessor<T>) this.accessor).getInt(source), target);
+                    return;
+                case LONG:
+                    ((LongConverter) binding.converter).convertLong(
+                        ((LongPropertyAccessor<T>) this.accessor).getLong(source), target);
+                    return;
+                case DOUBLE:
+                    ((DoubleConverter) binding.converter).convertDouble(
+                        ((DoublePropertyAccessor<T>) this.accessor).getDouble(source), target);
+                    return;
+                case BOOLEAN:
+                    ((BooleanConverter) binding.converter).convertBoolean(
+                        ((BooleanPropertyAccessor<T>) this.accessor).getBoolean(source), target);
+                    return;
+                default:
+                    this.conversionService.convert(value, target);
             }
         }
 
+        private void addChange(final RowChanges changes, final T source, final Result original)
+            throws ReflectiveOperationException {
+            byte[] value = this.encode(source);
+            Cell cell = original == null ? null : original.getColumnLatestCell(this.family, this.qualifier);
+            if (value == null) {
+                if (cell != null) {
+                    changes.deleteColumn(this.family, this.qualifier);
+                }
+            } else if (cell != null && Bytes.equals(value, 0, value.length, cell.getValueArray(),
+                cell.getValueOffset(), cell.getValueLength())) {
+                changes.skip(value.length);
+            } else {
+                changes.addColumn(this.family, this.qualifier, value);
+            }
+        }
+
+        /**
+         * Rowkey fields are decoded by {@link Rowkey}, which knows about composite and salted keys.
+         */
         private void evalToTarget(final T target, final Result result) throws ReflectiveOperationException {
             if (result != null) {
-                byte[] value;
                 if (this.isRowkey) {
-                    value = result.getRow();
-                } else {
-                    value = result.getValue(this.family, this.qualifier);
+                    return;
                 }
-                if (value != null) {
-                    this.setMethod.invoke(target, from(value));
+                Cell cell = result.getColumnLatestCell(this.family, this.qualifier);
+                if (cell != null) {
+                    this.evalCellToTarget(target, cell);
                 }
             }
         }
 
+        private void evalCellToTarget(final T target, final Cell cell) throws ReflectiveOperationException {
+            this.setValue(target, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+        }
+
+        /**
+         * Leaves the column unset, so {@code null}, if the value decodes to {@code null}.
+         */
+        private void decodeInto(final ColumnarBatch batch, final int column, final int row, final Cell cell) {
+            byte[] bytes = cell.getValueArray();
+            int offset = cell.getValueOffset();
+            int length = cell.getValueLength();
+            Converter<?> converter = this.codec == null ? this.binding().converter : null;
+            switch (batch.type(column)) {
+                case LONG:
+                    if (converter instanceof LongConverter) {
+                        batch.setLong(column, row, ((LongConverter) converter).fromLong(bytes, offset, length));
+                        return;
+                    }
+                    break;
+                case INT:
+                    if (converter instanceof IntConverter) {
+                        batch.setInt(column, row, ((IntConverter) converter).fromInt(bytes, offset, length));
+                        return;
+                    }
+                    break;
+                case DOUBLE:
+                    if (converter instanceof DoubleConverter) {
+                        batch.setDouble(column, row, ((DoubleConverter) converter).fromDouble(bytes, offset, length));
+                        return;
+                    }
+                    break;
+                case BOOLEAN:
+                    if (converter instanceof BooleanConverter) {
+                        batch.setBoolean(column, row,
+                            ((BooleanConverter) converter).fromBoolean(bytes, offset, length));
+                        return;
+                    }
+                    break;
+                default:
+                    int code = batch.findCode(column, bytes, offset, length);
+                    if (code < 0) {
+                        Object value = this.decode(bytes, offset, length);
+                        if (value == null) {
+                            return;
+                        }
+                        code = batch.addCode(column, bytes, offset, length, (String) value);
+                    }
+                    batch.setCode(column, row, code);
+                    return;
+            }
+            Object value = this.decode(bytes, offset, length);
+            if (value == null) {
+                return;
+            }
+            switch (batch.type(column)) {
+                case LONG:
+                    batch.setLong(column, row, ((Number) value).longValue());
+                    break;
+                case INT:
+                    batch.setInt(column, row, ((Number) value).intValue());
+                    break;
+                case DOUBLE:
+                    batch.setDouble(column, row, ((Number) value).doubleValue());
+                    break;
+                default:
+                    batch.setBoolean(column, row, (Boolean) value);
+            }
+        }
+
+        private Object decode(final byte[] bytes, final int offset, final int length) {
+            if (this.codec != null) {
+                return this.codec.decode(bytes, offset, length);
+            }
+            Binding binding = this.binding();
+            return binding.converter == null ? this.conversionService.from(bytes, offset, length, this.type)
+                : binding.converter.from(bytes, offset, length);
+        }
+
         private byte[] getRowkey(final T source) throws ReflectiveOperationException {
             if (this.isRowkey) {
-                return convert(this.getMethod.invoke(source));
+                return this.encode(source);
             }
             return null;
         }
 
+        /**
+         * Encodes a rowkey given to a lookup the way {@link #encode} encodes the field: a number is coerced to the
+         * field type, as {@link OrderedKeyCodec} does, so {@code 42} finds the row of a {@code long} key.
+         */
+        @SuppressWarnings("unchecked")
+        private byte[] encodeKeyPart(final Object value) {
+            Object coerced = OrderedKeyCodec.coerceNumber(value, this.type);
+            if (!MethodType.methodType(this.type).wrap().returnType().isInstance(coerced)) {
+                throw new IllegalArgumentException("rowkey field '" + this.name + "' is a " + this.type.getName()
+                    + ", got " + (value == null ? "null" : value.getClass().getName()));
+            }
+            Converter converter = this.binding().converter;
+            return converter == null ? this.conversionService.convert(coerced) : converter.convert(coerced);
+        }
+
+        private void resolveConverter() {
+            if (this.binding().converter == null) {
+                throw new NotFoundConverterException(this.type);
+            }
+        }
+
         private boolean isRowkey() {
             return this.isRowkey;
         }
@@ -169,18 +1098,115 @@ public class HRowHandler<T> {
             return this.isColumn;
         }
 
-        private byte[] convert(final Object value) {
-            if (value == null) {
-                return null;
+        private byte[] encode(final T source) throws ReflectiveOperationException {
+            try {
+                return this.encodeValue(source);
+            } catch (final ConversionException | NotFoundConverterException ex) {
+                throw ex;
+            } catch (final RuntimeException ex) {
+                throw this.conversionFailure("encode", ex);
             }
-            return this.conversionService.convert(value);
         }
 
-        private Object from(final byte[] value) {
-            if (value == null) {
-                return null;
+        private void setValue(final T target, final byte[] bytes, final int offset, final int length)
+            throws ReflectiveOperationException {
+            try {
+                this.setDecodedValue(target, bytes, offset, length);
+            } catch (final ConversionException | NotFoundConverterException ex) {
+                throw ex;
+            } catch (final RuntimeException ex) {
+                throw this.conversionFailure("decode", ex);
+            }
+        }
+
+        private ConversionException conversionFailure(final String operation, final RuntimeException cause) {
+            Object converter = this.codec != null ? this.codec : this.binding().converter;
+            String converterName = converter == null ? this.type.getName() : converter.getClass().getName();
+            return new ConversionException(converterName, operation + " field '" + this.name + "' failed: "
+                + cause.getMessage(), cause);
+        }
+
+        /**
+         * Primitive properties are read and encoded without boxing. Other values are encoded with the converter of
+         * their runtime class, as before converters were bound to fields.
+         */
+        @SuppressWarnings("unchecked")
+        private byte[] encodeValue(final T source) throws ReflectiveOperationException {
+            if (this.codec != null && this.isColumn && !this.isRowkey) {
+                Object value = this.accessor.get(source);
+                return value == null ? null : this.codec.encode(value);
+            }
+            Binding binding = this.binding();
+            switch (binding.kind) {
+                case INT:
+                    return ((IntConverter) binding.converter).convertInt(
+                        ((IntPropertyAccessor<T>) this.accessor).getInt(source));
+                case LONG:
+                    return ((LongConverter) binding.converter).convertLong(
+                        ((LongPropertyAccessor<T>) this.accessor).getLong(source));
+                case DOUBLE:
+                    return ((DoubleConverter) binding.converter).convertDouble(
+                        ((DoublePropertyAccessor<T>) this.accessor).getDouble(source));
+                case BOOLEAN:
+                    return ((BooleanConverter) binding.converter).convertBoolean(
+                        ((BooleanPropertyAccessor<T>) this.accessor).getBoolean(source));
+                default:
+                    Object value = this.accessor.get(source);
+                    return value == null ? null : this.conversionService.convert(value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void setDecodedValue(final T target, final byte[] bytes, final int offset, final int length)
+            throws ReflectiveOperationException {
+            if (this.codec != null && this.isColumn && !this.isRowkey) {
+                Object value = this.codec.decode(bytes, offset, length);
+                if (value != null) {
+                    this.accessor.set(target, value);
+                }
+                return;
+            }
+            Binding binding = this.binding();
+            switch (binding.kind) {
+                case INT:
+                    ((IntPropertyAccessor<T>) this.accessor).setInt(target,
+                        ((IntConverter) binding.converter).fromInt(bytes, offset, length));
+                    return;
+                case LONG:
+                    ((LongPropertyAccessor<T>) this.accessor).setLong(target,
+                        ((LongConverter) binding.converter).fromLong(bytes, offset, length));
+                    return;
+                case DOUBLE:
+                    ((DoublePropertyAccessor<T>) this.accessor).setDouble(target,
+                        ((DoubleConverter) binding.converter).fromDouble(bytes, offset, length));
+                    return;
+                case BOOLEAN:
+                    ((BooleanPropertyAccessor<T>) this.accessor).setBoolean(target,
+                        ((BooleanConverter) binding.converter).fromBoolean(bytes, offset, length));
+                    return;
+                default:
+                    if (binding.converter == null) {
+                        this.accessor.set(target, this.conversionService.from(bytes, offset, length, this.type));
+                    } else {
+                        this.accessor.set(target, binding.converter.from(bytes, offset, length));
+                    }
+            }
+        }
+
+        /**
+         * Resolved on first use rather than at construction, so a handler can be built for a bean whose field
+         * converters are registered later, as long as it happens before the first conversion. Fields whose declared
+         * type has no converter stay unbound and are converted by runtime class on every call.
+         */
+        private Binding binding() {
+            Binding binding = this.binding;
+            if (binding == null) {
+                Converter<?> converter = this.conversionService.canConvert(this.type)
+                    ? this.conversionService.getConverter(this.type) : null;
+                binding = new Binding(converter, this.accessor);
+                this.binding = binding;
             }
-            return this.conversionService.from(value, this.type);
+            return binding;
         }
 
         private byte[] getFamily(final Class<T> clazz, final Field field) throws HbaseAnnotationException {
@@ -201,6 +1227,22 @@ public class HRowHandler<T> {
             return Bytes.toBytes(family);
         }
 
+        /**
+         * The codec of the field, or the default codec of the class if the field type supports it.
+         */
+        private ValueCodec getCodec(final Class<T> clazz, final Field field) {
+            HColumn hColumn = field.getAnnotation(HColumn.class);
+            ColumnCodec codec = hColumn == null ? ColumnCodec.DEFAULT : hColumn.codec();
+            if (codec == ColumnCodec.DEFAULT) {
+                codec = clazz.getAnnotation(HRow.class).defaultCodec();
+                if (!ValueCodecs.supports(codec, this.type)) {
+                    return null;
+                }
+            }
+            String[] dictionary = hColumn == null ? new String[0] : hColumn.dictionary();
+            return ValueCodecs.create(codec, this.type, dictionary, this.conversionService);
+        }
+
         private byte[] getQualifier(final Field field) {
             String qualifier = field.getName();
             HColumn hColumn = field.getAnnotation(HColumn.class);
@@ -242,4 +1284,289 @@ public class HRowHandler<T> {
 
     }
 
+    /**
+     * The {@code @HRowkey} fields of the bean. A single plain part is encoded by its converter, the parts of an
+     * ordered or composite rowkey by {@link OrderedKeyCodec}.
+     */
+    private static final class Rowkey<T> {
+
+        private final List<Mapper<T>> parts;
+
+        private final boolean ordered;
+
+        private final Class<?>[] types;
+
+        private final Order[] orders;
+
+        private final RowkeySalt salt;
+
+        private final int saltLength;
+
+        private Rowkey(final Class<T> clazz, final List<Mapper<T>> parts, final RowkeySalt salt)
+            throws HbaseAnnotationException {
+            this.salt = salt;
+            this.saltLength = salt == null ? 0 : 1;
+            parts.sort(Comparator.comparingInt(part -> part.rowkeyOrder));
+            this.parts = parts;
+            this.ordered = parts.size() > 1 || parts.get(0).orderedRowkey;
+            this.types = new Class<?>[parts.size()];
+            this.orders = new Order[parts.size()];
+            for (int i = 0; i < parts.size(); i++) {
+                Mapper<T> part = parts.get(i);
+                if (i > 0 && part.rowkeyOrder == parts.get(i - 1).rowkeyOrder) {
+                    throw new HbaseAnnotationException(String.format(DUPLICATE_ORDER_FORMAT, clazz.getName(),
+                        parts.get(i - 1).name, part.name));
+                }
+                if (this.ordered && !OrderedKeyCodec.supports(part.type)) {
+                    throw new NotSupportException(
+                        "not support ordered rowkey encoding of " + clazz.getName() + "." + part.name);
+                }
+                this.types[i] = part.type;
+                this.orders[i] = part.rowkeyDirection;
+            }
+        }
+
+        private byte[] encode(final T source) throws ReflectiveOperationException {
+            if (!this.ordered) {
+                return this.salt(this.parts.get(0).getRowkey(source));
+            }
+            Object[] values = new Object[this.parts.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = this.parts.get(i).accessor.get(source);
+            }
+            return this.salt(OrderedKeyCodec.encode(values, this.types, this.orders));
+        }
+
+        private byte[] encodeKey(final Object[] values) {
+            return this.salt(this.encodeParts(values));
+        }
+
+        private byte[] salt(final byte[] key) {
+            return this.salt == null ? key : this.salt.salt(key);
+        }
+
+        /**
+         * Encodes the leading parts of the rowkey, without salt.
+         */
+        private byte[] encodeParts(final Object[] values) {
+            if (!this.ordered) {
+                if (values.length != 1) {
+                    throw new IllegalArgumentException("rowkey has 1 part, got " + values.length);
+                }
+                return this.parts.get(0).encodeKeyPart(values[0]);
+            }
+            return OrderedKeyCodec.encode(values, this.types, this.orders);
+        }
+
+        private void decode(final T target, final Result result) throws ReflectiveOperationException {
+            byte[] row = result == null ? null : result.getRow();
+            if (row == null || row.length < this.saltLength) {
+                return;
+            }
+            if (!this.ordered) {
+                this.parts.get(0).setValue(target, row, this.saltLength, row.length - this.saltLength);
+                return;
+            }
+            PositionedByteRange range = new SimplePositionedByteRange(row, this.saltLength,
+                row.length - this.saltLength);
+            for (int i = 0; i < this.types.length && range.getRemaining() > 0; i++) {
+                Object value = OrderedKeyCodec.decode(range, this.types[i], this.orders[i]);
+                if (value != null) {
+                    this.parts.get(i).accessor.set(target, value);
+                }
+            }
+        }
+
+        private void resolveConverters() {
+            if (!this.ordered) {
+                this.parts.get(0).resolveConverter();
+            }
+        }
+
+    }
+
+    /**
+     * The fields of a {@link RowStorage#PACKED} row, stored together in one cell. Layout: format version, varint
+     * schema version, varint field count n, the n varint field ids, a bitmap of n bits marking the {@code null}
+     * fields, the varint length of every other field, then their values. Ids unknown to the reader are skipped and
+     * fields missing from the cell keep their default value, so fields can be added and removed without rewriting
+     * old rows.
+     */
+    private static final class Packed<T> {
+
+        private static final int DERIVED_ID_MASK = 0x7FFF;
+
+        private static final byte FORMAT_VERSION = 1;
+
+        private final byte[] family;
+
+        private final byte[] qualifier;
+
+        private final int schemaVersion;
+
+        private final List<Mapper<T>> mappers;
+
+        private final Map<Integer, Mapper<T>> mappersById = new HashMap<>();
+
+        private Packed(final Class<T> clazz, final HRow hRow, final List<Mapper<T>> mappers)
+            throws HbaseAnnotationException {
+            if (isBlankFamily(hRow.defaultFamily())) {
+                throw new HbaseAnnotationException("Packed row " + clazz.getName() + " must specify 'defaultFamily'");
+            }
+            this.family = Bytes.toBytes(hRow.defaultFamily());
+            this.qualifier = Bytes.toBytes(hRow.packedQualifier());
+            this.schemaVersion = hRow.schemaVersion();
+            this.mappers = mappers;
+            for (Mapper<T> mapper : mappers) {
+                Mapper<T> other = this.mappersById.put(mapper.columnId, mapper);
+                if (other != null) {
+                    throw new HbaseAnnotationException(String.format(DUPLICATE_ID_FORMAT, clazz.getName(),
+                        other.name, mapper.name, mapper.columnId));
+                }
+            }
+        }
+
+        private boolean matches(final Cell cell) {
+            return Bytes.equals(this.qualifier, 0, this.qualifier.length, cell.getQualifierArray(),
+                cell.getQualifierOffset(), cell.getQualifierLength())
+                && Bytes.equals(this.family, 0, this.family.length, cell.getFamilyArray(), cell.getFamilyOffset(),
+                cell.getFamilyLength());
+        }
+
+        private byte[] encode(final T source) throws ReflectiveOperationException {
+            int count = this.mappers.size();
+            byte[][] values = new byte[count][];
+            int length = 1 + AbstractByteRange.getVLongSize(this.schemaVersion)
+                + AbstractByteRange.getVLongSize(count) + (count + 7) / 8;
+            for (int i = 0; i < count; i++) {
+                Mapper<T> mapper = this.mappers.get(i);
+                values[i] = mapper.encode(source);
+                length += AbstractByteRange.getVLongSize(mapper.columnId);
+                if (values[i] != null) {
+                    length += AbstractByteRange.getVLongSize(values[i].length) + values[i].length;
+                }
+            }
+            PositionedByteRange range = new SimplePositionedMutableByteRange(length);
+            range.put(FORMAT_VERSION);
+            range.putVLong(this.schemaVersion);
+            range.putVLong(count);
+            for (Mapper<T> mapper : this.mappers) {
+                range.putVLong(mapper.columnId);
+            }
+            for (int i = 0; i < count; i += 8) {
+                int bits = 0;
+                for (int j = i; j < Math.min(count, i + 8); j++) {
+                    if (values[j] == null) {
+                        bits |= 1 << (j - i);
+                    }
+                }
+                range.put((byte) bits);
+            }
+            for (byte[] value : values) {
+                if (value != null) {
+                    range.putVLong(value.length);
+                }
+            }
+            for (byte[] value : values) {
+                if (value != null) {
+                    range.put(value);
+                }
+            }
+            return range.getBytes();
+        }
+
+        /**
+         * @param only the fields to decode, {@code null} for all of them
+         */
+        private void evalToTarget(final T target, final Result result, final List<Mapper<T>> only)
+            throws ReflectiveOperationException {
+            Cell cell = result == null ? null : result.getColumnLatestCell(this.family, this.qualifier);
+            if (cell != null) {
+                this.decode(target, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength(), only);
+            }
+        }
+
+        private void decode(final T target, final byte[] bytes, final int offset, final int length,
+                            final List<Mapper<T>> only) throws ReflectiveOperationException {
+            PositionedByteRange range = new SimplePositionedByteRange(bytes, offset, length);
+            byte version = range.get();
+            if (version != FORMAT_VERSION) {
+                throw new NotSupportException("not support packed row format " + version);
+            }
+            range.getVLong();
+            int count = (int) range.getVLong();
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = (int) range.getVLong();
+            }
+            byte[] nulls = new byte[(count + 7) / 8];
+            range.get(nulls);
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                if ((nulls[i >>> 3] & (1 << (i & 7))) == 0) {
+                    lengths[i] = (int) range.getVLong();
+                }
+            }
+            int position = offset + range.getPosition();
+            for (int i = 0; i < count; i++) {
+                boolean isNull = (nulls[i >>> 3] & (1 << (i & 7))) != 0;
+                Mapper<T> mapper = this.mappersById.get(ids[i]);
+                if (mapper != null && (only == null || only.contains(mapper))) {
+                    if (!isNull) {
+                        mapper.setValue(target, bytes, position, lengths[i]);
+                    } else if (!mapper.type.isPrimitive()) {
+                        mapper.accessor.set(target, null);
+                    }
+                }
+                position += lengths[i];
+            }
+        }
+
+        private void addChange(final RowChanges changes, final T source, final Result original)
+            throws ReflectiveOperationException {
+            byte[] value = this.encode(source);
+            Cell cell = original == null ? null : original.getColumnLatestCell(this.family, this.qualifier);
+            if (cell != null && Bytes.equals(value, 0, value.length, cell.getValueArray(), cell.getValueOffset(),
+                cell.getValueLength())) {
+                changes.skip(value.length);
+            } else {
+                changes.addColumn(this.family, this.qualifier, value);
+            }
+        }
+
+        private static boolean isBlankFamily(final String family) {
+            return family == null || family.length() == 0;
+        }
+
+    }
+
+    private enum Kind {
+
+        OBJECT, INT, LONG, DOUBLE, BOOLEAN
+
+    }
+
+    private static final class Binding {
+
+        private final Converter converter;
+
+        private final Kind kind;
+
+        private Binding(final Converter<?> converter, final PropertyAccessor<?> accessor) {
+            this.converter = converter;
+            if (converter instanceof IntConverter && accessor instanceof IntPropertyAccessor) {
+                this.kind = Kind.INT;
+            } else if (converter instanceof LongConverter && accessor instanceof LongPropertyAccessor) {
+                this.kind = Kind.LONG;
+            } else if (converter instanceof DoubleConverter && accessor instanceof DoublePropertyAccessor) {
+                this.kind = Kind.DOUBLE;
+            } else if (converter instanceof BooleanConverter && accessor instanceof BooleanPropertyAccessor) {
+                this.kind = Kind.BOOLEAN;
+            } else {
+                this.kind = Kind.OBJECT;
+            }
+        }
+
+    }
+
 }
@@ -1,13 +1,164 @@
 package com.uso.hbase.handler;
 
 import com.uso.hbase.handler.exception.HProcessException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
 
 public interface HandlerFactory {
 
     <T> T convert(Result result, Class<T> clazz) throws HProcessException;
 
+    /**
+     * Converts the rowkey now and every other field on the first call of its getter. The returned bean keeps the
+     * {@link Result} and is not thread-safe until all its fields have been read.
+     *
+     * <p>This is not a general decode mode: laziness comes from the bean subclass that {@code hbase-bean-processor}
+     * generates, so only classes served by a generated mapper are decoded lazily. Every other class is converted
+     * eagerly, as by {@link #convert}: classes compiled without the processor, final classes or classes with final
+     * methods, salted, packed, wide or composite-key beans and beans with column codecs, which only the runtime
+     * handler maps, and all classes once generated mappers are disabled. A lazily decoded bean implements
+     * {@link LazyRow}.
+     */
+    <T> T convertLazy(Result result, Class<T> clazz) throws HProcessException;
+
     Put buildPut(Object source) throws HProcessException;
 
+    /**
+     * Builds the put with its cells serialized into the arena instead of arrays of their own. The put is only valid
+     * until the arena is reset, see {@link PutArena}.
+     */
+    Put buildPut(Object source, PutArena arena) throws HProcessException;
+
+    /**
+     * Converts the result and keeps it as the snapshot of the bean for {@link #buildChanges(TrackedRow)}. Give the
+     * fields of a projected {@link Get}, so that the columns it did not fetch are left alone.
+     *
+     * @param fields names of the fields to decode, none for all of them
+     */
+    <T> TrackedRow<T> convertTracked(Result result, Class<T> clazz, String... fields) throws HProcessException;
+
+    /**
+     * Builds the mutations of the columns that differ from the snapshot of a tracked bean, with a delete for the
+     * columns set to {@code null}, and reports the bytes left out.
+     */
+    RowChanges buildChanges(TrackedRow<?> tracked) throws HProcessException;
+
+    /**
+     * Decodes the rowkey and only the given fields of the bean.
+     */
+    <T> T convert(Result result, Class<T> clazz, String... fields) throws HProcessException;
+
+    /**
+     * Builds a {@link Get} requesting only the columns mapped by the given fields, all mapped columns if none.
+     */
+    Get buildGet(Object rowkey, Class<?> clazz, String... fields) throws HProcessException;
+
+    /**
+     * Builds a {@link Scan} requesting only the columns mapped by the given fields, all mapped columns if none.
+     */
+    Scan buildScan(Class<?> clazz, String... fields) throws HProcessException;
+
+    /**
+     * Builds a {@link Scan} of the rows whose key lies between the given rowkey parts, lower bound inclusive and
+     * upper bound exclusive. Either bound may give only the leading parts of a composite rowkey, or be {@code null}.
+     */
+    Scan scanRange(Class<?> clazz, Object[] lowerKeyParts, Object[] upperKeyParts, String... fields)
+        throws HProcessException;
+
+    <T> List<T> convertAll(Result[] results, Class<T> clazz) throws HProcessException;
+
+    <T> List<T> convertAll(List<Result> results, Class<T> clazz) throws HProcessException;
+
+    List<Put> buildPuts(Collection<?> sources) throws HProcessException;
+
+    /**
+     * Tells the write listeners that the mutation of the row built from the bean has been applied or has failed, see
+     * {@link RowWriteListener#onWritten}. Callers that send the mutations of {@link #buildPut}, {@link #buildPuts} or
+     * {@link #buildChanges} themselves call it once the write completes.
+     */
+    void notifyWritten(Object source, byte[] row);
+
+    /**
+     * Opens a scanner of the rows of a salted bean class: one scanner per salt bucket, read in parallel and merged back
+     * into rowkey order. The scan is the unsalted one, e.g. from {@link #buildScan} or {@link #scanRange}. Classes
+     * without salt get a plain scanner of the table.
+     */
+    ResultScanner scatterScan(Table table, Class<?> clazz, Scan scan) throws HProcessException;
+
+    /**
+     * Streams the beans of a scanner, fetching and decoding ahead of the consumer. Closing the stream closes the
+     * scanner; conversion failures surface as {@link com.uso.hbase.handler.exception.UncheckedHProcessException}.
+     */
+    <T> Stream<T> stream(ResultScanner scanner, Class<T> clazz) throws HProcessException;
+
+    /**
+     * Splits the scan along the region boundaries of the locator into sub-scans and exposes the beans of all regions
+     * as one splittable {@link Spliterator}, each split scanning whole regions. At most
+     * {@code regionConcurrency} regions are scanned at the same time. Rows come in no particular order across
+     * regions; salted rows are split per salt bucket first.
+     *
+     * @param listener notified when a region starts and completes, may be {@code null}
+     */
+    <T> Spliterator<T> regionSpliterator(Table table, RegionLocator locator, Scan scan, Class<T> clazz,
+                                         RegionScanListener listener) throws HProcessException;
+
+    /**
+     * A parallel stream over {@link #regionSpliterator}. Closing the stream closes the region scanners still open,
+     * e.g. after a short-circuiting operation.
+     */
+    <T> Stream<T> regionStream(Table table, RegionLocator locator, Scan scan, Class<T> clazz,
+                               RegionScanListener listener) throws HProcessException;
+
+    /**
+     * Creates an empty columnar batch of the given fields, all mapped columns if none.
+     */
+    ColumnarBatch newColumnarBatch(Class<?> clazz, int capacity, String... fields) throws HProcessException;
+
+    /**
+     * Appends the row to the batch without creating a bean, growing the batch if it is full.
+     */
+    void decodeInto(Result result, ColumnarBatch batch) throws HProcessException;
+
+    /**
+     * Decodes the rows of the scanner into one {@link ColumnarBatch} of {@code batchSize} rows, handing it to the
+     * consumer whenever it is full and once more for the remaining rows. The batch is cleared and reused after the
+     * consumer returns, so it must not be kept. The scanner is not closed.
+     *
+     * @return the number of rows decoded
+     */
+    long scanColumnar(ResultScanner scanner, Class<?> clazz, int batchSize, Consumer<ColumnarBatch> consumer,
+                      String... fields) throws HProcessException;
+
+    /**
+     * Streams the entries of a {@link com.uso.hbase.annotation.HColumnMap} field of one row, in qualifier order,
+     * fetching at most {@code wideRowBatchSize} cells per RPC. Closing the stream closes the scanner.
+     */
+    <K, V> Stream<Map.Entry<K, V>> streamEntries(Table table, Class<?> clazz, Object rowkey, String field)
+        throws HProcessException;
+
+    /**
+     * Reads the next {@code limit} entries of a {@link com.uso.hbase.annotation.HColumnMap} field of one row.
+     *
+     * @param after the cursor of the previous page, {@code null} for the first page
+     */
+    <K, V> WidePage<K, V> readPage(Table table, Class<?> clazz, Object rowkey, String field, byte[] after, int limit)
+        throws HProcessException;
+
+    /**
+     * Resolves the handlers of the given bean classes and the converters of their fields, so that the first live
+     * request does not pay for it.
+     */
+    void register(Class<?>... classes) throws HProcessException;
+
 }
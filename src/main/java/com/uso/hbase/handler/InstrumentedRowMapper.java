@@ -0,0 +1,120 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.converter.exception.ConversionException;
+import com.uso.hbase.metrics.BeanMetrics;
+import java.util.List;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Records the {@link BeanMetrics} of the conversions of a mapper. Field metadata, e.g. the mapped column count, comes
+ * from the {@link HRowHandler} of the class, which is the mapper itself unless a generated one is used.
+ */
+final class InstrumentedRowMapper<T> implements RowMapper<T> {
+
+    private final RowMapper<T> delegate;
+
+    private final HRowHandler<T> metadata;
+
+    private final BeanMetrics metrics;
+
+    InstrumentedRowMapper(final RowMapper<T> delegate, final HRowHandler<T> metadata, final BeanMetrics metrics) {
+        this.delegate = delegate;
+        this.metadata = metadata;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public T convert(final Result result) throws Exception {
+        boolean sampled = this.metrics.sample();
+        long start = sampled ? System.nanoTime() : 0;
+        T bean;
+        try {
+            bean = this.delegate.convert(result);
+        } catch (final Exception ex) {
+            this.metrics.recordFailure(failureName(ex));
+            throw ex;
+        }
+        if (sampled) {
+            this.metrics.recordConvertTime(System.nanoTime() - start);
+            this.metrics.recordMissingColumns(this.metadata.countMissingColumns(result));
+        }
+        this.metrics.recordDecoded(valueBytes(result));
+        return bean;
+    }
+
+    /**
+     * Counts the row as decoded, decoding failures surface later from the getters and are not recorded.
+     */
+    @Override
+    public T convertLazy(final Result result) throws Exception {
+        T bean = this.delegate.convertLazy(result);
+        this.metrics.recordDecoded(valueBytes(result));
+        return bean;
+    }
+
+    @Override
+    public Put buildPut(final T source) throws Exception {
+        return this.buildPut(source, null);
+    }
+
+    /**
+     * Encodes into the arena through the {@link HRowHandler}, which generated mappers do not support.
+     */
+    @Override
+    public Put buildPut(final T source, final PutArena arena) throws Exception {
+        boolean sampled = this.metrics.sample();
+        long start = sampled ? System.nanoTime() : 0;
+        Put put;
+        try {
+            put = arena == null ? this.delegate.buildPut(source) : this.metadata.buildPut(source, arena);
+        } catch (final Exception ex) {
+            this.metrics.recordFailure(failureName(ex));
+            throw ex;
+        }
+        if (sampled) {
+            this.metrics.recordBuildPutTime(System.nanoTime() - start);
+        }
+        long bytes = 0;
+        for (List<Cell> cells : put.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                bytes += cell.getValueLength();
+            }
+        }
+        this.metrics.recordEncoded(bytes, this.metadata.countNullColumns(source));
+        return put;
+    }
+
+    @Override
+    public void resolveConverters() {
+        this.delegate.resolveConverters();
+    }
+
+    private static long valueBytes(final Result result) {
+        long bytes = 0;
+        if (result != null && !result.isEmpty()) {
+            for (Cell cell : result.rawCells()) {
+                bytes += cell.getValueLength();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * The converter named by a {@link ConversionException} in the causes, or the class of the root cause.
+     */
+    private static String failureName(final Throwable failure) {
+        Throwable cause = failure;
+        while (true) {
+            if (cause instanceof ConversionException) {
+                return ((ConversionException) cause).getConverterName();
+            }
+            if (cause.getCause() == null || cause.getCause() == cause) {
+                return cause.getClass().getName();
+            }
+            cause = cause.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.uso.hbase.handler;
+
+/**
+ * Marks the bean subclasses returned by {@link RowMapper#convertLazy}. The mapped type of such a bean is its
+ * superclass.
+ */
+public interface LazyRow {
+
+}
@@ -0,0 +1,171 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.handler.exception.HProcessException;
+import com.uso.hbase.handler.exception.UncheckedHProcessException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+/**
+ * Iterates the beans of a {@link ResultScanner} while a background thread keeps fetching the next batches and an
+ * executor decodes them. At most {@code prefetchBatches} batches are fetched ahead of the consumer; beyond that the
+ * fetching thread blocks, which also stops the scanner from issuing RPCs. The scanner is only touched by the fetching
+ * thread and is closed by it, either at the end of the scan or once {@link #close()} interrupts it.
+ */
+@Slf4j
+final class PipelinedScanIterator<T> implements Iterator<T>, Closeable {
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final CompletableFuture<List<T>> end = CompletableFuture.completedFuture(Collections.emptyList());
+
+    private final ResultScanner scanner;
+
+    private final RowMapper<T> mapper;
+
+    private final Executor decodeExecutor;
+
+    private final int batchSize;
+
+    private final BlockingQueue<CompletableFuture<List<T>>> queue;
+
+    private final Thread fetcher;
+
+    private volatile boolean closed;
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private boolean finished;
+
+    PipelinedScanIterator(final ResultScanner scanner, final RowMapper<T> mapper, final Executor decodeExecutor,
+                          final int batchSize, final int prefetchBatches) {
+        this.scanner = scanner;
+        this.mapper = mapper;
+        this.decodeExecutor = decodeExecutor;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(prefetchBatches);
+        this.fetcher = new Thread(this::fetch, "hbase-bean-scan-" + THREAD_ID.incrementAndGet());
+        this.fetcher.setDaemon(true);
+        this.fetcher.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.current.hasNext()) {
+            if (this.finished || this.closed) {
+                return false;
+            }
+            CompletableFuture<List<T>> batch;
+            try {
+                batch = this.queue.take();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                this.close();
+                throw new UncheckedIOException(new InterruptedIOException("interrupted while waiting for rows"));
+            }
+            if (batch == this.end) {
+                this.finished = true;
+                return false;
+            }
+            try {
+                this.current = batch.join().iterator();
+            } catch (final CompletionException ex) {
+                this.close();
+                throw unwrap(ex.getCause());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.current.next();
+    }
+
+    /**
+     * Stops fetching, waits for the fetching thread to close the scanner and drops the batches still queued.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.fetcher.interrupt();
+        try {
+            this.fetcher.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        this.queue.clear();
+    }
+
+    private void fetch() {
+        try {
+            while (!this.closed) {
+                Result[] results = this.scanner.next(this.batchSize);
+                if (results == null || results.length == 0) {
+                    break;
+                }
+                this.queue.put(CompletableFuture.supplyAsync(() -> this.decode(results), this.decodeExecutor));
+            }
+            this.queue.put(this.end);
+        } catch (final InterruptedException | InterruptedIOException ex) {
+            log.debug("scan of {} interrupted", this.scanner);
+        } catch (final Exception ex) {
+            CompletableFuture<List<T>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            try {
+                this.queue.put(failed);
+            } catch (final InterruptedException ignored) {
+                log.debug("scan of {} closed while reporting failure", this.scanner);
+            }
+        } finally {
+            this.scanner.close();
+        }
+    }
+
+    private List<T> decode(final Result[] results) {
+        List<T> beans = new ArrayList<>(results.length);
+        for (Result result : results) {
+            try {
+                beans.add(this.mapper.convert(result));
+            } catch (final Exception ex) {
+                throw new UncheckedHProcessException(new HProcessException(ex));
+            }
+        }
+        return beans;
+    }
+
+    private static RuntimeException unwrap(final Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        }
+        if (ex instanceof IOException) {
+            return new UncheckedIOException((IOException) ex);
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new UncheckedHProcessException(new HProcessException((Exception) ex));
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.uso.hbase.handler;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * A reusable buffer that {@link HandlerFactory#buildPut(Object, PutArena)} serializes whole cells into, so that a put
+ * costs {@link KeyValue} views of the buffer instead of a value array and a cell array per column.
+ *
+ * <p>The puts share the buffer: call {@link #reset()} only once every put built since the previous reset has been
+ * sent, e.g. after {@code Table.put} returned or {@code BufferedMutator.flush}, and do not keep those puts after it.
+ * A bean that does not fit moves the arena to a larger buffer, leaving the earlier puts on the old one. Not
+ * thread-safe; use one arena per thread.
+ */
+public final class PutArena {
+
+    private ByteBuffer buffer;
+
+    private int valueStart;
+
+    public PutArena(final int capacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(64, capacity));
+    }
+
+    /**
+     * Makes the whole buffer available again, invalidating the puts built since the previous reset.
+     */
+    public void reset() {
+        this.buffer.clear();
+    }
+
+    /**
+     * Bytes used since the previous reset.
+     */
+    public int size() {
+        return this.buffer.position();
+    }
+
+    public int capacity() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Writes the key of a cell and leaves the buffer at its value, for a converter to write into.
+     *
+     * @return the offset of the cell, for {@link #finish} or {@link #grow}
+     */
+    int start(final byte[] row, final byte[] family, final byte[] qualifier) {
+        int keyLength = KeyValue.KEY_INFRASTRUCTURE_SIZE + row.length + family.length + qualifier.length;
+        if (this.buffer.remaining() < KeyValue.KEYVALUE_INFRASTRUCTURE_SIZE + keyLength) {
+            this.grow(this.buffer.position(), KeyValue.KEYVALUE_INFRASTRUCTURE_SIZE + keyLength);
+        }
+        int start = this.buffer.position();
+        this.buffer.putInt(keyLength);
+        this.buffer.putInt(0);
+        this.buffer.putShort((short) row.length);
+        this.buffer.put(row);
+        this.buffer.put((byte) family.length);
+        this.buffer.put(family);
+        this.buffer.put(qualifier);
+        this.buffer.putLong(HConstants.LATEST_TIMESTAMP);
+        this.buffer.put(KeyValue.Type.Put.getCode());
+        this.valueStart = this.buffer.position();
+        return start;
+    }
+
+    ByteBuffer buffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Completes the cell started at the offset with the value written since and adds it to the put. The cell goes
+     * straight into the family map, {@link Put#add(Cell)} would copy the family of every cell.
+     */
+    void finish(final Put put, final byte[] family, final int start) {
+        int end = this.buffer.position();
+        this.buffer.putInt(start + Bytes.SIZEOF_INT, end - this.valueStart);
+        List<Cell> cells = put.getFamilyCellMap().get(family);
+        if (cells == null) {
+            cells = new ArrayList<>();
+            put.getFamilyCellMap().put(family, cells);
+        }
+        cells.add(new KeyValue(this.buffer.array(), start, end - start));
+    }
+
+    /**
+     * Adds a cell whose value is already encoded.
+     */
+    void add(final Put put, final byte[] row, final byte[] family, final byte[] qualifier, final byte[] value) {
+        int start = this.start(row, family, qualifier);
+        if (this.buffer.remaining() < value.length) {
+            this.grow(start, this.buffer.position() - start + value.length);
+            start = this.start(row, family, qualifier);
+        }
+        this.buffer.put(value);
+        this.finish(put, family, start);
+    }
+
+    /**
+     * Drops the cell started at the offset and moves to a larger buffer with room for at least {@code needed} bytes.
+     * The old buffer stays with the puts referencing it.
+     */
+    void grow(final int start, final int needed) {
+        this.buffer.position(start);
+        int capacity = this.buffer.capacity();
+        do {
+            capacity <<= 1;
+        } while (capacity < needed);
+        this.buffer = ByteBuffer.allocate(capacity);
+    }
+
+}
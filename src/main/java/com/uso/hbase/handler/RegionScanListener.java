@@ -0,0 +1,18 @@
+package com.uso.hbase.handler;
+
+/**
+ * Progress of a region-parallel scan, see {@link HandlerFactory#regionStream}. Called from the threads processing the
+ * regions, so implementations must be thread-safe. Rows are the bounds of the sub-scan, the part of the region
+ * covered by the scan; an empty array is unbounded.
+ */
+public interface RegionScanListener {
+
+    default void onRegionStart(final byte[] startRow, final byte[] stopRow) {
+    }
+
+    /**
+     * Called once all rows of the region have been handed to the consumer.
+     */
+    void onRegionComplete(byte[] startRow, byte[] stopRow, long rows);
+
+}
@@ -0,0 +1,260 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.handler.exception.HProcessException;
+import com.uso.hbase.handler.exception.UncheckedHProcessException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+/**
+ * Beans of a scan cut along region boundaries. Splitting hands over half of the regions not started yet, so each
+ * split scans whole regions with its own scanner. A split reads only while it holds a permit of the shared semaphore,
+ * which caps the regions read at the same time: {@link #forEachRemaining} holds it for the whole split, scanning its
+ * regions one after the other, {@link #tryAdvance} only for the row it reads. Short-circuiting operations advance
+ * splits one row at a time and abandon them once the result is known, so a permit held between rows would never be
+ * released; the scanner of an abandoned split stays open until the stream is closed.
+ */
+final class RegionScanSpliterator<T> implements Spliterator<T> {
+
+    private final Context<T> context;
+
+    private final List<Scan> regions;
+
+    private int index;
+
+    private int end;
+
+    private Scan current;
+
+    private ResultScanner scanner;
+
+    private long rows;
+
+    private RegionScanSpliterator(final Context<T> context, final List<Scan> regions, final int index,
+                                  final int end) {
+        this.context = context;
+        this.regions = regions;
+        this.index = index;
+        this.end = end;
+    }
+
+    /**
+     * Cuts every scan along the region boundaries, skipping the regions it does not cover.
+     */
+    static <T> RegionScanSpliterator<T> create(final Table table, final RegionLocator locator, final List<Scan> scans,
+                                               final RowMapper<T> mapper, final int concurrency,
+                                               final RegionScanListener listener) throws IOException {
+        Pair<byte[][], byte[][]> keys = locator.getStartEndKeys();
+        List<Scan> regions = new ArrayList<>();
+        for (Scan scan : scans) {
+            if (scan.isReversed()) {
+                throw new IOException("not support region-parallel reversed scan");
+            }
+            for (int i = 0; i < keys.getFirst().length; i++) {
+                Scan region = regionScan(scan, keys.getFirst()[i], keys.getSecond()[i]);
+                if (region != null) {
+                    regions.add(region);
+                }
+            }
+        }
+        Context<T> context = new Context<>(table, mapper, new Semaphore(Math.max(1, concurrency)), listener);
+        return new RegionScanSpliterator<>(context, regions, 0, regions.size());
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        this.acquire();
+        try {
+            return this.advance(action);
+        } finally {
+            this.context.permits.release();
+        }
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        this.acquire();
+        try {
+            while (this.advance(action)) {
+                // the split keeps its permit from one region to the next
+            }
+        } finally {
+            this.context.permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            this.context.permits.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("interrupted while waiting for a region slot"));
+        }
+    }
+
+    private boolean advance(final Consumer<? super T> action) {
+        try {
+            while (true) {
+                if (this.scanner == null) {
+                    if (this.index >= this.end) {
+                        return false;
+                    }
+                    this.open(this.regions.get(this.index++));
+                }
+                Result result = this.scanner.next();
+                if (result == null) {
+                    this.finish();
+                    continue;
+                }
+                this.rows++;
+                action.accept(this.context.mapper.convert(result));
+                return true;
+            }
+        } catch (final IOException ex) {
+            this.closeRegion();
+            throw new UncheckedIOException(ex);
+        } catch (final RuntimeException ex) {
+            this.closeRegion();
+            throw ex;
+        } catch (final Exception ex) {
+            this.closeRegion();
+            throw new UncheckedHProcessException(new HProcessException(ex));
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int remaining = this.end - this.index;
+        if (remaining < 2) {
+            return null;
+        }
+        int mid = this.index + remaining / 2;
+        RegionScanSpliterator<T> split = new RegionScanSpliterator<>(this.context, this.regions, mid, this.end);
+        this.end = mid;
+        return split;
+    }
+
+    /**
+     * The row count is unknown, the estimate only drives splitting.
+     */
+    @Override
+    public long estimateSize() {
+        return this.index < this.end || this.scanner != null ? Long.MAX_VALUE : 0;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.NONNULL;
+    }
+
+    /**
+     * Releases the regions still being scanned by any split, e.g. when the consumer stops early. Only call once no
+     * split is in use anymore.
+     */
+    static void close(final Spliterator<?> spliterator) {
+        Context<?> context = ((RegionScanSpliterator<?>) spliterator).context;
+        for (RegionScanSpliterator<?> open : context.open) {
+            open.closeRegion();
+        }
+    }
+
+    private void open(final Scan region) throws IOException {
+        this.current = region;
+        this.rows = 0;
+        this.context.open.add(this);
+        try {
+            if (this.context.listener != null) {
+                this.context.listener.onRegionStart(region.getStartRow(), region.getStopRow());
+            }
+            this.scanner = this.context.table.getScanner(region);
+        } catch (final IOException | RuntimeException ex) {
+            this.closeRegion();
+            throw ex;
+        }
+    }
+
+    private void finish() {
+        Scan region = this.current;
+        long count = this.rows;
+        this.closeRegion();
+        if (this.context.listener != null) {
+            this.context.listener.onRegionComplete(region.getStartRow(), region.getStopRow(), count);
+        }
+    }
+
+    private void closeRegion() {
+        if (!this.context.open.remove(this)) {
+            return;
+        }
+        ResultScanner opened = this.scanner;
+        this.scanner = null;
+        this.current = null;
+        if (opened != null) {
+            opened.close();
+        }
+    }
+
+    private static Scan regionScan(final Scan scan, final byte[] regionStart, final byte[] regionEnd)
+        throws IOException {
+        byte[] start = scan.getStartRow();
+        byte[] stop = scan.getStopRow();
+        boolean includeStart = scan.includeStartRow();
+        boolean includeStop = scan.includeStopRow();
+        if (Bytes.compareTo(regionStart, start) > 0) {
+            start = regionStart;
+            includeStart = true;
+        }
+        if (regionEnd.length > 0 && (stop.length == 0 || Bytes.compareTo(regionEnd, stop) < 0)) {
+            stop = regionEnd;
+            includeStop = false;
+        }
+        if (stop.length > 0 && Bytes.compareTo(start, stop) > 0) {
+            return null;
+        }
+        if (stop.length > 0 && Bytes.equals(start, stop) && !(includeStart && includeStop)) {
+            return null;
+        }
+        Scan region = new Scan(scan);
+        region.withStartRow(start.length == 0 ? HConstants.EMPTY_START_ROW : start, includeStart);
+        region.withStopRow(stop, includeStop);
+        return region;
+    }
+
+    private static final class Context<T> {
+
+        private final Table table;
+
+        private final RowMapper<T> mapper;
+
+        private final Semaphore permits;
+
+        private final RegionScanListener listener;
+
+        private final Set<RegionScanSpliterator<?>> open = ConcurrentHashMap.newKeySet();
+
+        private Context(final Table table, final RowMapper<T> mapper, final Semaphore permits,
+                        final RegionScanListener listener) {
+            this.table = table;
+            this.mapper = mapper;
+            this.permits = permits;
+            this.listener = listener;
+        }
+
+    }
+
+}
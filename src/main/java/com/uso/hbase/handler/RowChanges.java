@@ -0,0 +1,77 @@
+package com.uso.hbase.handler;
+
+import java.io.IOException;
+import lombok.Getter;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RowMutations;
+
+/**
+ * The mutations needed to bring a row in line with a tracked bean: a {@link Put} of the modified columns and a
+ * {@link Delete} of the columns set to {@code null}. Either is {@code null} when there is nothing to send.
+ */
+@Getter
+public final class RowChanges {
+
+    private final byte[] row;
+
+    private Put put;
+
+    private Delete delete;
+
+    /**
+     * Columns left out of the put because the bean still holds the stored value.
+     */
+    private int skippedColumns;
+
+    /**
+     * Value bytes of the skipped columns.
+     */
+    private long skippedBytes;
+
+    RowChanges(final byte[] row) {
+        this.row = row;
+    }
+
+    void addColumn(final byte[] family, final byte[] qualifier, final byte[] value) {
+        if (this.put == null) {
+            this.put = new Put(this.row);
+        }
+        this.put.addColumn(family, qualifier, value);
+    }
+
+    void deleteColumn(final byte[] family, final byte[] qualifier) {
+        if (this.delete == null) {
+            this.delete = new Delete(this.row);
+        }
+        this.delete.addColumns(family, qualifier);
+    }
+
+    void skip(final int length) {
+        this.skippedColumns++;
+        this.skippedBytes += length;
+    }
+
+    public boolean isEmpty() {
+        return this.put == null && this.delete == null;
+    }
+
+    /**
+     * Combines the put and the delete so that they are applied atomically, {@code null} if there is nothing to send.
+     */
+    public RowMutations toRowMutations() throws IOException {
+        if (this.isEmpty()) {
+            return null;
+        }
+        RowMutations mutations = new RowMutations(this.row);
+        if (this.put != null) {
+            mutations.add((Mutation) this.put);
+        }
+        if (this.delete != null) {
+            mutations.add((Mutation) this.delete);
+        }
+        return mutations;
+    }
+
+}
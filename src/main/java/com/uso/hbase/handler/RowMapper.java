@@ -0,0 +1,44 @@
+package com.uso.hbase.handler;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Maps one {@code @HRow} bean type to and from HBase rows.
+ *
+ * <p>Implementations are either the reflective {@link HRowHandler} or a class generated at compile time by
+ * {@code hbase-bean-processor}, named {@code <bean binary name>} + {@link #GENERATED_SUFFIX} and exposing a public
+ * constructor that takes a {@link com.uso.hbase.converter.ConversionService}.
+ */
+public interface RowMapper<T> {
+
+    String GENERATED_SUFFIX = "_HRowMapper";
+
+    T convert(Result result) throws Exception;
+
+    /**
+     * Returns a bean that decodes each column on the first call of its getter. Only generated mappers can defer
+     * decoding, {@link HRowHandler} and the other mappers return the eagerly converted bean.
+     */
+    default T convertLazy(final Result result) throws Exception {
+        return convert(result);
+    }
+
+    Put buildPut(T source) throws Exception;
+
+    /**
+     * Builds the put with its cells serialized into the arena. Mappers that cannot do so ignore the arena.
+     */
+    default Put buildPut(final T source, final PutArena arena) throws Exception {
+        return buildPut(source);
+    }
+
+    /**
+     * Resolves the converter of every mapped field ahead of the first conversion.
+     *
+     * @throws com.uso.hbase.converter.exception.NotFoundConverterException if a field type has no converter
+     */
+    default void resolveConverters() {
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.uso.hbase.handler;
+
+/**
+ * Told about every row the factory builds mutations for, see {@link DefaultHandlerFactory#addWriteListener}. Called
+ * on the thread building or completing the mutation, so implementations must be thread-safe and quick.
+ */
+@FunctionalInterface
+public interface RowWriteListener {
+
+    /**
+     * Called once the mutation of the row is built, before it is sent.
+     */
+    void onWrite(Class<?> clazz, byte[] row);
+
+    /**
+     * Called once the mutation of the row has been applied or has failed, if the writer reports it through
+     * {@link HandlerFactory#notifyWritten}. A read between {@link #onWrite} and this call may still see the old row.
+     */
+    default void onWritten(final Class<?> clazz, final byte[] row) {
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.annotation.SaltStrategy;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Adds the one-byte bucket prefix of salted rowkeys.
+ */
+final class RowkeySalt {
+
+    static final int MAX_BUCKETS = 256;
+
+    private final int buckets;
+
+    private final SaltStrategy strategy;
+
+    RowkeySalt(final int buckets, final SaltStrategy strategy) {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("salt buckets must be between 1 and " + MAX_BUCKETS + ": " + buckets);
+        }
+        this.buckets = buckets;
+        this.strategy = strategy;
+    }
+
+    int getBuckets() {
+        return this.buckets;
+    }
+
+    byte[] salt(final byte[] key) {
+        if (key == null) {
+            return null;
+        }
+        byte[] salted = new byte[key.length + 1];
+        salted[0] = (byte) this.bucket(key);
+        System.arraycopy(key, 0, salted, 1, key.length);
+        return salted;
+    }
+
+    /**
+     * Prefixes a bound of an unsalted scan with the given bucket. An empty start row becomes the start of the bucket,
+     * an empty stop row the start of the next bucket, or stays empty after the last bucket.
+     */
+    static byte[] bound(final int bucket, final byte[] key, final boolean stop) {
+        if (key.length == 0 && stop) {
+            return bucket + 1 == MAX_BUCKETS ? key : new byte[] {(byte) (bucket + 1)};
+        }
+        byte[] bound = new byte[key.length + 1];
+        bound[0] = (byte) bucket;
+        System.arraycopy(key, 0, bound, 1, key.length);
+        return bound;
+    }
+
+    private int bucket(final byte[] key) {
+        if (this.strategy == SaltStrategy.MODULO) {
+            long value = 0;
+            for (int i = Math.max(0, key.length - Bytes.SIZEOF_LONG); i < key.length; i++) {
+                value = (value << 8) | (key[i] & 0xFF);
+            }
+            return (int) Long.remainderUnsigned(value, this.buckets);
+        }
+        return (Bytes.hashCode(key) & Integer.MAX_VALUE) % this.buckets;
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.uso.hbase.handler;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Scans every salt bucket in parallel and merges the rows back into the order of their unsalted keys. Each bucket has
+ * its own thread that opens the bucket scanner and keeps at most {@code prefetch} rows ahead of the merge. The bucket
+ * scanners are only touched by their thread and closed by it.
+ */
+@Slf4j
+final class SaltedResultScanner implements ResultScanner {
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private static final Result END = Result.create(new Cell[0]);
+
+    private final List<Bucket> buckets;
+
+    private final PriorityQueue<Bucket> heads;
+
+    private boolean started;
+
+    private volatile boolean closed;
+
+    SaltedResultScanner(final Table table, final List<Scan> scans, final int prefetch) {
+        this.buckets = new ArrayList<>(scans.size());
+        this.heads = new PriorityQueue<>(Math.max(1, scans.size()),
+            (left, right) -> Bytes.compareTo(left.head.getRow(), 1, left.head.getRow().length - 1,
+                right.head.getRow(), 1, right.head.getRow().length - 1));
+        int id = THREAD_ID.incrementAndGet();
+        for (int i = 0; i < scans.size(); i++) {
+            Bucket bucket = new Bucket(table, scans.get(i), prefetch);
+            bucket.thread = new Thread(bucket::fetch, "hbase-bean-salt-" + id + "-" + i);
+            bucket.thread.setDaemon(true);
+            this.buckets.add(bucket);
+        }
+        for (Bucket bucket : this.buckets) {
+            bucket.thread.start();
+        }
+    }
+
+    @Override
+    public Result next() throws IOException {
+        if (this.closed) {
+            return null;
+        }
+        if (!this.started) {
+            this.started = true;
+            for (Bucket bucket : this.buckets) {
+                this.advance(bucket);
+            }
+        }
+        Bucket bucket = this.heads.poll();
+        if (bucket == null) {
+            return null;
+        }
+        Result result = bucket.head;
+        this.advance(bucket);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        for (Bucket bucket : this.buckets) {
+            bucket.thread.interrupt();
+        }
+        for (Bucket bucket : this.buckets) {
+            try {
+                bucket.thread.join();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            bucket.queue.clear();
+        }
+        this.heads.clear();
+    }
+
+    /**
+     * Leases are renewed by the bucket threads as they fetch.
+     */
+    @Override
+    public boolean renewLease() {
+        return false;
+    }
+
+    @Override
+    public ScanMetrics getScanMetrics() {
+        return null;
+    }
+
+    private void advance(final Bucket bucket) throws IOException {
+        Result result;
+        try {
+            result = bucket.queue.take();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.close();
+            throw new InterruptedIOException("interrupted while waiting for rows");
+        }
+        if (result == END) {
+            if (bucket.error != null) {
+                this.close();
+                throw bucket.error instanceof IOException ? (IOException) bucket.error : new IOException(bucket.error);
+            }
+            return;
+        }
+        bucket.head = result;
+        this.heads.add(bucket);
+    }
+
+    private final class Bucket {
+
+        private final Table table;
+
+        private final Scan scan;
+
+        private final BlockingQueue<Result> queue;
+
+        private Thread thread;
+
+        private Result head;
+
+        private volatile Exception error;
+
+        private Bucket(final Table table, final Scan scan, final int prefetch) {
+            this.table = table;
+            this.scan = scan;
+            this.queue = new ArrayBlockingQueue<>(prefetch);
+        }
+
+        private void fetch() {
+            try (ResultScanner scanner = this.table.getScanner(this.scan)) {
+                Result result;
+                while (!closed && (result = scanner.next()) != null) {
+                    this.queue.put(result);
+                }
+            } catch (final InterruptedException | InterruptedIOException ex) {
+                log.debug("scan of bucket {} interrupted", Bytes.toStringBinary(this.scan.getStartRow()));
+                return;
+            } catch (final Exception ex) {
+                this.error = ex;
+            }
+            try {
+                this.queue.put(END);
+            } catch (final InterruptedException ex) {
+                log.debug("scan of bucket {} closed", Bytes.toStringBinary(this.scan.getStartRow()));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.uso.hbase.handler;
+
+import lombok.Getter;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * A bean together with the {@link Result} it was decoded from. The result is the snapshot that
+ * {@link HandlerFactory#buildChanges(TrackedRow)} compares the bean against, so it must not be modified. A bean
+ * decoded from only some fields is only compared and written on those fields.
+ */
+@Getter
+public final class TrackedRow<T> {
+
+    private final T bean;
+
+    private final Result original;
+
+    /**
+     * The fields the bean was decoded from, empty for all of them.
+     */
+    private final String[] fields;
+
+    public TrackedRow(final T bean, final Result original, final String... fields) {
+        this.bean = bean;
+        this.original = original;
+        this.fields = fields;
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.uso.hbase.handler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Counts the cells of decoded rows that no field of the bean maps, per {@code family:qualifier}. Only the first
+ * {@link #MAX_COLUMNS} distinct columns are broken down, later ones are only added to the total.
+ */
+public final class UnmappedCellStats {
+
+    public static final int MAX_COLUMNS = 1024;
+
+    private final LongAdder total = new LongAdder();
+
+    private final ConcurrentMap<Column, LongAdder> columns = new ConcurrentHashMap<>();
+
+    /**
+     * Looks the column up with a view of the cell arrays, the column is only copied the first time it is seen.
+     */
+    void record(final Cell cell) {
+        this.total.increment();
+        Column column = new Column(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(),
+            cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+        LongAdder counter = this.columns.get(column);
+        if (counter == null) {
+            if (this.columns.size() >= MAX_COLUMNS) {
+                return;
+            }
+            counter = this.columns.computeIfAbsent(column.copy(), key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public long getTotal() {
+        return this.total.sum();
+    }
+
+    /**
+     * Snapshot of the unmapped cell count per {@code family:qualifier}.
+     */
+    public Map<String, Long> getColumns() {
+        Map<String, Long> snapshot = new HashMap<>();
+        this.columns.forEach((column, counter) -> snapshot.put(column.toString(), counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public void reset() {
+        this.total.reset();
+        this.columns.clear();
+    }
+
+    private static final class Column {
+
+        private final byte[] family;
+
+        private final int familyOffset;
+
+        private final int familyLength;
+
+        private final byte[] qualifier;
+
+        private final int qualifierOffset;
+
+        private final int qualifierLength;
+
+        private final int hash;
+
+        private Column(final byte[] family, final int familyOffset, final int familyLength, final byte[] qualifier,
+                       final int qualifierOffset, final int qualifierLength) {
+            this.family = family;
+            this.familyOffset = familyOffset;
+            this.familyLength = familyLength;
+            this.qualifier = qualifier;
+            this.qualifierOffset = qualifierOffset;
+            this.qualifierLength = qualifierLength;
+            this.hash = 31 * Bytes.hashCode(family, familyOffset, familyLength)
+                + Bytes.hashCode(qualifier, qualifierOffset, qualifierLength);
+        }
+
+        private Column copy() {
+            return new Column(Arrays.copyOfRange(this.family, this.familyOffset, this.familyOffset + this.familyLength),
+                0, this.familyLength, Arrays.copyOfRange(this.qualifier, this.qualifierOffset,
+                this.qualifierOffset + this.qualifierLength), 0, this.qualifierLength);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Column)) {
+                return false;
+            }
+            Column column = (Column) other;
+            return this.hash == column.hash
+                && Bytes.equals(this.qualifier, this.qualifierOffset, this.qualifierLength, column.qualifier,
+                column.qualifierOffset, column.qualifierLength)
+                && Bytes.equals(this.family, this.familyOffset, this.familyLength, column.family,
+                column.familyOffset, column.familyLength);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public String toString() {
+            return Bytes.toString(this.family, this.familyOffset, this.familyLength) + ":"
+                + Bytes.toStringBinary(this.qualifier, this.qualifierOffset, this.qualifierLength);
+        }
+
+    }
+
+}
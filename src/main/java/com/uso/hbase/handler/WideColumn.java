@@ -0,0 +1,228 @@
+package com.uso.hbase.handler;
+
+import com.uso.hbase.annotation.HColumnMap;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.converter.ConversionService;
+import com.uso.hbase.handler.accessor.PropertyAccessor;
+import com.uso.hbase.handler.exception.HbaseAnnotationException;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * A {@code Map} or {@code List} field mapped by {@link HColumnMap} to the qualifiers of a family under a prefix. Keys
+ * and values go through the conversion service, list indexes are 4-byte ints so that qualifiers sort like them.
+ * {@code null} values are not stored: a {@code null} element reads back as {@code null} at its index, unless it is
+ * at the end of the list.
+ */
+final class WideColumn<T> {
+
+    private final String name;
+
+    private final byte[] family;
+
+    private final byte[] prefix;
+
+    private final boolean list;
+
+    private final Class<?> keyType;
+
+    private final Class<?> valueType;
+
+    private final PropertyAccessor<T> accessor;
+
+    private final ConversionService conversionService;
+
+    WideColumn(final Class<T> clazz, final Field field, final PropertyAccessor<T> accessor,
+               final ConversionService conversionService) throws HbaseAnnotationException {
+        HColumnMap hColumnMap = field.getAnnotation(HColumnMap.class);
+        String familyName = hColumnMap.family().isEmpty() ? clazz.getAnnotation(HRow.class).defaultFamily()
+            : hColumnMap.family();
+        if (familyName.isEmpty()) {
+            throw new HbaseAnnotationException(String.format("Annotation '%s' on %s.%s is not specified property "
+                + "'family'", HColumnMap.class.getSimpleName(), clazz.getName(), field.getName()));
+        }
+        this.name = field.getName();
+        this.family = Bytes.toBytes(familyName);
+        this.prefix = Bytes.toBytes(hColumnMap.prefix());
+        this.accessor = accessor;
+        this.conversionService = conversionService;
+        Type[] arguments = field.getGenericType() instanceof ParameterizedType
+            ? ((ParameterizedType) field.getGenericType()).getActualTypeArguments() : new Type[0];
+        if (Map.class.isAssignableFrom(field.getType()) && arguments.length == 2) {
+            this.list = false;
+            this.keyType = rawClass(arguments[0]);
+            this.valueType = rawClass(arguments[1]);
+        } else if (List.class.isAssignableFrom(field.getType()) && arguments.length == 1) {
+            this.list = true;
+            this.keyType = Integer.class;
+            this.valueType = rawClass(arguments[0]);
+        } else {
+            throw new HbaseAnnotationException(String.format("Field %s.%s mapped by '%s' must be a parameterized Map "
+                + "or List", clazz.getName(), field.getName(), HColumnMap.class.getSimpleName()));
+        }
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    byte[] getFamily() {
+        return this.family;
+    }
+
+    byte[] getPrefix() {
+        return this.prefix;
+    }
+
+    boolean isList() {
+        return this.list;
+    }
+
+    boolean matches(final Cell cell) {
+        return cell.getQualifierLength() >= this.prefix.length
+            && Bytes.equals(this.prefix, 0, this.prefix.length, cell.getQualifierArray(), cell.getQualifierOffset(),
+            this.prefix.length)
+            && Bytes.equals(this.family, 0, this.family.length, cell.getFamilyArray(), cell.getFamilyOffset(),
+            cell.getFamilyLength());
+    }
+
+    byte[] qualifier(final Object key) {
+        byte[] encoded = this.list ? Bytes.toBytes(((Number) key).intValue()) : this.conversionService.convert(key);
+        return Bytes.add(this.prefix, encoded);
+    }
+
+    Object key(final Cell cell) {
+        int offset = cell.getQualifierOffset() + this.prefix.length;
+        int length = cell.getQualifierLength() - this.prefix.length;
+        if (this.list) {
+            return Bytes.toInt(cell.getQualifierArray(), offset, length);
+        }
+        return this.conversionService.from(cell.getQualifierArray(), offset, length, this.keyType);
+    }
+
+    Object value(final Cell cell) {
+        return this.conversionService.from(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength(),
+            this.valueType);
+    }
+
+    Map.Entry<Object, Object> entry(final Cell cell) {
+        return new AbstractMap.SimpleImmutableEntry<>(this.key(cell), this.value(cell));
+    }
+
+    void addToPut(final Put put, final T source) throws ReflectiveOperationException {
+        for (Map.Entry<byte[], byte[]> column : this.encode(source).entrySet()) {
+            put.addColumn(this.family, column.getKey(), column.getValue());
+        }
+    }
+
+    /**
+     * Writes the entries that changed and deletes the qualifiers of entries no longer in the field.
+     */
+    void addChanges(final RowChanges changes, final T source, final Result original)
+        throws ReflectiveOperationException {
+        Map<byte[], byte[]> columns = this.encode(source);
+        Set<String> written = new HashSet<>();
+        for (Map.Entry<byte[], byte[]> column : columns.entrySet()) {
+            byte[] value = column.getValue();
+            written.add(Bytes.toStringBinary(column.getKey()));
+            Cell cell = original == null ? null : original.getColumnLatestCell(this.family, column.getKey());
+            if (cell != null && Bytes.equals(value, 0, value.length, cell.getValueArray(), cell.getValueOffset(),
+                cell.getValueLength())) {
+                changes.skip(value.length);
+            } else {
+                changes.addColumn(this.family, column.getKey(), value);
+            }
+        }
+        if (original == null || original.isEmpty()) {
+            return;
+        }
+        for (Cell cell : original.rawCells()) {
+            if (this.matches(cell)) {
+                byte[] qualifier = Bytes.copy(cell.getQualifierArray(), cell.getQualifierOffset(),
+                    cell.getQualifierLength());
+                if (written.add(Bytes.toStringBinary(qualifier))) {
+                    changes.deleteColumn(this.family, qualifier);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the newest version of every matching cell, in qualifier order, list elements at the index of their
+     * qualifier. Leaves the field untouched if the row has none.
+     */
+    void evalToTarget(final T target, final Result result) throws ReflectiveOperationException {
+        if (result == null || result.isEmpty()) {
+            return;
+        }
+        Map<Object, Object> map = this.list ? null : new LinkedHashMap<>();
+        List<Object> values = this.list ? new ArrayList<>() : null;
+        Cell previous = null;
+        for (Cell cell : result.rawCells()) {
+            if (!this.matches(cell)) {
+                continue;
+            }
+            if (previous != null && Bytes.equals(previous.getQualifierArray(), previous.getQualifierOffset(),
+                previous.getQualifierLength(), cell.getQualifierArray(), cell.getQualifierOffset(),
+                cell.getQualifierLength())) {
+                continue;
+            }
+            previous = cell;
+            if (this.list) {
+                int index = (Integer) this.key(cell);
+                while (values.size() < index) {
+                    values.add(null);
+                }
+                values.add(this.value(cell));
+            } else {
+                map.put(this.key(cell), this.value(cell));
+            }
+        }
+        if (previous != null) {
+            this.accessor.set(target, this.list ? values : map);
+        }
+    }
+
+    private Map<byte[], byte[]> encode(final T source) throws ReflectiveOperationException {
+        Object value = this.accessor.get(source);
+        Map<byte[], byte[]> columns = new LinkedHashMap<>();
+        if (value instanceof List) {
+            List<?> items = (List<?>) value;
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i) != null) {
+                    columns.put(this.qualifier(i), this.conversionService.convert(items.get(i)));
+                }
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    columns.put(this.qualifier(entry.getKey()), this.conversionService.convert(entry.getValue()));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static Class<?> rawClass(final Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class;
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.uso.hbase.handler;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * A page of the entries of a wide field, see {@link HandlerFactory#readPage}. List fields have the index as key.
+ */
+@Getter
+public final class WidePage<K, V> {
+
+    private final List<Map.Entry<K, V>> entries;
+
+    /**
+     * Qualifier of the last entry, to pass as {@code after} for the next page; {@code null} on the last page.
+     */
+    private final byte[] next;
+
+    WidePage(final List<Map.Entry<K, V>> entries, final byte[] next) {
+        this.entries = entries;
+        this.next = next;
+    }
+
+    public boolean hasNext() {
+        return this.next != null;
+    }
+
+}
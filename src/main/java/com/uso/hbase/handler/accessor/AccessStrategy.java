@@ -0,0 +1,25 @@
+package com.uso.hbase.handler.accessor;
+
+public enum AccessStrategy {
+
+    /**
+     * {@link java.lang.reflect.Method#invoke} and {@link Class#newInstance()} on every call.
+     */
+    REFLECTIVE(new ReflectiveAccessorFactory()),
+
+    /**
+     * Accessors spun with {@link java.lang.invoke.LambdaMetafactory}, falling back to method handles.
+     */
+    GENERATED(new GeneratedAccessorFactory());
+
+    private final AccessorFactory accessorFactory;
+
+    AccessStrategy(final AccessorFactory accessorFactory) {
+        this.accessorFactory = accessorFactory;
+    }
+
+    public AccessorFactory getAccessorFactory() {
+        return this.accessorFactory;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.uso.hbase.handler.accessor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the accessors used by {@code HRowHandler} once per mapped field. Accessors for {@code int}, {@code long},
+ * {@code double} and {@code boolean} properties implement the matching primitive interface, e.g.
+ * {@link IntPropertyAccessor}.
+ */
+public interface AccessorFactory {
+
+    <T> Instantiator<T> instantiator(Class<T> type) throws ReflectiveOperationException;
+
+    <T> PropertyAccessor<T> accessor(Class<T> type, Method getter, Method setter) throws ReflectiveOperationException;
+
+}
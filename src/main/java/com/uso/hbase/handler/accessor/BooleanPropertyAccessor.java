@@ -0,0 +1,9 @@
+package com.uso.hbase.handler.accessor;
+
+public interface BooleanPropertyAccessor<T> extends PropertyAccessor<T> {
+
+    boolean getBoolean(T target) throws ReflectiveOperationException;
+
+    void setBoolean(T target, boolean value) throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,9 @@
+package com.uso.hbase.handler.accessor;
+
+public interface DoublePropertyAccessor<T> extends PropertyAccessor<T> {
+
+    double getDouble(T target) throws ReflectiveOperationException;
+
+    void setDouble(T target, double value) throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,430 @@
+package com.uso.hbase.handler.accessor;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binds getters, setters and the no-arg constructor to functional interfaces spun by {@link LambdaMetafactory}, so
+ * the JIT sees plain interface calls it can inline. Members the metafactory cannot reach (non-public classes or
+ * methods, beans loaded by an unrelated class loader) are bound through {@link MethodHandle#invokeExact} instead.
+ */
+@Slf4j
+public class GeneratedAccessorFactory implements AccessorFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Instantiator<T> instantiator(final Class<T> type) throws ReflectiveOperationException {
+        Constructor<T> constructor = type.getDeclaredConstructor();
+        if (isSpinnable(type, constructor.getModifiers())) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                Supplier<T> supplier = (Supplier<T>) spin(Supplier.class, "get", MethodType.methodType(Object.class),
+                    handle, MethodType.methodType(type));
+                return supplier::get;
+            } catch (final Throwable ex) {
+                log.debug("spin constructor of " + type.getName() + " failed, use method handle", ex);
+            }
+        }
+        constructor.setAccessible(true);
+        MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (T) handle.invokeExact();
+            } catch (final Throwable ex) {
+                throw rethrow(ex);
+            }
+        };
+    }
+
+    @Override
+    public <T> PropertyAccessor<T> accessor(final Class<T> type, final Method getter, final Method setter)
+        throws ReflectiveOperationException {
+        Class<?> propertyType = setter.getParameterTypes()[0];
+        boolean spinnable = isSpinnable(type, getter.getModifiers()) && isSpinnable(type, setter.getModifiers());
+        if (spinnable) {
+            try {
+                return this.spinAccessor(type, propertyType, getter, setter);
+            } catch (final Throwable ex) {
+                log.debug("spin accessor of " + type.getName() + "." + getter.getName() + " failed, use method handle",
+                    ex);
+            }
+        }
+        return this.handleAccessor(propertyType, getter, setter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> PropertyAccessor<T> spinAccessor(final Class<T> type, final Class<?> propertyType, final Method getter,
+                                                 final Method setter) throws Throwable {
+        MethodHandle get = LOOKUP.unreflect(getter);
+        MethodHandle set = LOOKUP.unreflect(setter);
+        if (propertyType == int.class) {
+            return new IntAccessor<>(
+                (ToIntFunction<T>) spin(ToIntFunction.class, "applyAsInt",
+                    MethodType.methodType(int.class, Object.class), get, MethodType.methodType(int.class, type)),
+                (ObjIntConsumer<T>) spin(ObjIntConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, int.class), set,
+                    MethodType.methodType(void.class, type, int.class)));
+        }
+        if (propertyType == long.class) {
+            return new LongAccessor<>(
+                (ToLongFunction<T>) spin(ToLongFunction.class, "applyAsLong",
+                    MethodType.methodType(long.class, Object.class), get, MethodType.methodType(long.class, type)),
+                (ObjLongConsumer<T>) spin(ObjLongConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, long.class), set,
+                    MethodType.methodType(void.class, type, long.class)));
+        }
+        if (propertyType == double.class) {
+            return new DoubleAccessor<>(
+                (ToDoubleFunction<T>) spin(ToDoubleFunction.class, "applyAsDouble",
+                    MethodType.methodType(double.class, Object.class), get, MethodType.methodType(double.class, type)),
+                (ObjDoubleConsumer<T>) spin(ObjDoubleConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, double.class), set,
+                    MethodType.methodType(void.class, type, double.class)));
+        }
+        if (propertyType == boolean.class) {
+            return new BooleanAccessor<>(
+                (ToBooleanFunction<T>) spin(ToBooleanFunction.class, "applyAsBoolean",
+                    MethodType.methodType(boolean.class, Object.class), get,
+                    MethodType.methodType(boolean.class, type)),
+                (ObjBooleanConsumer<T>) spin(ObjBooleanConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, boolean.class), set,
+                    MethodType.methodType(void.class, type, boolean.class)));
+        }
+        Class<?> boxed = MethodType.methodType(propertyType).wrap().returnType();
+        return new ObjectAccessor<>(propertyType,
+            (Function<T, Object>) spin(Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class), get, MethodType.methodType(boxed, type)),
+            (BiConsumer<T, Object>) spin(BiConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, Object.class), set,
+                MethodType.methodType(void.class, type, boxed)));
+    }
+
+    private <T> PropertyAccessor<T> handleAccessor(final Class<?> propertyType, final Method getter,
+                                                   final Method setter) throws IllegalAccessException {
+        getter.setAccessible(true);
+        setter.setAccessible(true);
+        if (propertyType == int.class) {
+            MethodHandle get = exact(getter, int.class, Object.class);
+            MethodHandle set = exact(setter, void.class, Object.class, int.class);
+            return new IntAccessor<>(target -> {
+                try {
+                    return (int) get.invokeExact((Object) target);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            }, (target, value) -> {
+                try {
+                    set.invokeExact((Object) target, value);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            });
+        }
+        if (propertyType == long.class) {
+            MethodHandle get = exact(getter, long.class, Object.class);
+            MethodHandle set = exact(setter, void.class, Object.class, long.class);
+            return new LongAccessor<>(target -> {
+                try {
+                    return (long) get.invokeExact((Object) target);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            }, (target, value) -> {
+                try {
+                    set.invokeExact((Object) target, value);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            });
+        }
+        if (propertyType == double.class) {
+            MethodHandle get = exact(getter, double.class, Object.class);
+            MethodHandle set = exact(setter, void.class, Object.class, double.class);
+            return new DoubleAccessor<>(target -> {
+                try {
+                    return (double) get.invokeExact((Object) target);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            }, (target, value) -> {
+                try {
+                    set.invokeExact((Object) target, value);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            });
+        }
+        if (propertyType == boolean.class) {
+            MethodHandle get = exact(getter, boolean.class, Object.class);
+            MethodHandle set = exact(setter, void.class, Object.class, boolean.class);
+            return new BooleanAccessor<>(target -> {
+                try {
+                    return (boolean) get.invokeExact((Object) target);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            }, (target, value) -> {
+                try {
+                    set.invokeExact((Object) target, value);
+                } catch (final Throwable ex) {
+                    throw rethrow(ex);
+                }
+            });
+        }
+        MethodHandle get = exact(getter, Object.class, Object.class);
+        MethodHandle set = exact(setter, void.class, Object.class, Object.class);
+        return new ObjectAccessor<>(propertyType, target -> {
+            try {
+                return get.invokeExact((Object) target);
+            } catch (final Throwable ex) {
+                throw rethrow(ex);
+            }
+        }, (target, value) -> {
+            try {
+                set.invokeExact((Object) target, value);
+            } catch (final Throwable ex) {
+                throw rethrow(ex);
+            }
+        });
+    }
+
+    private static Object spin(final Class<?> functionalInterface, final String name, final MethodType samType,
+                               final MethodHandle implementation, final MethodType instantiatedType)
+        throws Throwable {
+        return LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(functionalInterface), samType,
+            implementation, instantiatedType).getTarget().invoke();
+    }
+
+    private static MethodHandle exact(final Method method, final Class<?> returnType, final Class<?>... parameterTypes)
+        throws IllegalAccessException {
+        return LOOKUP.unreflect(method).asType(MethodType.methodType(returnType, parameterTypes));
+    }
+
+    /**
+     * The metafactory defines the lambda class next to this class, so the bean must be public and visible from this
+     * class loader for the spun class to link.
+     */
+    private static boolean isSpinnable(final Class<?> type, final int memberModifiers) {
+        if (!Modifier.isPublic(type.getModifiers()) || !Modifier.isPublic(memberModifiers)) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, GeneratedAccessorFactory.class.getClassLoader()) == type;
+        } catch (final ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static RuntimeException rethrow(final Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new UndeclaredThrowableException(ex);
+    }
+
+    private static class ObjectAccessor<T> implements PropertyAccessor<T> {
+
+        private final Class<?> type;
+
+        private final Function<T, Object> getter;
+
+        private final BiConsumer<T, Object> setter;
+
+        private ObjectAccessor(final Class<?> type, final Function<T, Object> getter,
+                               final BiConsumer<T, Object> setter) {
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return this.type;
+        }
+
+        @Override
+        public Object get(final T target) {
+            return this.getter.apply(target);
+        }
+
+        @Override
+        public void set(final T target, final Object value) {
+            this.setter.accept(target, value);
+        }
+
+    }
+
+    private static final class IntAccessor<T> implements IntPropertyAccessor<T> {
+
+        private final ToIntFunction<T> getter;
+
+        private final ObjIntConsumer<T> setter;
+
+        private IntAccessor(final ToIntFunction<T> getter, final ObjIntConsumer<T> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return int.class;
+        }
+
+        @Override
+        public Object get(final T target) {
+            return this.getter.applyAsInt(target);
+        }
+
+        @Override
+        public void set(final T target, final Object value) {
+            this.setter.accept(target, (Integer) value);
+        }
+
+        @Override
+        public int getInt(final T target) {
+            return this.getter.applyAsInt(target);
+        }
+
+        @Override
+        public void setInt(final T target, final int value) {
+            this.setter.accept(target, value);
+        }
+
+    }
+
+    private static final class LongAccessor<T> implements LongPropertyAccessor<T> {
+
+        private final ToLongFunction<T> getter;
+
+        private final ObjLongConsumer<T> setter;
+
+        private LongAccessor(final ToLongFunction<T> getter, final ObjLongConsumer<T> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return long.class;
+        }
+
+        @Override
+        public Object get(final T target) {
+            return this.getter.applyAsLong(target);
+        }
+
+        @Override
+        public void set(final T target, final Object value) {
+            this.setter.accept(target, (Long) value);
+        }
+
+        @Override
+        public long getLong(final T target) {
+            return this.getter.applyAsLong(target);
+        }
+
+        @Override
+        public void setLong(final T target, final long value) {
+            this.setter.accept(target, value);
+        }
+
+    }
+
+    private static final class DoubleAccessor<T> implements DoublePropertyAccessor<T> {
+
+        private final ToDoubleFunction<T> getter;
+
+        private final ObjDoubleConsumer<T> setter;
+
+        private DoubleAccessor(final ToDoubleFunction<T> getter, final ObjDoubleConsumer<T> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return double.class;
+        }
+
+        @Override
+        public Object get(final T target) {
+            return this.getter.applyAsDouble(target);
+        }
+
+        @Override
+        public void set(final T target, final Object value) {
+            this.setter.accept(target, (Double) value);
+        }
+
+        @Override
+        public double getDouble(final T target) {
+            return this.getter.applyAsDouble(target);
+        }
+
+        @Override
+        public void setDouble(final T target, final double value) {
+            this.setter.accept(target, value);
+        }
+
+    }
+
+    private static final class BooleanAccessor<T> implements BooleanPropertyAccessor<T> {
+
+        private final ToBooleanFunction<T> getter;
+
+        private final ObjBooleanConsumer<T> setter;
+
+        private BooleanAccessor(final ToBooleanFunction<T> getter, final ObjBooleanConsumer<T> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return boolean.class;
+        }
+
+        @Override
+        public Object get(final T target) {
+            return this.getter.applyAsBoolean(target);
+        }
+
+        @Override
+        public void set(final T target, final Object value) {
+            this.setter.accept(target, (Boolean) value);
+        }
+
+        @Override
+        public boolean getBoolean(final T target) {
+            return this.getter.applyAsBoolean(target);
+        }
+
+        @Override
+        public void setBoolean(final T target, final boolean value) {
+            this.setter.accept(target, value);
+        }
+
+    }
+
+}
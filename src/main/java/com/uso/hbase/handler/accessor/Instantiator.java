@@ -0,0 +1,7 @@
+package com.uso.hbase.handler.accessor;
+
+public interface Instantiator<T> {
+
+    T newInstance() throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,9 @@
+package com.uso.hbase.handler.accessor;
+
+public interface IntPropertyAccessor<T> extends PropertyAccessor<T> {
+
+    int getInt(T target) throws ReflectiveOperationException;
+
+    void setInt(T target, int value) throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,9 @@
+package com.uso.hbase.handler.accessor;
+
+public interface LongPropertyAccessor<T> extends PropertyAccessor<T> {
+
+    long getLong(T target) throws ReflectiveOperationException;
+
+    void setLong(T target, long value) throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,8 @@
+package com.uso.hbase.handler.accessor;
+
+@FunctionalInterface
+public interface ObjBooleanConsumer<T> {
+
+    void accept(T t, boolean value);
+
+}
@@ -0,0 +1,11 @@
+package com.uso.hbase.handler.accessor;
+
+public interface PropertyAccessor<T> {
+
+    Class<?> getType();
+
+    Object get(T target) throws ReflectiveOperationException;
+
+    void set(T target, Object value) throws ReflectiveOperationException;
+
+}
@@ -0,0 +1,130 @@
+package com.uso.hbase.handler.accessor;
+
+import java.lang.reflect.Method;
+
+public class ReflectiveAccessorFactory implements AccessorFactory {
+
+    @Override
+    public <T> Instantiator<T> instantiator(final Class<T> type) {
+        return type::newInstance;
+    }
+
+    @Override
+    public <T> PropertyAccessor<T> accessor(final Class<T> type, final Method getter, final Method setter) {
+        Class<?> propertyType = setter.getParameterTypes()[0];
+        if (propertyType == int.class) {
+            return new IntAccessor<>(getter, setter);
+        }
+        if (propertyType == long.class) {
+            return new LongAccessor<>(getter, setter);
+        }
+        if (propertyType == double.class) {
+            return new DoubleAccessor<>(getter, setter);
+        }
+        if (propertyType == boolean.class) {
+            return new BooleanAccessor<>(getter, setter);
+        }
+        return new ObjectAccessor<>(getter, setter);
+    }
+
+    private static class ObjectAccessor<T> implements PropertyAccessor<T> {
+
+        private final Method getMethod;
+
+        private final Method setMethod;
+
+        private ObjectAccessor(final Method getMethod, final Method setMethod) {
+            this.getMethod = getMethod;
+            this.setMethod = setMethod;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return this.setMethod.getParameterTypes()[0];
+        }
+
+        @Override
+        public Object get(final T target) throws ReflectiveOperationException {
+            return this.getMethod.invoke(target);
+        }
+
+        @Override
+        public void set(final T target, final Object value) throws ReflectiveOperationException {
+            this.setMethod.invoke(target, value);
+        }
+
+    }
+
+    private static final class IntAccessor<T> extends ObjectAccessor<T> implements IntPropertyAccessor<T> {
+
+        private IntAccessor(final Method getMethod, final Method setMethod) {
+            super(getMethod, setMethod);
+        }
+
+        @Override
+        public int getInt(final T target) throws ReflectiveOperationException {
+            return (Integer) get(target);
+        }
+
+        @Override
+        public void setInt(final T target, final int value) throws ReflectiveOperationException {
+            set(target, value);
+        }
+
+    }
+
+    private static final class LongAccessor<T> extends ObjectAccessor<T> implements LongPropertyAccessor<T> {
+
+        private LongAccessor(final Method getMethod, final Method setMethod) {
+            super(getMethod, setMethod);
+        }
+
+        @Override
+        public long getLong(final T target) throws ReflectiveOperationException {
+            return (Long) get(target);
+        }
+
+        @Override
+        public void setLong(final T target, final long value) throws ReflectiveOperationException {
+            set(target, value);
+        }
+
+    }
+
+    private static final class DoubleAccessor<T> extends ObjectAccessor<T> implements DoublePropertyAccessor<T> {
+
+        private DoubleAccessor(final Method getMethod, final Method setMethod) {
+            super(getMethod, setMethod);
+        }
+
+        @Override
+        public double getDouble(final T target) throws ReflectiveOperationException {
+            return (Double) get(target);
+        }
+
+        @Override
+        public void setDouble(final T target, final double value) throws ReflectiveOperationException {
+            set(target, value);
+        }
+
+    }
+
+    private static final class BooleanAccessor<T> extends ObjectAccessor<T> implements BooleanPropertyAccessor<T> {
+
+        private BooleanAccessor(final Method getMethod, final Method setMethod) {
+            super(getMethod, setMethod);
+        }
+
+        @Override
+        public boolean getBoolean(final T target) throws ReflectiveOperationException {
+            return (Boolean) get(target);
+        }
+
+        @Override
+        public void setBoolean(final T target, final boolean value) throws ReflectiveOperationException {
+            set(target, value);
+        }
+
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.uso.hbase.handler.accessor;
+
+@FunctionalInterface
+public interface ToBooleanFunction<T> {
+
+    boolean applyAsBoolean(T value);
+
+}
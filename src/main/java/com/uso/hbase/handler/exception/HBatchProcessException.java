@@ -0,0 +1,35 @@
+package com.uso.hbase.handler.exception;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+public class HBatchProcessException extends HProcessException {
+
+    private final List<?> results;
+
+    private final SortedMap<Integer, Exception> errors;
+
+    public HBatchProcessException(final List<?> results, final SortedMap<Integer, Exception> errors) {
+        super(errors.size() + " of " + results.size() + " elements failed, first at index " + errors.firstKey(),
+            errors.get(errors.firstKey()));
+        this.results = Collections.unmodifiableList(results);
+        this.errors = Collections.unmodifiableSortedMap(errors);
+    }
+
+    /**
+     * Results in input order, {@code null} at the index of every failed element.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getResults() {
+        return (List<T>) this.results;
+    }
+
+    /**
+     * Failures keyed by the index of the element in the input.
+     */
+    public SortedMap<Integer, Exception> getErrors() {
+        return this.errors;
+    }
+
+}
@@ -6,4 +6,8 @@ public class HProcessException extends Exception {
         super(ex);
     }
 
+    public HProcessException(final String message, final Exception ex) {
+        super(message, ex);
+    }
+
 }
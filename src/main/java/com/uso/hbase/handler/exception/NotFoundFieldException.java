@@ -0,0 +1,13 @@
+package com.uso.hbase.handler.exception;
+
+public class NotFoundFieldException extends RuntimeException {
+
+    public NotFoundFieldException(final String message) {
+        super(message);
+    }
+
+    public NotFoundFieldException(final Class<?> clazz, final String field) {
+        this("not found mapped field '" + field + "' in class " + clazz.getName());
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.uso.hbase.handler.exception;
+
+/**
+ * Carries a {@link HProcessException} through APIs that cannot throw checked exceptions, such as streams.
+ */
+public class UncheckedHProcessException extends RuntimeException {
+
+    public UncheckedHProcessException(final HProcessException ex) {
+        super(ex);
+    }
+
+    @Override
+    public synchronized HProcessException getCause() {
+        return (HProcessException) super.getCause();
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.uso.hbase.metrics;
+
+import java.util.Map;
+
+/**
+ * Mapping metrics of one bean class as exposed by {@link JmxMetricsReporter}. Latencies are in nanoseconds and only
+ * cover sampled calls.
+ */
+public interface BeanMappingMXBean {
+
+    long getConvertSamples();
+
+    double getConvertMeanNanos();
+
+    long getConvertP50Nanos();
+
+    long getConvertP99Nanos();
+
+    long getConvertMaxNanos();
+
+    long getBuildPutSamples();
+
+    double getBuildPutMeanNanos();
+
+    long getBuildPutP50Nanos();
+
+    long getBuildPutP99Nanos();
+
+    long getBuildPutMaxNanos();
+
+    long getRowsDecoded();
+
+    long getBytesDecoded();
+
+    double getMissingColumnsPerRow();
+
+    long getRowsEncoded();
+
+    long getBytesEncoded();
+
+    long getNullColumns();
+
+    Map<String, Long> getFailures();
+
+}
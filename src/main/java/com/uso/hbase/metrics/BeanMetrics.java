@@ -0,0 +1,50 @@
+package com.uso.hbase.metrics;
+
+/**
+ * Metrics of one bean class. Timing and missing column counts are only recorded for the calls {@link #sample()}
+ * selects, every other method is called on each conversion.
+ */
+public interface BeanMetrics {
+
+    BeanMetrics NOOP = new BeanMetrics() {
+    };
+
+    /**
+     * Whether the current call is timed.
+     */
+    default boolean sample() {
+        return false;
+    }
+
+    default void recordConvertTime(final long nanos) {
+    }
+
+    default void recordBuildPutTime(final long nanos) {
+    }
+
+    /**
+     * @param bytes value bytes of the decoded row
+     */
+    default void recordDecoded(final long bytes) {
+    }
+
+    /**
+     * Mapped columns absent from a sampled row.
+     */
+    default void recordMissingColumns(final int columns) {
+    }
+
+    /**
+     * @param bytes       value bytes of the encoded row
+     * @param nullColumns mapped columns left out because the field is {@code null}
+     */
+    default void recordEncoded(final long bytes, final int nullColumns) {
+    }
+
+    /**
+     * @param converter class name of the failing converter, or of the exception if unknown
+     */
+    default void recordFailure(final String converter) {
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.uso.hbase.metrics;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the metrics of every bean class of a {@link StripedMappingMetrics} as a {@link BeanMappingMXBean} named
+ * {@code <domain>:type=BeanMapping,name=<bean class>}, including classes first seen after {@link #start()}.
+ */
+@Slf4j
+public class JmxMetricsReporter implements Closeable {
+
+    public static final String DEFAULT_DOMAIN = "com.uso.hbase";
+
+    private final StripedMappingMetrics metrics;
+
+    private final MBeanServer server;
+
+    private final String domain;
+
+    private final Set<ObjectName> registered = ConcurrentHashMap.newKeySet();
+
+    private final BiConsumer<Class<?>, StripedBeanMetrics> listener = this::register;
+
+    public JmxMetricsReporter(final StripedMappingMetrics metrics) {
+        this(metrics, ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+    }
+
+    public JmxMetricsReporter(final StripedMappingMetrics metrics, final MBeanServer server, final String domain) {
+        this.metrics = metrics;
+        this.server = server;
+        this.domain = domain;
+    }
+
+    public void start() {
+        this.metrics.addListener(this.listener);
+    }
+
+    /**
+     * Stops publishing new classes and unregisters the published ones.
+     */
+    @Override
+    public void close() {
+        this.metrics.removeListener(this.listener);
+        for (ObjectName name : this.registered) {
+            try {
+                this.server.unregisterMBean(name);
+            } catch (final JMException ex) {
+                log.warn("unregister " + name + " failed", ex);
+            }
+        }
+        this.registered.clear();
+    }
+
+    private void register(final Class<?> beanClass, final StripedBeanMetrics beanMetrics) {
+        try {
+            ObjectName name = new ObjectName(this.domain + ":type=BeanMapping,name="
+                + ObjectName.quote(beanClass.getName()));
+            if (this.registered.add(name)) {
+                this.server.registerMBean(new BeanMapping(beanMetrics), name);
+            }
+        } catch (final JMException ex) {
+            log.warn("register metrics of " + beanClass.getName() + " failed", ex);
+        }
+    }
+
+    private static final class BeanMapping implements BeanMappingMXBean {
+
+        private final StripedBeanMetrics metrics;
+
+        private BeanMapping(final StripedBeanMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public long getConvertSamples() {
+            return this.metrics.getConvertLatency().getCount();
+        }
+
+        @Override
+        public double getConvertMeanNanos() {
+            return this.metrics.getConvertLatency().getMean();
+        }
+
+        @Override
+        public long getConvertP50Nanos() {
+            return this.metrics.getConvertLatency().getPercentile(0.5);
+        }
+
+        @Override
+        public long getConvertP99Nanos() {
+            return this.metrics.getConvertLatency().getPercentile(0.99);
+        }
+
+        @Override
+        public long getConvertMaxNanos() {
+            return this.metrics.getConvertLatency().getMax();
+        }
+
+        @Override
+        public long getBuildPutSamples() {
+            return this.metrics.getBuildPutLatency().getCount();
+        }
+
+        @Override
+        public double getBuildPutMeanNanos() {
+            return this.metrics.getBuildPutLatency().getMean();
+        }
+
+        @Override
+        public long getBuildPutP50Nanos() {
+            return this.metrics.getBuildPutLatency().getPercentile(0.5);
+        }
+
+        @Override
+        public long getBuildPutP99Nanos() {
+            return this.metrics.getBuildPutLatency().getPercentile(0.99);
+        }
+
+        @Override
+        public long getBuildPutMaxNanos() {
+            return this.metrics.getBuildPutLatency().getMax();
+        }
+
+        @Override
+        public long getRowsDecoded() {
+            return this.metrics.getRowsDecoded();
+        }
+
+        @Override
+        public long getBytesDecoded() {
+            return this.metrics.getBytesDecoded();
+        }
+
+        @Override
+        public double getMissingColumnsPerRow() {
+            return this.metrics.getMissingColumnsPerRow();
+        }
+
+        @Override
+        public long getRowsEncoded() {
+            return this.metrics.getRowsEncoded();
+        }
+
+        @Override
+        public long getBytesEncoded() {
+            return this.metrics.getBytesEncoded();
+        }
+
+        @Override
+        public long getNullColumns() {
+            return this.metrics.getNullColumns();
+        }
+
+        @Override
+        public Map<String, Long> getFailures() {
+            return this.metrics.getFailures();
+        }
+
+    }
+
+}
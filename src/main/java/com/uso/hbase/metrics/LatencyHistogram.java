@@ -0,0 +1,74 @@
+package com.uso.hbase.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies in power-of-two buckets of nanoseconds, so recording is one {@link LongAdder} increment. Percentiles are
+ * the upper bound of their bucket, at most twice the real value.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+        this.buckets[value == 0 ? 0 : BUCKETS - 1 - Long.numberOfLeadingZeros(value)].increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public double getMean() {
+        long count = this.getCount();
+        return count == 0 ? 0 : (double) this.sum.sum() / count;
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     */
+    public long getPercentile(final double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(this.getMax(), i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+            }
+        }
+        return this.getMax();
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.uso.hbase.metrics;
+
+/**
+ * Instrumentation of the mapping layer, see {@link com.uso.hbase.handler.DefaultHandlerFactory#setMetrics}. Called
+ * on every conversion from the converting threads, so implementations must be thread-safe and cheap.
+ */
+public interface MappingMetrics {
+
+    /**
+     * Records nothing. The factory skips all instrumentation work when this instance is set.
+     */
+    MappingMetrics NOOP = beanClass -> BeanMetrics.NOOP;
+
+    /**
+     * @return the metrics of the bean class, the same instance on every call
+     */
+    BeanMetrics forClass(Class<?> beanClass);
+
+}
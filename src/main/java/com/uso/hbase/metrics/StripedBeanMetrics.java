@@ -0,0 +1,125 @@
+package com.uso.hbase.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * The {@link BeanMetrics} of {@link StripedMappingMetrics}.
+ */
+public final class StripedBeanMetrics implements BeanMetrics {
+
+    private final int sampleInterval;
+
+    @Getter
+    private final LatencyHistogram convertLatency = new LatencyHistogram();
+
+    @Getter
+    private final LatencyHistogram buildPutLatency = new LatencyHistogram();
+
+    private final LongAdder rowsDecoded = new LongAdder();
+
+    private final LongAdder bytesDecoded = new LongAdder();
+
+    private final LongAdder sampledRows = new LongAdder();
+
+    private final LongAdder missingColumns = new LongAdder();
+
+    private final LongAdder rowsEncoded = new LongAdder();
+
+    private final LongAdder bytesEncoded = new LongAdder();
+
+    private final LongAdder nullColumns = new LongAdder();
+
+    private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    StripedBeanMetrics(final int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    @Override
+    public boolean sample() {
+        return this.sampleInterval == 1 || ThreadLocalRandom.current().nextInt(this.sampleInterval) == 0;
+    }
+
+    @Override
+    public void recordConvertTime(final long nanos) {
+        this.convertLatency.record(nanos);
+    }
+
+    @Override
+    public void recordBuildPutTime(final long nanos) {
+        this.buildPutLatency.record(nanos);
+    }
+
+    @Override
+    public void recordDecoded(final long bytes) {
+        this.rowsDecoded.increment();
+        this.bytesDecoded.add(bytes);
+    }
+
+    @Override
+    public void recordMissingColumns(final int columns) {
+        this.sampledRows.increment();
+        this.missingColumns.add(columns);
+    }
+
+    @Override
+    public void recordEncoded(final long bytes, final int nullColumns) {
+        this.rowsEncoded.increment();
+        this.bytesEncoded.add(bytes);
+        this.nullColumns.add(nullColumns);
+    }
+
+    @Override
+    public void recordFailure(final String converter) {
+        LongAdder count = this.failures.get(converter);
+        if (count == null) {
+            count = this.failures.computeIfAbsent(converter, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public long getRowsDecoded() {
+        return this.rowsDecoded.sum();
+    }
+
+    public long getBytesDecoded() {
+        return this.bytesDecoded.sum();
+    }
+
+    /**
+     * Average number of mapped columns absent from a sampled row.
+     */
+    public double getMissingColumnsPerRow() {
+        long rows = this.sampledRows.sum();
+        return rows == 0 ? 0 : (double) this.missingColumns.sum() / rows;
+    }
+
+    public long getRowsEncoded() {
+        return this.rowsEncoded.sum();
+    }
+
+    public long getBytesEncoded() {
+        return this.bytesEncoded.sum();
+    }
+
+    public long getNullColumns() {
+        return this.nullColumns.sum();
+    }
+
+    /**
+     * @return failures by converter name
+     */
+    public Map<String, Long> getFailures() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        this.failures.forEach((converter, count) -> snapshot.put(converter, count.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.uso.hbase.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link MappingMetrics} kept in memory with {@link java.util.concurrent.atomic.LongAdder}s, which threads update
+ * without contending. One call in {@code sampleInterval} is timed, chosen at random per thread.
+ */
+public class StripedMappingMetrics implements MappingMetrics {
+
+    private final int sampleInterval;
+
+    private final ConcurrentMap<Class<?>, StripedBeanMetrics> beans = new ConcurrentHashMap<>();
+
+    private final CopyOnWriteArrayList<BiConsumer<Class<?>, StripedBeanMetrics>> listeners =
+        new CopyOnWriteArrayList<>();
+
+    public StripedMappingMetrics() {
+        this(64);
+    }
+
+    /**
+     * @param sampleInterval 1 to time every call
+     */
+    public StripedMappingMetrics(final int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    @Override
+    public StripedBeanMetrics forClass(final Class<?> beanClass) {
+        StripedBeanMetrics metrics = this.beans.get(beanClass);
+        if (metrics == null) {
+            StripedBeanMetrics created = new StripedBeanMetrics(this.sampleInterval);
+            metrics = this.beans.putIfAbsent(beanClass, created);
+            if (metrics == null) {
+                metrics = created;
+                for (BiConsumer<Class<?>, StripedBeanMetrics> listener : this.listeners) {
+                    listener.accept(beanClass, created);
+                }
+            }
+        }
+        return metrics;
+    }
+
+    public Map<Class<?>, StripedBeanMetrics> getBeanMetrics() {
+        return Collections.unmodifiableMap(this.beans);
+    }
+
+    /**
+     * Calls the listener with the metrics of every class seen so far and of every class seen later.
+     */
+    public void addListener(final BiConsumer<Class<?>, StripedBeanMetrics> listener) {
+        this.listeners.add(listener);
+        this.beans.forEach(listener);
+    }
+
+    public void removeListener(final BiConsumer<Class<?>, StripedBeanMetrics> listener) {
+        this.listeners.remove(listener);
+    }
+
+}
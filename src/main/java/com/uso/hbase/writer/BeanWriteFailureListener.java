@@ -0,0 +1,13 @@
+package com.uso.hbase.writer;
+
+import java.util.List;
+
+/**
+ * Told about the beans a {@link BeanWriter} could not write. Called from the flusher thread.
+ */
+@FunctionalInterface
+public interface BeanWriteFailureListener {
+
+    void onFailure(List<Object> beans, Exception cause);
+
+}
@@ -0,0 +1,344 @@
+package com.uso.hbase.writer;
+
+import com.uso.hbase.handler.HandlerFactory;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+
+/**
+ * Writes beans through a {@link BufferedMutator} in batches. Beans are converted to {@link Put}s on the submitting
+ * thread and queued without locking; one flusher thread hands them to the mutator and flushes it once
+ * {@code flushBatchSize} beans are buffered or the oldest has waited {@code flushIntervalMillis}. A bean holds its
+ * buffer slot until its write has succeeded or failed, so the buffer bounds the beans in flight too.
+ */
+@Slf4j
+public class BeanWriter implements Closeable {
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final HandlerFactory handlerFactory;
+
+    private final BufferedMutator mutator;
+
+    private final boolean ownsMutator;
+
+    private final int flushBatchSize;
+
+    private final long flushIntervalNanos;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final BeanWriteFailureListener failureListener;
+
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+    private final Semaphore slots;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Beans of the batch being written by their put, to report the beans of the rows the mutator rejects. Reporting
+     * removes a bean, so the ones left once the batch is flushed are the ones written.
+     */
+    private final Map<Row, Object> inFlight = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Thread flusher;
+
+    private volatile boolean closed;
+
+    private volatile boolean stopping;
+
+    /**
+     * Creates and owns a mutator of the table whose failures are reported as beans.
+     */
+    public BeanWriter(final HandlerFactory handlerFactory, final Connection connection, final TableName tableName,
+                      final BeanWriterConfig config) throws IOException {
+        this(handlerFactory, null, connection, tableName, config);
+    }
+
+    /**
+     * Writes through the given mutator, which the caller keeps owning. Failures are only reported as beans if the
+     * mutator throws them, as it does without {@link BufferedMutatorParams#listener}.
+     */
+    public BeanWriter(final HandlerFactory handlerFactory, final BufferedMutator mutator,
+                      final BeanWriterConfig config) throws IOException {
+        this(handlerFactory, mutator, null, null, config);
+    }
+
+    private BeanWriter(final HandlerFactory handlerFactory, final BufferedMutator mutator,
+                       final Connection connection, final TableName tableName, final BeanWriterConfig config)
+        throws IOException {
+        if (config.getFlushBatchSize() < 1 || config.getMaxBufferedBeans() < config.getFlushBatchSize()) {
+            throw new IllegalArgumentException("need 0 < flushBatchSize <= maxBufferedBeans");
+        }
+        this.handlerFactory = handlerFactory;
+        this.flushBatchSize = config.getFlushBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFlushIntervalMillis()));
+        this.overflowPolicy = config.getOverflowPolicy();
+        this.failureListener = config.getFailureListener() != null ? config.getFailureListener()
+            : (beans, cause) -> log.error("write of " + beans.size() + " beans failed", cause);
+        this.slots = new Semaphore(config.getMaxBufferedBeans());
+        this.ownsMutator = mutator == null;
+        this.mutator = mutator != null ? mutator : connection.getBufferedMutator(
+            new BufferedMutatorParams(tableName).listener((ex, source) -> this.reportRejected(ex)));
+        this.flusher = new Thread(this::run, "hbase-bean-writer-" + THREAD_ID.incrementAndGet());
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Converts the bean and buffers its put.
+     *
+     * @throws RejectedExecutionException if the buffer is full and the policy is {@link OverflowPolicy#REJECT}
+     * @throws IllegalStateException      if the writer is closed
+     */
+    public void submit(final Object bean) throws HProcessException, InterruptedException {
+        this.submitting.incrementAndGet();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("writer is closed");
+            }
+            Put put = this.handlerFactory.buildPut(bean);
+            if (this.overflowPolicy == OverflowPolicy.REJECT) {
+                if (!this.slots.tryAcquire()) {
+                    throw new RejectedExecutionException("writer buffer is full");
+                }
+            } else {
+                this.slots.acquire();
+            }
+            this.queue.offer(new Entry(bean, put));
+            if (this.pending.incrementAndGet() >= this.flushBatchSize) {
+                LockSupport.unpark(this.flusher);
+            }
+        } finally {
+            this.submitting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Writes every bean submitted before the call and waits for it. Failed beans go to the failure listener.
+     */
+    public void flush() throws IOException {
+        if (Thread.currentThread() == this.flusher) {
+            throw new IllegalStateException("flush from the flusher thread");
+        }
+        Marker marker = new Marker();
+        this.queue.offer(marker);
+        LockSupport.unpark(this.flusher);
+        try {
+            while (!marker.done.isDone()) {
+                try {
+                    marker.done.get(this.flushIntervalNanos, TimeUnit.NANOSECONDS);
+                } catch (final TimeoutException ex) {
+                    if (!this.flusher.isAlive() && this.queue.remove(marker)) {
+                        // closed meanwhile, everything submitted before has been written
+                        return;
+                    }
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while flushing", ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException("flush failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Rejects new beans, writes the buffered ones and stops the flusher. Closes the mutator if the writer created it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        while (this.submitting.get() > 0) {
+            LockSupport.unpark(this.flusher);
+            Thread.yield();
+        }
+        this.stopping = true;
+        LockSupport.unpark(this.flusher);
+        boolean interrupted = false;
+        while (this.flusher.isAlive()) {
+            try {
+                this.flusher.join();
+            } catch (final InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.ownsMutator) {
+            this.mutator.close();
+        }
+    }
+
+    /**
+     * Beans the mutator accepted and flushed.
+     */
+    public long getWrittenCount() {
+        return this.written.get();
+    }
+
+    public long getFailedCount() {
+        return this.failed.get();
+    }
+
+    public int getBufferedCount() {
+        return this.pending.get();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(this.flushBatchSize);
+        long deadline = System.nanoTime() + this.flushIntervalNanos;
+        while (true) {
+            boolean stop = this.stopping;
+            Object next;
+            while (batch.size() < this.flushBatchSize && (next = this.queue.poll()) != null) {
+                if (next instanceof Marker) {
+                    this.write(batch);
+                    ((Marker) next).done.complete(null);
+                } else {
+                    this.pending.decrementAndGet();
+                    batch.add((Entry) next);
+                }
+            }
+            long now = System.nanoTime();
+            if (batch.size() >= this.flushBatchSize || now - deadline >= 0 || stop) {
+                this.write(batch);
+                deadline = now + this.flushIntervalNanos;
+            }
+            if (stop && this.queue.isEmpty()) {
+                return;
+            }
+            if (batch.size() < this.flushBatchSize && this.pending.get() + batch.size() < this.flushBatchSize
+                && this.queue.isEmpty()) {
+                LockSupport.parkNanos(this, Math.max(0, deadline - System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Hands the batch to the mutator and flushes it, then frees the buffer slots whatever the outcome. Beans of rows
+     * the mutator rejected are reported whether it threw them or passed them to the listener of an owned mutator.
+     */
+    private void write(final List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Put> puts = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            puts.add(entry.put);
+            this.inFlight.put(entry.put, entry.bean);
+        }
+        try {
+            this.mutator.mutate(puts);
+            this.mutator.flush();
+        } catch (final RetriesExhaustedWithDetailsException ex) {
+            this.reportRejected(ex);
+        } catch (final IOException | RuntimeException ex) {
+            // the rows the listener did not report yet, their fate is unknown
+            List<Object> beans = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                Object bean = this.inFlight.remove(entry.put);
+                if (bean != null) {
+                    beans.add(bean);
+                }
+            }
+            this.report(beans, ex);
+        } finally {
+            synchronized (this.inFlight) {
+                this.written.addAndGet(this.inFlight.size());
+                this.inFlight.clear();
+            }
+            try {
+                for (Entry entry : batch) {
+                    this.handlerFactory.notifyWritten(entry.bean, entry.put.getRow());
+                }
+            } catch (final RuntimeException ex) {
+                log.error("write listener threw", ex);
+            }
+            this.slots.release(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Reports the beans of the rejected rows of the current batch, rows of earlier batches are no longer known.
+     */
+    private void reportRejected(final RetriesExhaustedWithDetailsException ex) {
+        List<Object> beans = new ArrayList<>(ex.getNumExceptions());
+        for (int i = 0; i < ex.getNumExceptions(); i++) {
+            Object bean = this.inFlight.remove(ex.getRow(i));
+            if (bean != null) {
+                beans.add(bean);
+            }
+        }
+        this.report(beans, ex);
+    }
+
+    private void report(final List<Object> beans, final Exception cause) {
+        if (beans.isEmpty()) {
+            log.error("write failed for rows no longer buffered", cause);
+            return;
+        }
+        this.failed.addAndGet(beans.size());
+        try {
+            this.failureListener.onFailure(beans, cause);
+        } catch (final RuntimeException ex) {
+            log.error("failure listener threw", ex);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object bean;
+
+        private final Put put;
+
+        private Entry(final Object bean, final Put put) {
+            this.bean = bean;
+            this.put = put;
+        }
+
+    }
+
+    private static final class Marker {
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.uso.hbase.writer;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of a {@link BeanWriter}, read once when the writer is created.
+ */
+@Setter
+@Getter
+public class BeanWriterConfig {
+
+    /**
+     * Beans submitted but not written yet, beyond which {@link #overflowPolicy} applies.
+     */
+    private int maxBufferedBeans = 10000;
+
+    /**
+     * Beans that trigger a flush as soon as they are buffered.
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * Longest time a bean stays buffered before it is flushed.
+     */
+    private long flushIntervalMillis = 1000;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * {@code null} logs the failures.
+     */
+    private BeanWriteFailureListener failureListener;
+
+}
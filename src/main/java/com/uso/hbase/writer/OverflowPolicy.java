@@ -0,0 +1,18 @@
+package com.uso.hbase.writer;
+
+/**
+ * What {@link BeanWriter#submit} does when the buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait until the flusher has written enough beans.
+     */
+    BLOCK,
+
+    /**
+     * Throw {@link java.util.concurrent.RejectedExecutionException} at once.
+     */
+    REJECT
+
+}
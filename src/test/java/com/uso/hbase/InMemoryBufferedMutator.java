@@ -0,0 +1,189 @@
+package com.uso.hbase;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * In-process stand-in for a {@link BufferedMutator} that applies its puts to an {@link InMemoryTable} on flush, for
+ * tests. Like the real one, rows it fails go to the listener of the {@link BufferedMutatorParams} it was created from,
+ * and are thrown as a {@link RetriesExhaustedWithDetailsException} without one.
+ */
+public final class InMemoryBufferedMutator implements BufferedMutator {
+
+    private final InMemoryTable table;
+
+    private final List<Mutation> buffer = new ArrayList<>();
+
+    private final List<Integer> flushes = Collections.synchronizedList(new ArrayList<>());
+
+    private final Set<String> failingRows = ConcurrentHashMap.newKeySet();
+
+    private volatile ExceptionListener listener;
+
+    private volatile CountDownLatch gate;
+
+    private volatile IOException flushFailure;
+
+    private volatile boolean closed;
+
+    public InMemoryBufferedMutator(final InMemoryTable table) {
+        this.table = table;
+    }
+
+    /**
+     * A {@link Connection} whose {@link Connection#getBufferedMutator(BufferedMutatorParams)} returns this mutator,
+     * taking over the listener of the params.
+     */
+    public Connection connection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("getBufferedMutator") && args[0] instanceof BufferedMutatorParams) {
+                    this.listener = ((BufferedMutatorParams) args[0]).getListener();
+                    return this;
+                }
+                throw new UnsupportedOperationException(method.toString());
+            });
+    }
+
+    /**
+     * Makes flushes fail the puts of the row instead of applying them.
+     */
+    public void failRow(final String row) {
+        this.failingRows.add(row);
+    }
+
+    /**
+     * Makes every flush throw the exception before applying anything, {@code null} to stop.
+     */
+    public void setFlushFailure(final IOException flushFailure) {
+        this.flushFailure = flushFailure;
+    }
+
+    /**
+     * Makes flushes wait until {@link #release()}.
+     */
+    public void hold() {
+        this.gate = new CountDownLatch(1);
+    }
+
+    public void release() {
+        CountDownLatch held = this.gate;
+        this.gate = null;
+        if (held != null) {
+            held.countDown();
+        }
+    }
+
+    /**
+     * Mutations applied or failed by each flush that had any, in order.
+     */
+    public List<Integer> getFlushes() {
+        return this.flushes;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public TableName getName() {
+        return TableName.valueOf("memory");
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void mutate(final Mutation mutation) {
+        this.buffer.add(mutation);
+    }
+
+    @Override
+    public synchronized void mutate(final List<? extends Mutation> mutations) {
+        this.buffer.addAll(mutations);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        CountDownLatch held = this.gate;
+        if (held != null) {
+            try {
+                held.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while held", ex);
+            }
+        }
+        IOException failure = this.flushFailure;
+        if (failure != null) {
+            throw failure;
+        }
+        List<Mutation> mutations;
+        synchronized (this) {
+            mutations = new ArrayList<>(this.buffer);
+            this.buffer.clear();
+        }
+        if (mutations.isEmpty()) {
+            return;
+        }
+        this.flushes.add(mutations.size());
+        List<Throwable> causes = new ArrayList<>();
+        List<Row> rows = new ArrayList<>();
+        List<String> hosts = new ArrayList<>();
+        for (Mutation mutation : mutations) {
+            if (this.failingRows.contains(Bytes.toString(mutation.getRow()))) {
+                causes.add(new IOException("row failed"));
+                rows.add(mutation);
+                hosts.add("localhost:16020");
+            } else {
+                this.table.put((Put) mutation);
+            }
+        }
+        if (!rows.isEmpty()) {
+            RetriesExhaustedWithDetailsException ex = new RetriesExhaustedWithDetailsException(causes, rows, hosts);
+            ExceptionListener current = this.listener;
+            if (current == null) {
+                throw ex;
+            }
+            current.onException(ex, this);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.flush();
+        this.closed = true;
+    }
+
+    @Override
+    public long getWriteBufferSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void setRpcTimeout(final int timeout) {
+    }
+
+    @Override
+    public void setOperationTimeout(final int timeout) {
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.uso.hbase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+/**
+ * In-process stand-in for a {@link Table} holding the latest cell of every column, for tests. Supports gets, puts and
+ * forward scans bounded by start and stop row; every other method throws {@link UnsupportedOperationException}.
+ */
+public final class InMemoryTable implements InvocationHandler {
+
+    private final NavigableMap<byte[], NavigableMap<byte[], Cell>> rows =
+        new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR);
+
+    private final List<Scan> scans = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger openScanners = new AtomicInteger();
+
+    private final AtomicInteger maxOpenScanners = new AtomicInteger();
+
+    private volatile long nextDelayMillis;
+
+    public Table asTable() {
+        return (Table) Proxy.newProxyInstance(Table.class.getClassLoader(), new Class<?>[]{Table.class}, this);
+    }
+
+    public void put(final Put put) {
+        NavigableMap<byte[], Cell> columns = this.rows.computeIfAbsent(put.getRow(),
+            row -> new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR));
+        for (List<Cell> cells : put.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                columns.put(Bytes.add(CellUtil.cloneFamily(cell), new byte[]{':'}, CellUtil.cloneQualifier(cell)),
+                    cell);
+            }
+        }
+    }
+
+    public Result get(final byte[] row) {
+        NavigableMap<byte[], Cell> columns = this.rows.get(row);
+        if (columns == null) {
+            return Result.EMPTY_RESULT;
+        }
+        List<Cell> cells = new ArrayList<>(columns.values());
+        cells.sort(CellComparator.getInstance());
+        return Result.create(cells);
+    }
+
+    /**
+     * Scans passed to {@link Table#getScanner(Scan)}, in order.
+     */
+    public List<Scan> getScans() {
+        return this.scans;
+    }
+
+    public int getOpenScanners() {
+        return this.openScanners.get();
+    }
+
+    public int getMaxOpenScanners() {
+        return this.maxOpenScanners.get();
+    }
+
+    /**
+     * Makes every {@link ResultScanner#next()} sleep, so that scanners stay open long enough to overlap.
+     */
+    public void setNextDelayMillis(final long nextDelayMillis) {
+        this.nextDelayMillis = nextDelayMillis;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        Class<?>[] types = method.getParameterTypes();
+        switch (method.getName()) {
+            case "getScanner":
+                if (types.length == 1 && types[0] == Scan.class) {
+                    return this.scanner((Scan) args[0]);
+                }
+                break;
+            case "get":
+                if (types[0] == Get.class) {
+                    return this.get(((Get) args[0]).getRow());
+                }
+                if (types[0] == List.class) {
+                    List<?> gets = (List<?>) args[0];
+                    Result[] results = new Result[gets.size()];
+                    for (int i = 0; i < results.length; i++) {
+                        results[i] = this.get(((Get) gets.get(i)).getRow());
+                    }
+                    return results;
+                }
+                break;
+            case "put":
+                if (types[0] == Put.class) {
+                    this.put((Put) args[0]);
+                    return null;
+                }
+                if (types[0] == List.class) {
+                    for (Object put : (List<?>) args[0]) {
+                        this.put((Put) put);
+                    }
+                    return null;
+                }
+                break;
+            case "close":
+                return null;
+            case "toString":
+                return "InMemoryTable";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException(method.toString());
+    }
+
+    private ResultScanner scanner(final Scan scan) {
+        if (scan.isReversed()) {
+            throw new UnsupportedOperationException("reversed scan");
+        }
+        this.scans.add(scan);
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<byte[], NavigableMap<byte[], Cell>> entry : this.rows.entrySet()) {
+            if (inRange(entry.getKey(), scan)) {
+                results.add(this.get(entry.getKey()));
+            }
+        }
+        int open = this.openScanners.incrementAndGet();
+        this.maxOpenScanners.accumulateAndGet(open, Math::max);
+        return new Scanner(results.iterator());
+    }
+
+    private static boolean inRange(final byte[] row, final Scan scan) {
+        int start = Bytes.compareTo(row, scan.getStartRow());
+        if (start < 0 || start == 0 && !scan.includeStartRow()) {
+            return false;
+        }
+        if (scan.getStopRow().length == 0) {
+            return true;
+        }
+        int stop = Bytes.compareTo(row, scan.getStopRow());
+        return stop < 0 || stop == 0 && scan.includeStopRow();
+    }
+
+    /**
+     * A {@link RegionLocator} of regions starting at the empty row and at each of the given rows.
+     */
+    public static RegionLocator regionLocator(final String... splits) {
+        byte[][] starts = new byte[splits.length + 1][];
+        byte[][] ends = new byte[splits.length + 1][];
+        starts[0] = HConstants.EMPTY_START_ROW;
+        for (int i = 0; i < splits.length; i++) {
+            ends[i] = Bytes.toBytes(splits[i]);
+            starts[i + 1] = ends[i];
+        }
+        ends[splits.length] = HConstants.EMPTY_END_ROW;
+        Pair<byte[][], byte[][]> keys = new Pair<>(starts, ends);
+        return (RegionLocator) Proxy.newProxyInstance(RegionLocator.class.getClassLoader(),
+            new Class<?>[]{RegionLocator.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getStartEndKeys":
+                        return keys;
+                    case "getStartKeys":
+                        return starts;
+                    case "getEndKeys":
+                        return ends;
+                    case "close":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.toString());
+                }
+            });
+    }
+
+    private final class Scanner implements ResultScanner {
+
+        private final Iterator<Result> results;
+
+        private boolean closed;
+
+        private Scanner(final Iterator<Result> results) {
+            this.results = results;
+        }
+
+        @Override
+        public Result next() {
+            if (this.closed) {
+                throw new IllegalStateException("scanner is closed");
+            }
+            long delay = InMemoryTable.this.nextDelayMillis;
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return this.results.hasNext() ? this.results.next() : null;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!this.closed) {
+                this.closed = true;
+                InMemoryTable.this.openScanners.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean renewLease() {
+            return true;
+        }
+
+        @Override
+        public ScanMetrics getScanMetrics() {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.uso.hbase.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.handler.DefaultHandlerFactory;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.Data;
+import org.apache.hadoop.hbase.client.AsyncTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.junit.After;
+import org.junit.Test;
+
+public class AsyncBeanTableTest {
+
+    private final DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+
+    private final List<CompletableFuture<Result>> gets = new CopyOnWriteArrayList<>();
+
+    private final AsyncBeanTable table;
+
+    public AsyncBeanTableTest() {
+        AsyncBeanTableConfig config = new AsyncBeanTableConfig();
+        config.setCoalesceWindowMicros(0);
+        this.table = new AsyncBeanTable(this.handlerFactory, this.asyncTable(), config);
+    }
+
+    @After
+    public void tearDown() {
+        this.table.close();
+    }
+
+    @Test
+    public void sharesAGetInFlight() {
+        CompletableFuture<Item> first = this.table.get("r", Item.class);
+        CompletableFuture<Item> second = this.table.get("r", Item.class);
+        assertEquals(1, this.gets.size());
+        assertEquals(1, this.table.getDeduplicatedCount());
+        this.gets.get(0).complete(Result.EMPTY_RESULT);
+        assertNull(first.join());
+        assertNull(second.join());
+    }
+
+    @Test
+    public void doesNotShareAGetSentBeforeAWriteCompleted() {
+        this.table.get("r", Item.class);
+        Item item = new Item();
+        item.setId("r");
+        item.setValue(1);
+        this.table.put(item).join();
+        this.table.get("r", Item.class);
+        assertEquals(2, this.gets.size());
+        assertEquals(0, this.table.getDeduplicatedCount());
+    }
+
+    private AsyncTable<?> asyncTable() {
+        return (AsyncTable<?>) Proxy.newProxyInstance(AsyncTable.class.getClassLoader(),
+            new Class<?>[]{AsyncTable.class}, (proxy, method, args) -> {
+                if (method.getName().equals("get") && method.getParameterCount() == 1
+                    && !(args[0] instanceof List)) {
+                    CompletableFuture<Result> result = new CompletableFuture<>();
+                    this.gets.add(result);
+                    return result;
+                }
+                if (method.getName().equals("put") && !(args[0] instanceof List)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                throw new UnsupportedOperationException(method.toString());
+            });
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Item {
+
+        @HRowkey
+        private String id;
+
+        private int value;
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.uso.hbase.cache;
+
+import static org.junit.Assert.assertEquals;
+
+import com.uso.hbase.InMemoryBufferedMutator;
+import com.uso.hbase.InMemoryTable;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.handler.DefaultHandlerFactory;
+import com.uso.hbase.writer.BeanWriter;
+import com.uso.hbase.writer.BeanWriterConfig;
+import lombok.Data;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BeanCacheTest {
+
+    private final DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+
+    private final InMemoryTable memoryTable = new InMemoryTable();
+
+    private final Table table = this.memoryTable.asTable();
+
+    private final BeanCache cache = new BeanCache(this.handlerFactory, new BeanCacheConfig());
+
+    @Before
+    public void setUp() throws Exception {
+        this.handlerFactory.addWriteListener(this.cache);
+        this.memoryTable.put(this.handlerFactory.buildPut(item(1)));
+    }
+
+    @Test
+    public void dropsBeanReadBeforeTheWriteWasApplied() throws Exception {
+        Item update = item(2);
+        Put put = this.handlerFactory.buildPut(update);
+        assertEquals(1, this.cache.get(this.table, "r", Item.class).getValue());
+        this.memoryTable.put(put);
+        this.handlerFactory.notifyWritten(update, put.getRow());
+        assertEquals(2, this.cache.get(this.table, "r", Item.class).getValue());
+    }
+
+    @Test
+    public void dropsBeanReadWhileABeanWriterFlushes() throws Exception {
+        InMemoryBufferedMutator mutator = new InMemoryBufferedMutator(this.memoryTable);
+        mutator.hold();
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, mutator, new BeanWriterConfig())) {
+            writer.submit(item(2));
+            assertEquals(1, this.cache.get(this.table, "r", Item.class).getValue());
+            mutator.release();
+            writer.flush();
+        } finally {
+            mutator.release();
+        }
+        assertEquals(2, this.cache.get(this.table, "r", Item.class).getValue());
+    }
+
+    private static Item item(final int value) {
+        Item item = new Item();
+        item.setId("r");
+        item.setValue(value);
+        return item;
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Item {
+
+        @HRowkey
+        private String id;
+
+        private int value;
+
+    }
+
+}
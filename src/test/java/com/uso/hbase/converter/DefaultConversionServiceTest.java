@@ -0,0 +1,134 @@
+package com.uso.hbase.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.converter.exception.NotFoundConverterException;
+import com.uso.hbase.handler.DefaultHandlerFactory;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+public class DefaultConversionServiceTest {
+
+    private final DefaultConversionService conversionService = new DefaultConversionService();
+
+    @Test
+    public void rejectsFixedWidthValuesOfAnotherLength() {
+        this.assertWidth(UUID.randomUUID(), 16);
+        this.assertWidth(Instant.ofEpochSecond(-1, 5), 12);
+        this.assertWidth(LocalDateTime.of(2020, 1, 2, 3, 4, 5, 6), 12);
+    }
+
+    @Test
+    public void readsBackOnlyTypesWithAConverterOfTheirOwn() {
+        assertTrue(this.conversionService.canConvert(Date.class));
+        assertTrue(this.conversionService.canConvert(int.class));
+        assertTrue(this.conversionService.canConvert(Thread.State.class));
+        assertFalse(this.conversionService.canConvert(Timestamp.class));
+        Timestamp timestamp = new Timestamp(1234567L);
+        byte[] bytes = this.conversionService.convert(timestamp);
+        assertEquals(new Date(1234567L), this.conversionService.from(bytes, Date.class));
+        try {
+            this.conversionService.from(bytes, Timestamp.class);
+            fail("read a timestamp through the date converter");
+        } catch (final NotFoundConverterException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains(Date.class.getName()));
+        }
+        try {
+            this.conversionService.register(Timestamp.class);
+            fail("registered a timestamp without a converter reading it");
+        } catch (final NotFoundConverterException expected) {
+            // only writes it
+        }
+    }
+
+    @Test
+    public void failsHandlerOfAFieldOnlyASupertypeConverts() throws Exception {
+        DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+        Event event = new Event();
+        event.setId("e");
+        event.setAt(new Timestamp(1234567L));
+        Put put = handlerFactory.buildPut(event);
+        try {
+            handlerFactory.convert(Result.create(put.getFamilyCellMap().get(new byte[]{'D'})), Event.class);
+            fail("decoded a timestamp field through the date converter");
+        } catch (final HProcessException expected) {
+            assertTrue(rootCause(expected) instanceof NotFoundConverterException);
+        }
+        try {
+            handlerFactory.register(Event.class);
+            fail("registered a bean with a timestamp field");
+        } catch (final HProcessException expected) {
+            assertTrue(rootCause(expected) instanceof NotFoundConverterException);
+        }
+        this.conversionService.addConverter(new TimestampConverter());
+        handlerFactory.setConversionService(this.conversionService);
+        handlerFactory.register(Event.class);
+        put = handlerFactory.buildPut(event);
+        Event read = handlerFactory.convert(Result.create(put.getFamilyCellMap().get(new byte[]{'D'})), Event.class);
+        assertEquals(event, read);
+    }
+
+    private void assertWidth(final Object value, final int width) {
+        byte[] bytes = this.conversionService.convert(value);
+        assertEquals(width, bytes.length);
+        assertEquals(value, this.conversionService.from(bytes, value.getClass()));
+        byte[] padded = Arrays.copyOf(bytes, width + 1);
+        for (int length : new int[]{width - 1, width + 1}) {
+            try {
+                this.conversionService.from(padded, 0, length, value.getClass());
+                fail("read a " + value.getClass().getName() + " of " + length + " bytes");
+            } catch (final IllegalArgumentException expected) {
+                // wrong width
+            }
+        }
+    }
+
+    private static Throwable rootCause(final Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Event {
+
+        @HRowkey
+        private String id;
+
+        private Timestamp at;
+
+    }
+
+    private static final class TimestampConverter implements Converter<Timestamp> {
+
+        @Override
+        public byte[] convert(final Timestamp source) {
+            return Bytes.toBytes(source.getTime());
+        }
+
+        @Override
+        public Timestamp from(final byte[] bytes) {
+            return new Timestamp(Bytes.toLong(bytes));
+        }
+
+    }
+
+}
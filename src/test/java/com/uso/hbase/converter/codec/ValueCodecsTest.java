@@ -0,0 +1,92 @@
+package com.uso.hbase.converter.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.uso.hbase.annotation.ColumnCodec;
+import com.uso.hbase.converter.DefaultConversionService;
+import com.uso.hbase.converter.exception.NotSupportException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import org.junit.Test;
+
+public class ValueCodecsTest {
+
+    private final DefaultConversionService conversionService = new DefaultConversionService();
+
+    private final ValueCodec longs = ValueCodecs.create(ColumnCodec.VARINT, long.class, null, this.conversionService);
+
+    @Test
+    public void roundTripsVarInts() {
+        for (long value : new long[]{0, 1, -1, 63, -64, 64, 300, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            byte[] bytes = this.longs.encode(value);
+            assertEquals(value, this.longs.decode(bytes, 0, bytes.length));
+        }
+    }
+
+    @Test
+    public void rejectsVarIntRunningPastTheValue() {
+        this.assertMalformed(new byte[]{ValueCodecs.VARINT, (byte) 0x80, (byte) 0x80});
+    }
+
+    @Test
+    public void rejectsVarIntLongerThanTenBytes() {
+        byte[] bytes = new byte[12];
+        Arrays.fill(bytes, (byte) 0x80);
+        bytes[0] = ValueCodecs.VARINT;
+        bytes[11] = 0;
+        this.assertMalformed(bytes);
+    }
+
+    @Test
+    public void rejectsVarIntOverflowingALong() {
+        byte[] bytes = new byte[11];
+        Arrays.fill(bytes, (byte) 0xFF);
+        bytes[0] = ValueCodecs.VARINT;
+        bytes[10] = 0x02;
+        this.assertMalformed(bytes);
+    }
+
+    @Test
+    public void rejectsPaddedVarInt() {
+        this.assertMalformed(new byte[]{ValueCodecs.VARINT, (byte) 0x81, 0});
+    }
+
+    @Test
+    public void deflatesOnlyVariableLengthTypes() {
+        for (Class<?> type : new Class<?>[]{String.class, byte[].class, BigDecimal.class}) {
+            assertTrue(type.getName(), ValueCodecs.supports(ColumnCodec.DEFLATE, type));
+        }
+        for (Class<?> type : new Class<?>[]{int.class, Long.class, double.class, boolean.class, UUID.class,
+            Instant.class, ColumnCodec.class}) {
+            assertFalse(type.getName(), ValueCodecs.supports(ColumnCodec.DEFLATE, type));
+        }
+    }
+
+    @Test
+    public void roundTripsDeflatedValues() {
+        ValueCodec codec = ValueCodecs.create(ColumnCodec.DEFLATE, String.class, null, this.conversionService);
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        String value = new String(chars);
+        for (int i = 0; i < 100; i++) {
+            byte[] bytes = codec.encode(value);
+            assertEquals(ValueCodecs.DEFLATE, bytes[0]);
+            assertEquals(value, codec.decode(bytes, 0, bytes.length));
+        }
+    }
+
+    private void assertMalformed(final byte[] bytes) {
+        try {
+            this.longs.decode(bytes, 0, bytes.length);
+            fail("decoded a malformed varint");
+        } catch (final NotSupportException expected) {
+            assertTrue(expected.getMessage().startsWith("malformed varint"));
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.uso.hbase.handler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.uso.hbase.annotation.HColumnMap;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.annotation.RowStorage;
+import com.uso.hbase.handler.exception.HProcessException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Data;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+public class HRowHandlerTest {
+
+    private final DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+
+    @Test
+    public void skipsStaticFields() throws Exception {
+        Item item = new Item();
+        item.setId("r");
+        item.setValue(7);
+        Put put = this.handlerFactory.buildPut(item);
+        assertEquals(1, put.size());
+        assertEquals(item, this.handlerFactory.convert(result(put), Item.class));
+    }
+
+    @Test
+    public void encodesLookupKeysAsTheFieldType() throws Exception {
+        LongKey bean = new LongKey();
+        bean.setId(42L);
+        byte[] row = this.handlerFactory.buildPut(bean).getRow();
+        assertEquals(8, row.length);
+        assertArrayEquals(row, this.handlerFactory.buildGet(42, LongKey.class).getRow());
+        assertArrayEquals(row, this.handlerFactory.buildGet((short) 42, LongKey.class).getRow());
+        assertArrayEquals(row, this.handlerFactory.scanRange(LongKey.class, new Object[] {42}, null).getStartRow());
+        try {
+            this.handlerFactory.buildGet("42", LongKey.class);
+            fail("looked up a long rowkey by a string");
+        } catch (final HProcessException expected) {
+            assertTrue(expected.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void writesOnlyTheFieldsATrackedBeanWasDecodedFrom() throws Exception {
+        Article article = new Article();
+        article.setId("a");
+        article.setTitle("t");
+        article.setViews(5);
+        Result row = result(this.handlerFactory.buildPut(article));
+        Result projected = Result.create(row.listCells().stream()
+            .filter(cell -> Bytes.toString(CellUtil.cloneQualifier(cell)).equals("title"))
+            .collect(Collectors.toList()));
+        TrackedRow<Article> tracked = this.handlerFactory.convertTracked(projected, Article.class, "title");
+        tracked.getBean().setTitle("u");
+        RowChanges changes = this.handlerFactory.buildChanges(tracked);
+        assertEquals(1, changes.getPut().size());
+        Cell title = changes.getPut().get(new byte[]{'D'}, Bytes.toBytes("title")).get(0);
+        assertEquals("u", Bytes.toString(CellUtil.cloneValue(title)));
+        assertNull(changes.getDelete());
+    }
+
+    @Test
+    public void keepsThePackedFieldsATrackedBeanWasNotDecodedFrom() throws Exception {
+        PackedArticle article = new PackedArticle();
+        article.setId("a");
+        article.setTitle("t");
+        article.setViews(5);
+        Result row = result(this.handlerFactory.buildPut(article));
+        TrackedRow<PackedArticle> tracked = this.handlerFactory.convertTracked(row, PackedArticle.class, "title");
+        assertEquals(0, tracked.getBean().getViews());
+        tracked.getBean().setTitle("u");
+        RowChanges changes = this.handlerFactory.buildChanges(tracked);
+        PackedArticle written = this.handlerFactory.convert(result(changes.getPut()), PackedArticle.class);
+        assertEquals("u", written.getTitle());
+        assertEquals(5, written.getViews());
+    }
+
+    @Test
+    public void keepsTheIndexesOfWideListElementsAfterANull() throws Exception {
+        Listed listed = new Listed();
+        listed.setId("l");
+        listed.setItems(new ArrayList<>(Arrays.asList("a", null, "c")));
+        Result row = result(this.handlerFactory.buildPut(listed));
+        TrackedRow<Listed> tracked = this.handlerFactory.convertTracked(row, Listed.class);
+        assertEquals(listed, tracked.getBean());
+        tracked.getBean().getItems().set(0, null);
+        RowChanges changes = this.handlerFactory.buildChanges(tracked);
+        assertNull(changes.getPut());
+        assertEquals(1, changes.getDelete().size());
+        Result updated = Result.create(row.listCells().subList(1, row.size()));
+        assertEquals(Arrays.asList(null, null, "c"), this.handlerFactory.convert(updated, Listed.class).getItems());
+    }
+
+    @Test
+    public void decodesTheProjectedFieldsIntoTheirColumns() throws Exception {
+        ColumnarBatch batch = this.handlerFactory.newColumnarBatch(Article.class, 2, "views", "title");
+        for (int i = 0; i < 3; i++) {
+            Article article = new Article();
+            article.setId("a" + i);
+            article.setTitle(i == 1 ? null : "t" + i);
+            article.setViews(i * 10);
+            this.handlerFactory.decodeInto(result(this.handlerFactory.buildPut(article)), batch);
+        }
+        assertEquals(3, batch.size());
+        assertArrayEquals(new int[]{0, 10, 20}, Arrays.copyOf(batch.ints("views"), 3));
+        assertEquals("t0", batch.getString("title", 0));
+        assertTrue(batch.isNull("title", 1));
+        assertEquals("t2", batch.getString("title", 2));
+    }
+
+    private static Result result(final Put put) {
+        List<Cell> cells = put.getFamilyCellMap().get(new byte[]{'D'});
+        return Result.create(cells);
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Article {
+
+        @HRowkey
+        private String id;
+
+        private String title;
+
+        private int views;
+
+    }
+
+    @Data
+    @HRow(defaultFamily = "D", storage = RowStorage.PACKED)
+    public static class PackedArticle {
+
+        @HRowkey
+        private String id;
+
+        private String title;
+
+        private int views;
+
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Listed {
+
+        @HRowkey
+        private String id;
+
+        @HColumnMap(prefix = "i")
+        private List<String> items;
+
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class LongKey {
+
+        @HRowkey
+        private long id;
+
+        private String name;
+
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Item implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @HRowkey
+        private String id;
+
+        private int value;
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.uso.hbase.handler;
+
+import static org.junit.Assert.assertEquals;
+
+import com.uso.hbase.annotation.HColumnMap;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.metrics.BeanMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Data;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InstrumentedRowMapperTest {
+
+    private final DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+
+    private final List<Integer> nullColumns = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        this.handlerFactory.setMetrics(beanClass -> new BeanMetrics() {
+
+            @Override
+            public void recordEncoded(final long bytes, final int nullColumns) {
+                InstrumentedRowMapperTest.this.nullColumns.add(nullColumns);
+            }
+
+        });
+    }
+
+    @Test
+    public void countsNullFieldsBesideWideFields() throws Exception {
+        Tagged bean = new Tagged();
+        bean.setId("r1");
+        bean.setTags(new TreeMap<>());
+        for (int i = 0; i < 5; i++) {
+            bean.getTags().put("t" + i, (long) i);
+        }
+        Put put = this.handlerFactory.buildPut(bean);
+        assertEquals(6, put.size());
+        bean.setName("name");
+        this.handlerFactory.buildPut(bean);
+        bean.setTags(null);
+        bean.setCount(3L);
+        this.handlerFactory.buildPut(bean);
+        assertEquals(Arrays.asList(2, 1, 0), this.nullColumns);
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Tagged {
+
+        @HRowkey
+        private String id;
+
+        private String name;
+
+        private Long count;
+
+        private int flags;
+
+        @HColumnMap(family = "T")
+        private Map<String, Long> tags;
+
+    }
+
+}
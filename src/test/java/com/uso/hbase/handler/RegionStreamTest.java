@@ -0,0 +1,193 @@
+package com.uso.hbase.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.uso.hbase.InMemoryTable;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Data;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegionStreamTest {
+
+    private static final int ROWS = 1000;
+
+    private final DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+
+    private final InMemoryTable memoryTable = new InMemoryTable();
+
+    private final Table table = this.memoryTable.asTable();
+
+    private final RegionLocator locator = InMemoryTable.regionLocator("r0100", "r0300", "r0500", "r0777", "r0900");
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            Item item = new Item();
+            item.setId(String.format("r%04d", i));
+            item.setValue(i);
+            this.memoryTable.put(this.handlerFactory.buildPut(item));
+        }
+    }
+
+    @Test
+    public void scansEveryRowOnceAcrossRegions() throws Exception {
+        try (Stream<Item> stream = this.handlerFactory.regionStream(this.table, this.locator, new Scan(), Item.class,
+            null)) {
+            List<Integer> values = stream.map(Item::getValue).sorted().collect(Collectors.toList());
+            assertEquals(ROWS, values.size());
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(i, values.get(i).intValue());
+            }
+        }
+        assertEquals(6, this.memoryTable.getScans().size());
+    }
+
+    @Test
+    public void cutsScanAtRegionBoundaries() throws Exception {
+        Scan scan = new Scan().withStartRow(Bytes.toBytes("r0250")).withStopRow(Bytes.toBytes("r0600"));
+        try (Stream<Item> stream = this.handlerFactory.regionStream(this.table, this.locator, scan, Item.class,
+            null)) {
+            assertEquals(350, stream.count());
+        }
+        List<String> bounds = new ArrayList<>();
+        for (Scan region : this.memoryTable.getScans()) {
+            bounds.add(Bytes.toString(region.getStartRow()) + "-" + Bytes.toString(region.getStopRow()));
+        }
+        Collections.sort(bounds);
+        assertEquals(Arrays.asList("r0250-r0300", "r0300-r0500", "r0500-r0600"), bounds);
+    }
+
+    @Test
+    public void skipsRegionsOnlyTouchedAtTheirBoundary() throws Exception {
+        Scan scan = new Scan().withStartRow(Bytes.toBytes("r0100")).withStopRow(Bytes.toBytes("r0300"));
+        try (Stream<Item> stream = this.handlerFactory.regionStream(this.table, this.locator, scan, Item.class,
+            null)) {
+            assertEquals(200, stream.count());
+        }
+        assertEquals(1, this.memoryTable.getScans().size());
+        Scan region = this.memoryTable.getScans().get(0);
+        assertEquals("r0100", Bytes.toString(region.getStartRow()));
+        assertEquals("r0300", Bytes.toString(region.getStopRow()));
+        assertFalse(region.includeStopRow());
+    }
+
+    @Test
+    public void capsRegionsScannedAtTheSameTime() throws Exception {
+        this.handlerFactory.setRegionConcurrency(2);
+        this.memoryTable.setNextDelayMillis(1);
+        ForkJoinPool pool = new ForkJoinPool(6);
+        try {
+            long count = pool.submit(() -> {
+                try (Stream<Item> stream = this.handlerFactory.regionStream(this.table, this.locator, new Scan(),
+                    Item.class, null)) {
+                    return stream.count();
+                }
+            }).get();
+            assertEquals(ROWS, count);
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue("at most 2 regions at a time, saw " + this.memoryTable.getMaxOpenScanners(),
+            this.memoryTable.getMaxOpenScanners() <= 2);
+        assertEquals(0, this.memoryTable.getOpenScanners());
+    }
+
+    @Test
+    public void notifiesListenerPerRegion() throws Exception {
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rows = new AtomicLong();
+        RegionScanListener listener = new RegionScanListener() {
+
+            @Override
+            public void onRegionStart(final byte[] startRow, final byte[] stopRow) {
+                started.add(Bytes.toString(startRow) + "-" + Bytes.toString(stopRow));
+            }
+
+            @Override
+            public void onRegionComplete(final byte[] startRow, final byte[] stopRow, final long count) {
+                completed.add(Bytes.toString(startRow) + "-" + Bytes.toString(stopRow) + "=" + count);
+                rows.addAndGet(count);
+            }
+
+        };
+        try (Stream<Item> stream = this.handlerFactory.regionStream(this.table, this.locator, new Scan(), Item.class,
+            listener)) {
+            assertEquals(ROWS, stream.count());
+        }
+        Collections.sort(started);
+        Collections.sort(completed);
+        assertEquals(Arrays.asList("-r0100", "r0100-r0300", "r0300-r0500", "r0500-r0777", "r0777-r0900",
+            "r0900-"), started);
+        assertEquals(Arrays.asList("-r0100=100", "r0100-r0300=200", "r0300-r0500=200", "r0500-r0777=277",
+            "r0777-r0900=123", "r0900-=100"), completed);
+        assertEquals(ROWS, rows.get());
+    }
+
+    @Test
+    public void releasesScannersOnShortCircuitAndClose() throws Exception {
+        AtomicInteger completed = new AtomicInteger();
+        try (Stream<Item> stream = this.handlerFactory.regionStream(this.table, this.locator, new Scan(), Item.class,
+            (start, stop, rows) -> completed.incrementAndGet())) {
+            assertTrue(stream.anyMatch(item -> item.getValue() == 5));
+        }
+        assertEquals(0, this.memoryTable.getOpenScanners());
+        assertTrue(completed.get() < 6);
+    }
+
+    @Test
+    public void releasesScannerOfPartlyConsumedSpliterator() throws Exception {
+        Spliterator<Item> spliterator = this.handlerFactory.regionSpliterator(this.table, this.locator, new Scan(),
+            Item.class, null);
+        assertTrue(spliterator.tryAdvance(item -> { }));
+        assertEquals(1, this.memoryTable.getOpenScanners());
+        RegionScanSpliterator.close(spliterator);
+        assertEquals(0, this.memoryTable.getOpenScanners());
+    }
+
+    @Test
+    public void releasesScannerWhenConsumerFails() throws Exception {
+        Spliterator<Item> spliterator = this.handlerFactory.regionSpliterator(this.table, this.locator, new Scan(),
+            Item.class, null);
+        try {
+            spliterator.tryAdvance(item -> {
+                throw new IllegalStateException("consumer failed");
+            });
+            fail("the failure of the consumer was swallowed");
+        } catch (final IllegalStateException expected) {
+            assertEquals("consumer failed", expected.getMessage());
+        }
+        assertEquals(0, this.memoryTable.getOpenScanners());
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Item {
+
+        @HRowkey
+        private String id;
+
+        private int value;
+
+    }
+
+}
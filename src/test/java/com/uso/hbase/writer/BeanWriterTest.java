@@ -0,0 +1,204 @@
+package com.uso.hbase.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.uso.hbase.InMemoryBufferedMutator;
+import com.uso.hbase.InMemoryTable;
+import com.uso.hbase.annotation.HRow;
+import com.uso.hbase.annotation.HRowkey;
+import com.uso.hbase.handler.DefaultHandlerFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+import lombok.Data;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Test;
+
+public class BeanWriterTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final DefaultHandlerFactory handlerFactory = new DefaultHandlerFactory();
+
+    private final InMemoryTable table = new InMemoryTable();
+
+    private final InMemoryBufferedMutator mutator = new InMemoryBufferedMutator(this.table);
+
+    private final List<Object> failedBeans = Collections.synchronizedList(new ArrayList<>());
+
+    private final BeanWriterConfig config = new BeanWriterConfig();
+
+    public BeanWriterTest() {
+        this.config.setFailureListener((beans, cause) -> this.failedBeans.addAll(beans));
+    }
+
+    @After
+    public void tearDown() {
+        this.mutator.release();
+    }
+
+    @Test
+    public void flushesOnceABatchIsBuffered() throws Exception {
+        this.config.setFlushBatchSize(10);
+        this.config.setFlushIntervalMillis(60000);
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator, this.config)) {
+            for (int i = 0; i < 30; i++) {
+                writer.submit(item(i));
+            }
+            await(() -> writer.getWrittenCount() == 30);
+        }
+        assertEquals(Arrays.asList(10, 10, 10), this.mutator.getFlushes());
+        assertEquals(29, Bytes.toInt(this.table.get(Bytes.toBytes("r29")).getValue(Bytes.toBytes("D"),
+            Bytes.toBytes("value"))));
+    }
+
+    @Test
+    public void flushesOnceTheIntervalHasPassed() throws Exception {
+        this.config.setFlushBatchSize(100);
+        this.config.setFlushIntervalMillis(50);
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator, this.config)) {
+            for (int i = 0; i < 3; i++) {
+                writer.submit(item(i));
+            }
+            await(() -> writer.getWrittenCount() == 3);
+            assertEquals(Collections.singletonList(3), this.mutator.getFlushes());
+            assertEquals(0, writer.getBufferedCount());
+        }
+    }
+
+    @Test
+    public void rejectsBeansBeyondTheBuffer() throws Exception {
+        this.config.setFlushBatchSize(2);
+        this.config.setMaxBufferedBeans(4);
+        this.config.setOverflowPolicy(OverflowPolicy.REJECT);
+        this.mutator.hold();
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator, this.config)) {
+            for (int i = 0; i < 4; i++) {
+                writer.submit(item(i));
+            }
+            try {
+                writer.submit(item(4));
+                fail("a bean beyond the buffer was accepted");
+            } catch (final RejectedExecutionException expected) {
+                // the flusher is held with the first batch, which keeps its slots
+            }
+            this.mutator.release();
+            writer.flush();
+            assertEquals(4, writer.getWrittenCount());
+            writer.submit(item(4));
+        }
+        assertEquals(5, this.mutator.getFlushes().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void blocksBeansBeyondTheBuffer() throws Exception {
+        this.config.setFlushBatchSize(2);
+        this.config.setMaxBufferedBeans(4);
+        this.config.setOverflowPolicy(OverflowPolicy.BLOCK);
+        this.mutator.hold();
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator, this.config)) {
+            for (int i = 0; i < 4; i++) {
+                writer.submit(item(i));
+            }
+            Thread blocked = new Thread(() -> {
+                try {
+                    writer.submit(item(4));
+                } catch (final Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            blocked.start();
+            await(() -> blocked.getState() == Thread.State.WAITING);
+            assertTrue(blocked.isAlive());
+            this.mutator.release();
+            blocked.join(TIMEOUT_MILLIS);
+            assertFalse(blocked.isAlive());
+            writer.flush();
+            assertEquals(5, writer.getWrittenCount());
+        }
+    }
+
+    @Test
+    public void reportsBeansRejectedThroughTheListenerOfAnOwnedMutator() throws Exception {
+        this.mutator.failRow("r3");
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator.connection(),
+            TableName.valueOf("memory"), this.config)) {
+            for (int i = 0; i < 5; i++) {
+                writer.submit(item(i));
+            }
+            writer.flush();
+            assertEquals(4, writer.getWrittenCount());
+            assertEquals(1, writer.getFailedCount());
+        }
+        assertEquals(Collections.singletonList(item(3)), this.failedBeans);
+        assertTrue(this.mutator.isClosed());
+    }
+
+    @Test
+    public void reportsBeansRejectedByAGivenMutator() throws Exception {
+        this.mutator.failRow("r1");
+        this.mutator.failRow("r4");
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator, this.config)) {
+            for (int i = 0; i < 5; i++) {
+                writer.submit(item(i));
+            }
+            writer.flush();
+            assertEquals(3, writer.getWrittenCount());
+            assertEquals(2, writer.getFailedCount());
+        }
+        assertEquals(Arrays.asList(item(1), item(4)), this.failedBeans);
+        assertFalse(this.mutator.isClosed());
+    }
+
+    @Test
+    public void reportsTheWholeBatchWhenTheFlushFails() throws Exception {
+        this.mutator.setFlushFailure(new IOException("region server gone"));
+        try (BeanWriter writer = new BeanWriter(this.handlerFactory, this.mutator, this.config)) {
+            for (int i = 0; i < 3; i++) {
+                writer.submit(item(i));
+            }
+            writer.flush();
+            assertEquals(0, writer.getWrittenCount());
+            assertEquals(3, writer.getFailedCount());
+        }
+        assertEquals(Arrays.asList(item(0), item(1), item(2)), this.failedBeans);
+    }
+
+    private static Item item(final int i) {
+        Item item = new Item();
+        item.setId("r" + i);
+        item.setValue(i);
+        return item;
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within " + TIMEOUT_MILLIS + " ms");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @Data
+    @HRow(defaultFamily = "D")
+    public static class Item {
+
+        @HRowkey
+        private String id;
+
+        private int value;
+
+    }
+
+}